@@ -0,0 +1,56 @@
+package com.amalitech.benchmarks;
+
+import com.amalitech.models.Account;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Throughput of {@link Account#deposit} on one shared account as contention grows. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountDepositBenchmark {
+
+  private Account account;
+
+  @Setup
+  public void setUp() {
+    account = BenchmarkData.account();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public double deposit1Thread() throws Exception {
+    return account.deposit(1.0);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public double deposit4Threads() throws Exception {
+    return account.deposit(1.0);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public double deposit16Threads() throws Exception {
+    return account.deposit(1.0);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public double deposit64Threads() throws Exception {
+    return account.deposit(1.0);
+  }
+}
@@ -0,0 +1,88 @@
+package com.amalitech.benchmarks;
+
+import com.amalitech.models.Account;
+import com.amalitech.models.Transaction;
+import com.amalitech.services.AccountManager;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Lookup and transfer throughput of {@link AccountManager}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountManagerBenchmark {
+
+  @Param({"1000", "100000"})
+  public int accounts;
+
+  private Path dataDirectory;
+  private AccountManager accountManager;
+  private String[] accountNumbers;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    dataDirectory = BenchmarkData.createDirectory("bench-accounts");
+    accountManager = BenchmarkData.accountManager(dataDirectory, accounts);
+    accountNumbers = new String[accounts];
+    for (int i = 0; i < accounts; i++) {
+      accountNumbers[i] = BenchmarkData.accountNumber(i);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    BenchmarkData.deleteDirectory(dataDirectory);
+  }
+
+  /** Per-thread cursor, so threads walk different accounts. */
+  @State(Scope.Thread)
+  public static class Cursor {
+    private int next;
+
+    int next(int bound) {
+      next = (next + 7919) % bound;
+      return next;
+    }
+  }
+
+  @Benchmark
+  public Account findAccount(Cursor cursor) throws Exception {
+    return accountManager.findAccount(accountNumbers[cursor.next(accounts)]);
+  }
+
+  @Benchmark
+  public List<Transaction> transfer(Cursor cursor) throws Exception {
+    return transferBetween(cursor);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public List<Transaction> transferContended(Cursor cursor) throws Exception {
+    return transferBetween(cursor);
+  }
+
+  private List<Transaction> transferBetween(Cursor cursor) throws Exception {
+    int from = cursor.next(accounts);
+    int to = (from + 1) % accounts;
+    return accountManager.transfer(accountNumbers[from], accountNumbers[to], 1.0);
+  }
+}
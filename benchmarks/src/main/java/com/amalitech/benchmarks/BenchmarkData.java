@@ -0,0 +1,73 @@
+package com.amalitech.benchmarks;
+
+import com.amalitech.models.Account;
+import com.amalitech.models.CheckingAccount;
+import com.amalitech.models.Customer;
+import com.amalitech.models.RegularCustomer;
+import com.amalitech.models.Transaction;
+import com.amalitech.services.AccountManager;
+import com.amalitech.services.CustomerManager;
+import com.amalitech.services.FilePersistenceService;
+import com.amalitech.utils.DatasetGenerator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/** Shared fixtures for the benchmarks. Data is derived from a fixed seed so runs are comparable. */
+final class BenchmarkData {
+
+  static final long SEED = DatasetGenerator.DEFAULT_SEED;
+
+  private BenchmarkData() {
+    // Private constructor to prevent instantiation
+  }
+
+  static Customer customer() {
+    return new RegularCustomer("Alice", 28, "555-0101", "321 Pine St", "alice@example.com");
+  }
+
+  static String accountNumber(int index) {
+    return String.format("ACC%03d", index);
+  }
+
+  /** Creates an account manager holding {@code count} checking accounts with 1,000,000 each. */
+  static AccountManager accountManager(Path dataDirectory, int count) {
+    FilePersistenceService persistenceService =
+        new FilePersistenceService(dataDirectory.toString() + "/");
+    AccountManager accountManager =
+        new AccountManager(new CustomerManager(persistenceService), persistenceService);
+    Customer customer = customer();
+    for (int i = 0; i < count; i++) {
+      accountManager.addAccount(new CheckingAccount(accountNumber(i), customer, 1_000_000.0));
+    }
+    return accountManager;
+  }
+
+  static Account account() {
+    return new CheckingAccount("ACC001", customer(), 1_000.0);
+  }
+
+  /** Generates a consistent history of {@code count} transactions over {@code accounts}. */
+  static List<Transaction> transactions(int count, int accounts) {
+    DatasetGenerator generator = new DatasetGenerator(SEED);
+    Map<String, Customer> customers = generator.generateCustomers(Math.max(1, accounts / 2));
+    Map<String, Account> generated = generator.generateAccounts(customers, accounts);
+    return generator.generateTransactions(generated, count);
+  }
+
+  static Path createDirectory(String prefix) throws IOException {
+    return Files.createTempDirectory(prefix);
+  }
+
+  /** Deletes a benchmark data directory and the files in it. */
+  static void deleteDirectory(Path directory) throws IOException {
+    try (var files = Files.list(directory)) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(directory);
+  }
+}
@@ -0,0 +1,69 @@
+package com.amalitech.benchmarks;
+
+import com.amalitech.models.Transaction;
+import com.amalitech.services.FilePersistenceService;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Transaction file load and save time of {@link FilePersistenceService}. The 10M row case needs a
+ * large heap ({@code -jvmArgs -Xmx8g}); select sizes with {@code -p rows=10000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FilePersistenceBenchmark {
+
+  @Param({"10000", "1000000", "10000000"})
+  public int rows;
+
+  private Path loadDirectory;
+  private Path saveDirectory;
+  private FilePersistenceService loadService;
+  private FilePersistenceService saveService;
+  private List<Transaction> transactions;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    transactions = BenchmarkData.transactions(rows, 1000);
+    loadDirectory = BenchmarkData.createDirectory("bench-load");
+    saveDirectory = BenchmarkData.createDirectory("bench-save");
+    loadService = new FilePersistenceService(loadDirectory.toString() + "/");
+    saveService = new FilePersistenceService(saveDirectory.toString() + "/");
+    loadService.saveTransactions(transactions);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    BenchmarkData.deleteDirectory(loadDirectory);
+    BenchmarkData.deleteDirectory(saveDirectory);
+  }
+
+  @Benchmark
+  public List<Transaction> loadTransactions() throws IOException {
+    return loadService.loadTransactions();
+  }
+
+  @Benchmark
+  public void saveTransactions() throws IOException {
+    saveService.saveTransactions(transactions);
+  }
+}
@@ -0,0 +1,93 @@
+package com.amalitech.benchmarks;
+
+import com.amalitech.constants.TransactionStorage;
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.Transaction;
+import com.amalitech.services.FilePersistenceService;
+import com.amalitech.services.TransactionManager;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Search and aggregate latency of {@link TransactionManager} over a generated history. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionManagerBenchmark {
+
+  private static final int ACCOUNTS = 1000;
+
+  @Param({"10000", "1000000"})
+  public int rows;
+
+  @Param({"OBJECTS", "COLUMNAR"})
+  public TransactionStorage storage;
+
+  private Path dataDirectory;
+  private TransactionManager transactionManager;
+  private long fromMillis;
+  private long toMillis;
+  private String accountNumber;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    dataDirectory = BenchmarkData.createDirectory("bench-transactions");
+    transactionManager =
+        new TransactionManager(
+            new FilePersistenceService(dataDirectory.toString() + "/"), storage);
+    List<Transaction> transactions = BenchmarkData.transactions(rows, ACCOUNTS);
+    transactions.forEach(transactionManager::addTransaction);
+    // The middle tenth of the history
+    fromMillis = transactions.get(rows * 9 / 20).getTimestampMillis();
+    toMillis = transactions.get(rows * 11 / 20).getTimestampMillis();
+    accountNumber = BenchmarkData.accountNumber(ACCOUNTS / 2);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    BenchmarkData.deleteDirectory(dataDirectory);
+  }
+
+  @Benchmark
+  public List<Transaction> searchAllByType() {
+    return transactionManager.searchTransactions(t -> t.getType() == TransactionType.DEPOSIT);
+  }
+
+  @Benchmark
+  public List<Transaction> searchTimeRange() {
+    return transactionManager.searchTransactions(
+        fromMillis, toMillis, t -> t.getAmountCents() > 50_000);
+  }
+
+  @Benchmark
+  public double totalDeposits() {
+    return transactionManager.calculateTotalDeposits();
+  }
+
+  @Benchmark
+  public double accountTotalDeposits() {
+    return transactionManager.getTotalDeposits(accountNumber);
+  }
+
+  @Benchmark
+  public Transaction[] accountHistory() {
+    return transactionManager.getTransactionsForAccount(accountNumber);
+  }
+}
@@ -0,0 +1,11 @@
+package com.amalitech.constants;
+
+/** Enumeration representing the kinds of thread used to run banking requests. */
+public enum ExecutorMode {
+  /** Represents one virtual thread per request. */
+  VIRTUAL,
+  /** Represents a fixed pool of platform threads. */
+  PLATFORM,
+  /** Represents per-account mailboxes drained by one writer thread per shard. */
+  MAILBOX
+}
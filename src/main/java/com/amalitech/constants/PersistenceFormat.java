@@ -0,0 +1,13 @@
+package com.amalitech.constants;
+
+/** Enumeration representing the on-disk formats available for persisting bank data. */
+public enum PersistenceFormat {
+  /** Represents human-readable CSV text files. */
+  CSV,
+  /** Represents fixed-layout binary snapshots loaded through memory mapping. */
+  BINARY,
+  /** Represents CSV files with transactions split into monthly segments loaded on demand. */
+  SEGMENTED,
+  /** Represents monthly segments with months older than the loaded ones stored compressed. */
+  ARCHIVED
+}
@@ -0,0 +1,9 @@
+package com.amalitech.constants;
+
+/** Enumeration representing how the in-memory transaction history is laid out. */
+public enum TransactionStorage {
+  /** Represents one {@code Transaction} object per record. */
+  OBJECTS,
+  /** Represents parallel primitive arrays, one per field, with transactions built on demand. */
+  COLUMNAR
+}
@@ -0,0 +1,9 @@
+package com.amalitech.constants;
+
+/** Enumeration representing how pipeline threads wait for work or free capacity. */
+public enum WaitStrategy {
+  /** Represents spinning on the CPU, for the lowest latency at the cost of a busy core. */
+  BUSY_SPIN,
+  /** Represents parking briefly between checks, trading some latency for idle CPU. */
+  PARK
+}
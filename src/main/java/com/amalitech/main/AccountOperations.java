@@ -30,8 +30,6 @@ public class AccountOperations {
         .toLowerCase()
         .startsWith("y")) {
       accountManager.addAccount(account);
-      customerManager.saveCustomers();
-      accountManager.saveAccounts();
       System.out.println("Account Created Successfully!");
       account.displayAccountDetails();
       customer.displayCustomerDetails();
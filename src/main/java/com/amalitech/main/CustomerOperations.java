@@ -13,7 +13,6 @@ public class CustomerOperations {
     System.out.println("\n+---------------+\n| ADD CUSTOMER  |\n+---------------+");
     Customer customer = createCustomer(inputReader);
     customerManager.addCustomer(customer);
-    customerManager.saveCustomers();
     System.out.println("Customer added successfully!");
     customer.displayCustomerDetails();
     inputReader.waitForEnter();
@@ -2,30 +2,61 @@ package com.amalitech.main;
 
 import com.amalitech.services.*;
 import com.amalitech.utils.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /** Handles data persistence operations. */
 public class DataOperations {
 
-  public static void saveAllData(
-      AccountManager accountManager,
-      CustomerManager customerManager,
-      TransactionManager transactionManager) {
+  /** Saves all data through the autosave scheduler, so it never overlaps a background save. */
+  public static void saveAllData(AutoSaveScheduler autoSaveScheduler) {
     System.out.println("\nSaving data...");
-    customerManager.saveCustomers();
-    accountManager.saveAccounts();
-    transactionManager.saveTransactions();
+    autoSaveScheduler.flush();
     System.out.println("Data saved successfully!");
   }
 
+  /**
+   * Loads customers, accounts and transactions and reports how long each took. Accounts link to
+   * their customers and so load after them, but transactions depend on neither, so they load on a
+   * separate thread alongside the customer and account chain.
+   */
   public static void loadAllData(
       AccountManager accountManager,
       CustomerManager customerManager,
       TransactionManager transactionManager) {
     System.out.println("\nLoading data...");
-    customerManager.loadCustomers();
-    accountManager.loadAccounts();
-    transactionManager.loadTransactions();
+    long began = System.nanoTime();
+    CompletableFuture<Long> transactionLoad =
+        CompletableFuture.supplyAsync(
+            () -> timeNanos(transactionManager::loadTransactions),
+            task -> {
+              Thread loader = new Thread(task, "transaction-load");
+              loader.setDaemon(true);
+              loader.start();
+            });
+    long customerNanos = timeNanos(customerManager::loadCustomers);
+    long accountNanos = timeNanos(accountManager::loadAccounts);
+    long transactionNanos;
+    try {
+      transactionNanos = transactionLoad.join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
     System.out.println("Data loaded successfully!");
+    System.out.printf(
+        "Load times: customers %d ms, accounts %d ms, transactions %d ms, total %d ms\n",
+        customerNanos / 1_000_000,
+        accountNanos / 1_000_000,
+        transactionNanos / 1_000_000,
+        (System.nanoTime() - began) / 1_000_000);
+  }
+
+  /** Brings balances up to date with the transaction history after an unclean shutdown. */
+  public static void recoverData(RecoveryService recoveryService) {
+    int replayed = recoveryService.recover();
+    if (replayed > 0) {
+      System.out.println("Recovered balances by replaying " + replayed + " transaction(s).");
+    }
   }
 
   public static void runTests(InputReader inputReader) {
@@ -37,4 +68,12 @@ public class DataOperations {
     }
     inputReader.waitForEnter();
   }
+
+  // ==================== HELPER METHODS ====================
+
+  private static long timeNanos(Runnable phase) {
+    long began = System.nanoTime();
+    phase.run();
+    return System.nanoTime() - began;
+  }
 }
@@ -1,5 +1,6 @@
 package com.amalitech.main;
 
+import com.amalitech.constants.PersistenceFormat;
 import com.amalitech.services.*;
 import com.amalitech.utils.ConsoleInputReader;
 
@@ -10,19 +11,35 @@ public class Main {
     System.out.println(
         "+-------------------------+\n| BANK ACCOUNT MANAGEMENT |\n+-------------------------+");
 
-    // Initialize persistence and configuration services
-    FilePersistenceService persistenceService = new FilePersistenceService();
+    // Initialize configuration and persistence services
     ConfigurationService configService = new ConfigurationService();
+    PersistenceService persistenceService = createPersistenceService(configService);
 
     // Initialize managers with persistence (order matters: customers -> accounts -> transactions)
     CustomerManager customerManager = new CustomerManager(persistenceService);
     AccountManager accountManager = new AccountManager(customerManager, persistenceService);
-    TransactionManager transactionManager = new TransactionManager(persistenceService);
+    TransactionManager transactionManager =
+        new TransactionManager(persistenceService, configService.getTransactionStorage());
 
-    // Auto-load data if configured
+    RecoveryService recoveryService = new RecoveryService(accountManager, transactionManager);
+
+    // Auto-load data if configured, then replay anything recorded after the last checkpoint
     if (configService.isAutoLoadOnStartup()) {
       DataOperations.loadAllData(accountManager, customerManager, transactionManager);
+      DataOperations.recoverData(recoveryService);
     }
+    recoveryService.startPeriodicCheckpoints(configService.getCheckpointIntervalSeconds());
+
+    // Saves requested by the menus run in the background; the hook flushes on abrupt exit
+    AutoSaveScheduler autoSaveScheduler =
+        AutoSaveScheduler.start(
+            customerManager,
+            accountManager,
+            transactionManager,
+            configService.getAutoSaveIntervalSeconds() * 1000,
+            configService.getAutoSaveChangeThreshold(),
+            configService.getAutoSaveShutdownTimeoutMillis());
+    Runtime.getRuntime().addShutdownHook(new Thread(autoSaveScheduler::close, "autosave-flush"));
 
     try (ConsoleInputReader inputReader = new ConsoleInputReader()) {
       int choice;
@@ -35,15 +52,38 @@ public class Main {
             transactionManager,
             customerManager,
             inputReader,
-            configService);
+            configService,
+            autoSaveScheduler);
       } while (choice != 0);
 
-      // Save all data before exit if configured
+      // Finish pending autosaves, then save all data before exit if configured
+      autoSaveScheduler.close();
       if (configService.isSaveOnExit()) {
-        DataOperations.saveAllData(accountManager, customerManager, transactionManager);
+        DataOperations.saveAllData(autoSaveScheduler);
       }
     }
+    recoveryService.close();
 
     System.out.println("Thank you for using Bank Account Management System!\nGoodbye!");
   }
+
+  /** Creates the persistence service for the configured format. */
+  private static PersistenceService createPersistenceService(ConfigurationService configService) {
+    FilePersistenceService csvService = new FilePersistenceService();
+    if (configService.getPersistenceFormat() == PersistenceFormat.BINARY) {
+      // CSV files seed the binary snapshots until the first save in binary form
+      return new BinarySnapshotPersistenceService("src/main/resources/data/", csvService);
+    }
+    if (configService.getPersistenceFormat() == PersistenceFormat.SEGMENTED) {
+      return new SegmentedPersistenceService("src/main/resources/data/");
+    }
+    if (configService.getPersistenceFormat() == PersistenceFormat.ARCHIVED) {
+      return new SegmentedPersistenceService(
+          "src/main/resources/data/",
+          SegmentedPersistenceService.DEFAULT_HOT_MONTHS,
+          SegmentedPersistenceService.DEFAULT_CACHED_SEGMENTS,
+          true);
+    }
+    return csvService;
+  }
 }
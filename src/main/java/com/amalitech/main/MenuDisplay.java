@@ -26,6 +26,8 @@ public class MenuDisplay {
     System.out.println("+---------------------+");
     System.out.println("1. Run Standard Simulation (100 threads)");
     System.out.println("2. Run Custom Simulation");
+    System.out.println("3. Run Lock-Free vs Synchronized Benchmark");
+    System.out.println("4. Compare Request Executor Modes");
     System.out.println("0. Back to Main Menu");
     System.out.println();
   }
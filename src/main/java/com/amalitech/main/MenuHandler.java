@@ -1,7 +1,12 @@
 package com.amalitech.main;
 
+import com.amalitech.constants.ExecutorMode;
+import com.amalitech.exceptions.AccountNotFoundException;
+import com.amalitech.models.Account;
 import com.amalitech.services.*;
+import com.amalitech.utils.ConcurrencyUtils;
 import com.amalitech.utils.InputReader;
+import com.amalitech.utils.MoneyUtils;
 
 /** Handles menu navigation and user input routing. */
 public class MenuHandler {
@@ -12,21 +17,25 @@ public class MenuHandler {
       TransactionManager transactionManager,
       CustomerManager customerManager,
       InputReader inputReader,
-      ConfigurationService configService) {
+      ConfigurationService configService,
+      AutoSaveScheduler autoSaveScheduler) {
     switch (choice) {
       case 1 ->
           showAccountsMenu(
-              accountManager, customerManager, transactionManager, inputReader, configService);
-      case 2 ->
-          showCustomersMenu(
-              customerManager, accountManager, transactionManager, inputReader, configService);
+              accountManager, customerManager, inputReader, configService, autoSaveScheduler);
+      case 2 -> showCustomersMenu(customerManager, inputReader, configService, autoSaveScheduler);
       case 3 ->
           showTransactionsMenu(
-              accountManager, transactionManager, customerManager, inputReader, configService);
+              accountManager, transactionManager, inputReader, configService, autoSaveScheduler);
       case 4 -> showReportsMenu(accountManager, transactionManager, customerManager, inputReader);
       case 5 ->
           showDataManagementMenu(
-              accountManager, customerManager, transactionManager, inputReader, configService);
+              accountManager,
+              customerManager,
+              transactionManager,
+              inputReader,
+              configService,
+              autoSaveScheduler);
       case 6 -> showConcurrencyMenu(accountManager, inputReader);
       case 7 -> DataOperations.runTests(inputReader);
       case 0 -> {}
@@ -40,25 +49,25 @@ public class MenuHandler {
     int choice;
     do {
       MenuDisplay.showConcurrencyMenu();
-      choice = inputReader.readInt("Enter your choice: ", 0, 2);
+      choice = inputReader.readInt("Enter your choice: ", 0, 4);
 
       switch (choice) {
         case 1 -> {
           String accNum = inputReader.readString("Enter Account Number to test: ");
           try {
-            com.amalitech.models.Account account = accountManager.findAccount(accNum);
+            Account account = accountManager.findAccount(accNum);
             System.out.println("Starting standard simulation (100 deposits, 100 withdrawals)...");
-            double startBalance = account.getBalance();
-            com.amalitech.utils.ConcurrencyUtils.runCustomSimulation(account, 100, 100, true);
+            long startBalanceCents = account.getBalanceCents();
+            ConcurrencyUtils.runCustomSimulation(account, 100, 100, true);
             System.out.println("Simulation complete.");
-            System.out.println("Start Balance: " + startBalance);
+            System.out.println("Start Balance: " + MoneyUtils.toAmount(startBalanceCents));
             System.out.println("Final Balance: " + account.getBalance());
-            if (Math.abs(startBalance - account.getBalance()) < 0.001) {
+            if (startBalanceCents == account.getBalanceCents()) {
               System.out.println("SUCCESS: Balance matches!");
             } else {
               System.out.println("FAILURE: Balance mismatch!");
             }
-          } catch (com.amalitech.exceptions.AccountNotFoundException e) {
+          } catch (AccountNotFoundException e) {
             System.out.println(e.getMessage());
           } catch (InterruptedException e) {
             System.err.println("Simulation interrupted: " + e.getMessage());
@@ -68,23 +77,62 @@ public class MenuHandler {
         case 2 -> {
           String accNum = inputReader.readString("Enter Account Number to test: ");
           try {
-            com.amalitech.models.Account account = accountManager.findAccount(accNum);
+            Account account = accountManager.findAccount(accNum);
             int deposits = inputReader.readInt("Enter number of deposits: ", 1, 1000);
             int withdrawals = inputReader.readInt("Enter number of withdrawals: ", 1, 1000);
             System.out.println("Starting custom simulation...");
             double startBalance = account.getBalance();
-            com.amalitech.utils.ConcurrencyUtils.runCustomSimulation(
-                account, deposits, withdrawals, true);
+            ConcurrencyUtils.runCustomSimulation(account, deposits, withdrawals, true);
             System.out.println("Simulation complete.");
             System.out.println("Start Balance: " + startBalance);
             System.out.println("Final Balance: " + account.getBalance());
-          } catch (com.amalitech.exceptions.AccountNotFoundException e) {
+          } catch (AccountNotFoundException e) {
             System.out.println(e.getMessage());
           } catch (InterruptedException e) {
             System.err.println("Simulation interrupted: " + e.getMessage());
           }
           inputReader.waitForEnter();
         }
+        case 3 -> {
+          String accNum = inputReader.readString("Enter Account Number to test: ");
+          try {
+            Account account = accountManager.findAccount(accNum);
+            int threads = inputReader.readInt("Enter number of threads: ", 1, 200);
+            int operations = inputReader.readInt("Enter operations per thread: ", 2, 100_000);
+            System.out.println("Running benchmark...");
+            ConcurrencyUtils.BenchmarkResult result =
+                ConcurrencyUtils.runContentionBenchmark(account, threads, operations);
+            System.out.printf(
+                "Operations: %d\nLock-free: %.2f ms\nSynchronized: %.2f ms\nSpeedup: %.2fx\n"
+                    + "Failed operations: %d\n",
+                result.operations(),
+                result.lockFreeNanos() / 1_000_000.0,
+                result.synchronizedNanos() / 1_000_000.0,
+                result.speedup(),
+                result.failures());
+          } catch (AccountNotFoundException e) {
+            System.out.println(e.getMessage());
+          } catch (InterruptedException e) {
+            System.err.println("Benchmark interrupted: " + e.getMessage());
+          }
+          inputReader.waitForEnter();
+        }
+        case 4 -> {
+          String accNum = inputReader.readString("Enter Account Number to test: ");
+          try {
+            accountManager.findAccount(accNum);
+            int requests = inputReader.readInt("Enter number of requests: ", 2, 100_000);
+            System.out.println("Running the same load in every executor mode...");
+            System.out.printf("Requests: %d\n", requests);
+            for (ExecutorMode mode : ExecutorMode.values()) {
+              long nanos = BankingRequestExecutor.measure(accountManager, mode, accNum, requests);
+              System.out.printf("%s: %.2f ms\n", mode, nanos / 1_000_000.0);
+            }
+          } catch (AccountNotFoundException e) {
+            System.out.println(e.getMessage());
+          }
+          inputReader.waitForEnter();
+        }
         case 0 -> {}
         default -> System.out.println("Invalid Input. Try Again!");
       }
@@ -96,9 +144,9 @@ public class MenuHandler {
   public static void showAccountsMenu(
       AccountManager accountManager,
       CustomerManager customerManager,
-      TransactionManager transactionManager,
       InputReader inputReader,
-      ConfigurationService configService) {
+      ConfigurationService configService,
+      AutoSaveScheduler autoSaveScheduler) {
     int choice;
     do {
       MenuDisplay.showAccountsMenu();
@@ -108,7 +156,7 @@ public class MenuHandler {
         case 1 -> {
           AccountOperations.createAccount(accountManager, customerManager, inputReader);
           if (configService.isAutoSave()) {
-            DataOperations.saveAllData(accountManager, customerManager, transactionManager);
+            autoSaveScheduler.requestSave();
           }
         }
         case 2 -> accountManager.viewAllAccounts(inputReader);
@@ -124,10 +172,9 @@ public class MenuHandler {
 
   public static void showCustomersMenu(
       CustomerManager customerManager,
-      AccountManager accountManager,
-      TransactionManager transactionManager,
       InputReader inputReader,
-      ConfigurationService configService) {
+      ConfigurationService configService,
+      AutoSaveScheduler autoSaveScheduler) {
     int choice;
     do {
       MenuDisplay.showCustomersMenu();
@@ -137,7 +184,7 @@ public class MenuHandler {
         case 1 -> {
           CustomerOperations.addCustomer(customerManager, inputReader);
           if (configService.isAutoSave()) {
-            DataOperations.saveAllData(accountManager, customerManager, transactionManager);
+            autoSaveScheduler.requestSave();
           }
         }
         case 2 -> customerManager.viewAllCustomers(inputReader);
@@ -153,9 +200,9 @@ public class MenuHandler {
   public static void showTransactionsMenu(
       AccountManager accountManager,
       TransactionManager transactionManager,
-      CustomerManager customerManager,
       InputReader inputReader,
-      ConfigurationService configService) {
+      ConfigurationService configService,
+      AutoSaveScheduler autoSaveScheduler) {
     int choice;
     do {
       MenuDisplay.showTransactionsMenu();
@@ -165,7 +212,7 @@ public class MenuHandler {
         case 1 -> {
           TransactionOperations.processTransaction(accountManager, transactionManager, inputReader);
           if (configService.isAutoSave()) {
-            DataOperations.saveAllData(accountManager, customerManager, transactionManager);
+            autoSaveScheduler.requestSave();
           }
         }
         case 2 -> transactionManager.viewAllTransactions(inputReader);
@@ -210,7 +257,8 @@ public class MenuHandler {
       CustomerManager customerManager,
       TransactionManager transactionManager,
       InputReader inputReader,
-      ConfigurationService configService) {
+      ConfigurationService configService,
+      AutoSaveScheduler autoSaveScheduler) {
     int choice;
     do {
       MenuDisplay.showDataManagementMenu(configService);
@@ -218,7 +266,7 @@ public class MenuHandler {
 
       switch (choice) {
         case 1 -> {
-          DataOperations.saveAllData(accountManager, customerManager, transactionManager);
+          DataOperations.saveAllData(autoSaveScheduler);
           inputReader.waitForEnter();
         }
         case 2 -> {
@@ -8,9 +8,6 @@ import com.amalitech.services.*;
 import com.amalitech.utils.ConsoleTablePrinter;
 import com.amalitech.utils.InputReader;
 import com.amalitech.utils.ValidationUtils;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -102,9 +99,12 @@ public class TransactionOperations {
     predicate = predicate.and(getAccountNumberFilter(inputReader));
     predicate = predicate.and(getTransactionTypeFilter(inputReader));
     predicate = predicate.and(getAmountRangeFilter(inputReader));
-    predicate = predicate.and(getDateRangeFilter(inputReader));
+    int days = getDateRangeDays(inputReader);
 
-    List<Transaction> results = transactionManager.searchTransactions(predicate);
+    List<Transaction> results =
+        days > 0
+            ? transactionManager.searchLastNDays(days, predicate)
+            : transactionManager.searchTransactions(predicate);
     displaySearchResults(results);
     inputReader.waitForEnter();
   }
@@ -163,22 +163,12 @@ public class TransactionOperations {
     return p;
   }
 
-  private static Predicate<Transaction> getDateRangeFilter(InputReader inputReader) {
+  /** Prompts for a last-N-days range, returning 0 when no date filter is wanted. */
+  private static int getDateRangeDays(InputReader inputReader) {
     if (!promptYesNo(inputReader, "Filter by Date Range (Last N days)?")) {
-      return t -> true;
+      return 0;
     }
-    int days = inputReader.readInt("Enter number of days (e.g., 7 for last week): ", 1, 3650);
-    LocalDate cutoffDate = LocalDate.now().minusDays(days);
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
-
-    return t -> {
-      try {
-        LocalDateTime txnTime = LocalDateTime.parse(t.getTimestamp(), formatter);
-        return txnTime.toLocalDate().isAfter(cutoffDate.minusDays(1));
-      } catch (Exception e) {
-        return false;
-      }
-    };
+    return inputReader.readInt("Enter number of days (e.g., 7 for last week): ", 1, 3650);
   }
 
   private static void displaySearchResults(List<Transaction> results) {
@@ -259,29 +249,17 @@ public class TransactionOperations {
     }
 
     try {
-      Account toAccount = accountManager.findAccount(toAccountNumber);
+      accountManager.findAccount(toAccountNumber); // Fail fast before asking for an amount
 
       double amount = inputReader.readDouble("Enter amount to transfer: ", 0);
 
       if (inputReader.readString("Confirm transfer? (y/n): ").toLowerCase().startsWith("y")) {
-        accountManager.transfer(fromAccount.getAccountNumber(), toAccountNumber, amount);
-
-        // Record transactions
-        Transaction debit =
-            new Transaction(
-                fromAccount.getAccountNumber(),
-                TransactionType.TRANSFER_OUT,
-                amount,
-                fromAccount.getBalance());
-        Transaction credit =
-            new Transaction(
-                toAccountNumber, TransactionType.TRANSFER_IN, amount, toAccount.getBalance());
-
-        transactionManager.addTransaction(debit);
-        transactionManager.addTransaction(credit);
+        TransferService transferService = new TransferService(accountManager, transactionManager);
+        List<Transaction> entries =
+            transferService.transfer(fromAccount.getAccountNumber(), toAccountNumber, amount);
 
         System.out.println("Transfer Successful!");
-        System.out.println("New Source Balance: $" + fromAccount.getBalance());
+        System.out.println("New Source Balance: $" + entries.get(0).getBalanceAfter());
       } else {
         System.out.println("Transfer cancelled.");
       }
@@ -333,8 +311,7 @@ public class TransactionOperations {
       Account account, TransactionManager transactionManager, Transaction transaction) {
     try {
       account.processTransaction(transaction.getAmount(), transaction.getType());
-      transactionManager.addTransaction(transaction);
-      transactionManager.saveTransactions();
+      transactionManager.recordTransaction(transaction);
       System.out.printf(
           "%s Successful! New Balance: $%.2f\n", transaction.getType(), account.getBalance());
     } catch (Exception e) {
@@ -5,11 +5,15 @@ import com.amalitech.constants.TransactionType;
 import com.amalitech.exceptions.InsufficientFundsException;
 import com.amalitech.exceptions.InvalidAmountException;
 import com.amalitech.exceptions.OverdraftLimitExceededException;
+import com.amalitech.utils.MoneyUtils;
 import com.amalitech.utils.ValidationUtils;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Abstract base class for bank accounts, implementing {@link Transactable} for transactions.
- * Manages account number, customer, status, and balance.
+ * Manages account number, customer, status, and balance. The balance is held in cents so deposits
+ * and withdrawals are exact, in an {@link AtomicLong} so they are lock-free: withdrawals validate
+ * against the current balance and retry with compare-and-set if another thread changed it.
  */
 public abstract class Account implements Transactable {
   private static final String DEFAULT_STATUS = "Active";
@@ -17,11 +21,11 @@ public abstract class Account implements Transactable {
   private final String accountNumber;
   private final Customer customer;
   private final String status;
-  private double balance;
+  private final AtomicLong balanceCents;
 
   Account(Customer customer) {
     this.accountNumber = generateAccountNumber();
-    this.balance = 0;
+    this.balanceCents = new AtomicLong();
     this.customer = customer;
     this.status = DEFAULT_STATUS;
   }
@@ -39,7 +43,7 @@ public abstract class Account implements Transactable {
   protected Account(String existingAccountNumber, Customer customer, double balance) {
     this.accountNumber = existingAccountNumber;
     this.customer = customer;
-    this.balance = balance;
+    this.balanceCents = new AtomicLong(MoneyUtils.toCents(balance));
     this.status = DEFAULT_STATUS;
   }
 
@@ -62,21 +66,47 @@ public abstract class Account implements Transactable {
   }
 
   public double getBalance() {
-    return balance;
+    return MoneyUtils.toAmount(balanceCents.get());
+  }
+
+  public long getBalanceCents() {
+    return balanceCents.get();
   }
 
   // setters
 
   public void setBalance(double balance) {
-    this.balance = balance;
+    this.balanceCents.set(MoneyUtils.toCents(balance));
+  }
+
+  public void setBalanceCents(long balanceCents) {
+    this.balanceCents.set(balanceCents);
+  }
+
+  /**
+   * Atomically replaces the balance if it still equals the expected value. Subclasses use this to
+   * apply a withdrawal only against the balance it was validated for.
+   *
+   * @return true if the balance was updated
+   */
+  protected boolean compareAndSetBalanceCents(long expectedCents, long newCents) {
+    return this.balanceCents.compareAndSet(expectedCents, newCents);
   }
 
   // methods
 
-  public synchronized double deposit(double amount) throws InvalidAmountException {
-    ValidationUtils.validateDeposit(amount);
-    this.balance += amount;
-    return this.balance;
+  public double deposit(double amount) throws InvalidAmountException {
+    return MoneyUtils.toAmount(depositCents(MoneyUtils.toCents(amount)));
+  }
+
+  /**
+   * Deposits an amount given in cents.
+   *
+   * @return the new balance in cents
+   */
+  public long depositCents(long amountCents) throws InvalidAmountException {
+    ValidationUtils.validateDepositCents(amountCents);
+    return this.balanceCents.addAndGet(amountCents);
   }
 
   public abstract double withdraw(double amount) throws InsufficientFundsException, InvalidAmountException, OverdraftLimitExceededException;
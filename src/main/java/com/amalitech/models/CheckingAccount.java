@@ -3,6 +3,7 @@ package com.amalitech.models;
 import com.amalitech.constants.AccountType;
 import com.amalitech.exceptions.InvalidAmountException;
 import com.amalitech.exceptions.OverdraftLimitExceededException;
+import com.amalitech.utils.MoneyUtils;
 import com.amalitech.utils.ValidationUtils;
 
 /** Represents a checking account with overdraft protection and monthly fees. */
@@ -43,9 +44,14 @@ public class CheckingAccount extends Account {
 
   /** Deducts the monthly fee from the account balance if sufficient funds exist. */
   public void applyMonthlyFee() {
-    if (getBalance() > this.monthlyFee) {
-      this.setBalance(this.getBalance() - this.monthlyFee);
-    }
+    long feeCents = MoneyUtils.toCents(this.monthlyFee);
+    long balanceCents;
+    do {
+      balanceCents = getBalanceCents();
+      if (balanceCents <= feeCents) {
+        return;
+      }
+    } while (!this.compareAndSetBalanceCents(balanceCents, balanceCents - feeCents));
   }
 
   @java.lang.Override
@@ -68,18 +74,25 @@ public class CheckingAccount extends Account {
   }
 
   /**
-   * Withdraws amount from the account if it does not exceed the overdraft limit.
+   * Withdraws amount from the account if it does not exceed the overdraft limit. The check and
+   * update are retried until no other thread changed the balance in between.
    *
    * @param amount the amount to withdraw
    * @return the new balance
    * @throws OverdraftLimitExceededException if the withdrawal would exceed the overdraft limit
    */
   @Override
-  public synchronized double withdraw(double amount)
+  public double withdraw(double amount)
       throws InvalidAmountException, OverdraftLimitExceededException {
-    ValidationUtils.validateCheckingWithdrawal(amount, this.getBalance(), this.overdraftLimit);
-    double newBalance = this.getBalance() - amount;
-    this.setBalance(newBalance);
-    return newBalance;
+    long amountCents = MoneyUtils.toCents(amount);
+    long overdraftLimitCents = MoneyUtils.toCents(this.overdraftLimit);
+    while (true) {
+      long balanceCents = this.getBalanceCents();
+      ValidationUtils.validateCheckingWithdrawalCents(
+          amountCents, balanceCents, overdraftLimitCents);
+      if (this.compareAndSetBalanceCents(balanceCents, balanceCents - amountCents)) {
+        return MoneyUtils.toAmount(balanceCents - amountCents);
+      }
+    }
   }
 }
@@ -3,6 +3,7 @@ package com.amalitech.models;
 import com.amalitech.constants.AccountType;
 import com.amalitech.exceptions.InsufficientFundsException;
 import com.amalitech.exceptions.InvalidAmountException;
+import com.amalitech.utils.MoneyUtils;
 import com.amalitech.utils.ValidationUtils;
 
 /** Represents a savings account with an interest rate and a minimum balance requirement. */
@@ -67,18 +68,24 @@ public class SavingsAccount extends Account {
   }
 
   /**
-   * Withdraws amount from the account if it does not breach the minimum balance requirement.
+   * Withdraws amount from the account if it does not breach the minimum balance requirement. The
+   * check and update are retried until no other thread changed the balance in between.
    *
    * @param amount the amount to withdraw
    * @return the new balance
    * @throws Exception if the withdrawal would result in a balance below the minimum
    */
   @Override
-  public synchronized double withdraw(double amount)
-      throws InvalidAmountException, InsufficientFundsException {
-    ValidationUtils.validateSavingsWithdrawal(amount, this.getBalance(), this.minimumBalance);
-    double newBalance = this.getBalance() - amount;
-    this.setBalance(newBalance);
-    return newBalance;
+  public double withdraw(double amount) throws InvalidAmountException, InsufficientFundsException {
+    long amountCents = MoneyUtils.toCents(amount);
+    long minimumBalanceCents = MoneyUtils.toCents(this.minimumBalance);
+    while (true) {
+      long balanceCents = this.getBalanceCents();
+      ValidationUtils.validateSavingsWithdrawalCents(
+          amountCents, balanceCents, minimumBalanceCents);
+      if (this.compareAndSetBalanceCents(balanceCents, balanceCents - amountCents)) {
+        return MoneyUtils.toAmount(balanceCents - amountCents);
+      }
+    }
   }
 }
@@ -1,20 +1,32 @@
 package com.amalitech.models;
 
 import com.amalitech.constants.TransactionType;
+import com.amalitech.utils.MoneyUtils;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
 
-/** Represents a financial transaction with auto-generated ID and timestamp. */
+/**
+ * Represents a financial transaction with auto-generated ID and timestamp. The timestamp is held as
+ * epoch milliseconds and only formatted when displayed or written to file; amounts are held in
+ * cents.
+ */
 public class Transaction {
 
-  private static int transactionCounter = 0;
+  private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+      DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+
+  // Transactions are created concurrently by the request executors, so IDs are claimed atomically
+  private static final AtomicInteger transactionCounter = new AtomicInteger();
 
   private final String transactionId;
   private final String accountNumber;
   private final TransactionType type;
-  private final double amount;
-  private final double balanceAfter;
-  private final String timestamp;
+  private final long amountCents;
+  private final long balanceAfterCents;
+  private final long timestampMillis;
 
   /**
    * Creates a new transaction record.
@@ -29,11 +41,9 @@ public class Transaction {
     this.transactionId = generateTransactionId();
     this.accountNumber = accountNumber;
     this.type = type;
-    this.amount = amount;
-    this.balanceAfter = balanceAfterTransaction;
-    LocalDateTime time = LocalDateTime.now();
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
-    this.timestamp = formatter.format(time);
+    this.amountCents = MoneyUtils.toCents(amount);
+    this.balanceAfterCents = MoneyUtils.toCents(balanceAfterTransaction);
+    this.timestampMillis = System.currentTimeMillis();
   }
 
   /**
@@ -44,7 +54,7 @@ public class Transaction {
    * @param type the transaction type
    * @param amount the transaction amount
    * @param balanceAfterTransaction the account balance after this transaction
-   * @param timestamp the transaction timestamp
+   * @param timestamp the transaction timestamp in dd-MM-yyyy HH:mm:ss format
    */
   public Transaction(
       String transactionId,
@@ -53,25 +63,66 @@ public class Transaction {
       double amount,
       double balanceAfterTransaction,
       String timestamp) {
+    this(
+        transactionId,
+        accountNumber,
+        type,
+        amount,
+        balanceAfterTransaction,
+        parseTimestamp(timestamp));
+  }
+
+  /**
+   * Creates a transaction record with specific ID and epoch-millisecond timestamp (for loading from
+   * persistence).
+   *
+   * @param transactionId the transaction ID
+   * @param accountNumber the account associated with the transaction
+   * @param type the transaction type
+   * @param amount the transaction amount
+   * @param balanceAfterTransaction the account balance after this transaction
+   * @param timestampMillis the transaction time in milliseconds since the epoch
+   */
+  public Transaction(
+      String transactionId,
+      String accountNumber,
+      TransactionType type,
+      double amount,
+      double balanceAfterTransaction,
+      long timestampMillis) {
     this.transactionId = transactionId;
     this.accountNumber = accountNumber;
     this.type = type;
-    this.amount = amount;
-    this.balanceAfter = balanceAfterTransaction;
-    this.timestamp = timestamp;
+    this.amountCents = MoneyUtils.toCents(amount);
+    this.balanceAfterCents = MoneyUtils.toCents(balanceAfterTransaction);
+    this.timestampMillis = timestampMillis;
   }
 
   private static String generateTransactionId() { // Generates a transactionId
-    return "TXN" + String.format("%03d", ++transactionCounter);
+    return "TXN" + String.format("%03d", transactionCounter.incrementAndGet());
   }
 
   public static int getTransactionCounter() {
-    return transactionCounter;
+    return transactionCounter.get();
   }
 
   /** Sets the transaction counter (used for persistence restoration). */
   public static void setTransactionCounter(int counter) {
-    transactionCounter = counter;
+    transactionCounter.set(counter);
+  }
+
+  /** Parses a dd-MM-yyyy HH:mm:ss timestamp in the system time zone to epoch milliseconds. */
+  public static long parseTimestamp(String timestamp) {
+    return LocalDateTime.parse(timestamp, TIMESTAMP_FORMATTER)
+        .atZone(ZoneId.systemDefault())
+        .toInstant()
+        .toEpochMilli();
+  }
+
+  /** Formats epoch milliseconds as dd-MM-yyyy HH:mm:ss in the system time zone. */
+  public static String formatTimestamp(long timestampMillis) {
+    return TIMESTAMP_FORMATTER.format(
+        LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault()));
   }
 
   public String getAccountNumber() {
@@ -79,15 +130,29 @@ public class Transaction {
   }
 
   public double getAmount() {
-    return amount;
+    return MoneyUtils.toAmount(amountCents);
+  }
+
+  public long getAmountCents() {
+    return amountCents;
   }
 
   public double getBalanceAfter() {
-    return balanceAfter;
+    return MoneyUtils.toAmount(balanceAfterCents);
+  }
+
+  public long getBalanceAfterCents() {
+    return balanceAfterCents;
   }
 
+  /** Returns the timestamp formatted as dd-MM-yyyy HH:mm:ss. */
   public String getTimestamp() {
-    return timestamp;
+    return formatTimestamp(timestampMillis);
+  }
+
+  /** Returns the timestamp in milliseconds since the epoch, for sorting and range checks. */
+  public long getTimestampMillis() {
+    return timestampMillis;
   }
 
   public String getTransactionId() {
@@ -0,0 +1,34 @@
+package com.amalitech.models;
+
+/** A requested movement of funds between two accounts, as submitted in a transfer batch. */
+public class TransferRequest {
+
+  private final String fromAccountNumber;
+  private final String toAccountNumber;
+  private final double amount;
+
+  /**
+   * Creates a transfer request.
+   *
+   * @param fromAccountNumber the source account number
+   * @param toAccountNumber the destination account number
+   * @param amount the amount to transfer
+   */
+  public TransferRequest(String fromAccountNumber, String toAccountNumber, double amount) {
+    this.fromAccountNumber = fromAccountNumber;
+    this.toAccountNumber = toAccountNumber;
+    this.amount = amount;
+  }
+
+  public String getFromAccountNumber() {
+    return fromAccountNumber;
+  }
+
+  public String getToAccountNumber() {
+    return toAccountNumber;
+  }
+
+  public double getAmount() {
+    return amount;
+  }
+}
@@ -0,0 +1,50 @@
+package com.amalitech.models;
+
+import java.util.List;
+
+/**
+ * Outcome of one request in a transfer batch: the debit and credit records if it was applied, or
+ * the reason it was rejected.
+ */
+public class TransferResult {
+
+  private final TransferRequest request;
+  private final boolean success;
+  private final List<Transaction> entries;
+  private final String errorMessage;
+
+  private TransferResult(
+      TransferRequest request, boolean success, List<Transaction> entries, String errorMessage) {
+    this.request = request;
+    this.success = success;
+    this.entries = entries;
+    this.errorMessage = errorMessage;
+  }
+
+  /** Creates the result of an applied transfer from its debit and credit records. */
+  public static TransferResult success(TransferRequest request, List<Transaction> entries) {
+    return new TransferResult(request, true, List.copyOf(entries), null);
+  }
+
+  /** Creates the result of a rejected transfer. */
+  public static TransferResult failure(TransferRequest request, String errorMessage) {
+    return new TransferResult(request, false, List.of(), errorMessage);
+  }
+
+  public TransferRequest getRequest() {
+    return request;
+  }
+
+  public boolean isSuccess() {
+    return success;
+  }
+
+  /** Returns the TRANSFER_OUT and TRANSFER_IN records, or an empty list if the transfer failed. */
+  public List<Transaction> getEntries() {
+    return entries;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+}
@@ -0,0 +1,271 @@
+package com.amalitech.services;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.exceptions.AccountNotFoundException;
+import com.amalitech.models.Account;
+import com.amalitech.models.Transaction;
+import com.amalitech.utils.MoneyUtils;
+import com.amalitech.utils.ValidationUtils;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Applies deposits and withdrawals through per-account mailboxes, each drained by a single writer.
+ * Accounts are sharded by account number across a fixed set of worker threads, so every mutation
+ * of an account happens on the same thread and callers never contend on the account itself.
+ *
+ * <p>Workers drain their queue in batches. Consecutive deposits to one account in a batch are
+ * applied as a single balance update and the transactions of the whole batch are journaled in one
+ * write. Request futures complete after the batch is journaled. A request whose balance change was
+ * applied always completes with its transaction, even if recording the batch fails; that failure
+ * is reported on standard error instead, since failing the request would invite a retry that
+ * applies it twice. If a batch fails unexpectedly before its balances change, its futures complete
+ * exceptionally and the worker moves on to the next batch.
+ */
+public class AccountMailboxExecutor implements AutoCloseable {
+
+  private static final int MAX_BATCH = 256;
+
+  private final AccountManager accountManager;
+  private final TransactionManager transactionManager;
+  private final List<Shard> shards;
+  // Submitters share the read lock so none can enqueue behind the stop marker that close() adds
+  private final ReentrantReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+  private boolean closed; // guarded by lifecycleLock
+
+  /**
+   * Creates a mailbox executor and starts its workers.
+   *
+   * @param accountManager the accounts requests are applied to
+   * @param transactionManager where resulting transactions are recorded, or null to only update
+   *     balances
+   * @param workers number of single-writer worker threads
+   */
+  public AccountMailboxExecutor(
+      AccountManager accountManager, TransactionManager transactionManager, int workers) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("At least one worker is required.");
+    }
+    this.accountManager = accountManager;
+    this.transactionManager = transactionManager;
+    this.shards = new ArrayList<>(workers);
+    for (int i = 0; i < workers; i++) {
+      Shard shard = new Shard("account-mailbox-" + i);
+      shards.add(shard);
+      shard.thread.start();
+    }
+  }
+
+  /** Queues a deposit, completing with the DEPOSIT record once it is applied and journaled. */
+  public CompletableFuture<Transaction> deposit(String accountNumber, double amount) {
+    return submit(accountNumber, TransactionType.DEPOSIT, amount);
+  }
+
+  /** Queues a withdrawal, completing with the WITHDRAWAL record once applied and journaled. */
+  public CompletableFuture<Transaction> withdraw(String accountNumber, double amount) {
+    return submit(accountNumber, TransactionType.WITHDRAWAL, amount);
+  }
+
+  /**
+   * Returns the account's current balance. It is read from the account rather than cached, since
+   * transfers and menu operations change balances without going through the mailboxes.
+   *
+   * @param accountNumber the account to read
+   * @throws AccountNotFoundException if the account does not exist
+   */
+  public double getBalance(String accountNumber) throws AccountNotFoundException {
+    return accountManager.findAccount(accountNumber).getBalance();
+  }
+
+  /** Stops accepting requests, lets workers finish queued ones and waits for them to exit. */
+  @Override
+  public void close() {
+    lifecycleLock.writeLock().lock();
+    try {
+      if (!closed) {
+        closed = true;
+        for (Shard shard : shards) {
+          shard.mailbox.add(Command.STOP);
+        }
+      }
+    } finally {
+      lifecycleLock.writeLock().unlock();
+    }
+    for (Shard shard : shards) {
+      try {
+        shard.thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  private CompletableFuture<Transaction> submit(
+      String accountNumber, TransactionType type, double amount) {
+    CompletableFuture<Transaction> result = new CompletableFuture<>();
+    long amountCents;
+    try {
+      amountCents = MoneyUtils.toCents(amount);
+      ValidationUtils.validateDepositCents(amountCents); // Both kinds need a positive amount
+    } catch (Exception e) {
+      result.completeExceptionally(e);
+      return result;
+    }
+    Shard shard = shards.get(Math.floorMod(accountNumber.hashCode(), shards.size()));
+    lifecycleLock.readLock().lock();
+    try {
+      if (closed) {
+        result.completeExceptionally(new RejectedExecutionException("Executor is closed."));
+      } else {
+        shard.mailbox.add(new Command(accountNumber, type, amount, amountCents, result));
+      }
+    } finally {
+      lifecycleLock.readLock().unlock();
+    }
+    return result;
+  }
+
+  private record Command(
+      String accountNumber,
+      TransactionType type,
+      double amount,
+      long amountCents,
+      CompletableFuture<Transaction> result) {
+
+    static final Command STOP = new Command(null, null, 0, 0, null);
+  }
+
+  /** One worker thread and the queue holding the mailboxes of the accounts assigned to it. */
+  private final class Shard implements Runnable {
+    private final BlockingQueue<Command> mailbox = new LinkedBlockingQueue<>();
+    private final Thread thread;
+
+    Shard(String name) {
+      this.thread = new Thread(this, name);
+      this.thread.setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      List<Command> batch = new ArrayList<>(MAX_BATCH);
+      boolean stopping = false;
+      while (!stopping) {
+        try {
+          batch.add(mailbox.take());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        mailbox.drainTo(batch, MAX_BATCH - 1);
+        stopping = batch.remove(Command.STOP);
+        try {
+          processBatch(batch);
+        } catch (RuntimeException e) {
+          // Fail this batch's requests that have not completed and keep serving the rest
+          System.err.println("Error applying account requests: " + e.getMessage());
+          batch.forEach(command -> command.result().completeExceptionally(e));
+        }
+        batch.clear();
+      }
+    }
+
+    private void processBatch(List<Command> batch) {
+      Map<String, List<Command>> byAccount = new LinkedHashMap<>();
+      for (Command command : batch) {
+        byAccount.computeIfAbsent(command.accountNumber(), k -> new ArrayList<>()).add(command);
+      }
+
+      List<Transaction> applied = new ArrayList<>(batch.size());
+      List<Command> succeeded = new ArrayList<>(batch.size());
+      for (Map.Entry<String, List<Command>> entry : byAccount.entrySet()) {
+        try {
+          Account account = accountManager.findAccount(entry.getKey());
+          applyToAccount(account, entry.getValue(), applied, succeeded);
+        } catch (AccountNotFoundException e) {
+          entry.getValue().forEach(command -> command.result().completeExceptionally(e));
+        }
+      }
+
+      if (transactionManager != null && !applied.isEmpty()) {
+        try {
+          transactionManager.recordTransactions(applied);
+        } catch (RuntimeException e) {
+          // The balances have already moved, so the requests still succeed
+          System.err.println(
+              "Warning: Could not record "
+                  + applied.size()
+                  + " applied account requests: "
+                  + e.getMessage());
+        }
+      }
+      for (int i = 0; i < succeeded.size(); i++) {
+        succeeded.get(i).result().complete(applied.get(i));
+      }
+    }
+
+    /** Applies one account's commands in order, coalescing runs of deposits into one update. */
+    private void applyToAccount(
+        Account account,
+        List<Command> commands,
+        List<Transaction> applied,
+        List<Command> succeeded) {
+      int i = 0;
+      while (i < commands.size()) {
+        if (commands.get(i).type() == TransactionType.DEPOSIT) {
+          int end = i;
+          long totalCents = 0;
+          while (end < commands.size() && commands.get(end).type() == TransactionType.DEPOSIT) {
+            totalCents += commands.get(end).amountCents();
+            end++;
+          }
+          long balanceCents;
+          try {
+            balanceCents = account.depositCents(totalCents) - totalCents;
+          } catch (Exception e) {
+            failAll(commands.subList(i, end), e);
+            i = end;
+            continue;
+          }
+          for (Command command : commands.subList(i, end)) {
+            balanceCents += command.amountCents();
+            applied.add(record(account, command, balanceCents));
+            succeeded.add(command);
+          }
+          i = end;
+        } else {
+          Command command = commands.get(i);
+          try {
+            double balance = account.withdraw(command.amount());
+            applied.add(record(account, command, MoneyUtils.toCents(balance)));
+            succeeded.add(command);
+          } catch (Exception e) {
+            command.result().completeExceptionally(e);
+          }
+          i++;
+        }
+      }
+    }
+
+    private Transaction record(Account account, Command command, long balanceAfterCents) {
+      return new Transaction(
+          account.getAccountNumber(),
+          command.type(),
+          command.amount(),
+          MoneyUtils.toAmount(balanceAfterCents));
+    }
+
+    private void failAll(List<Command> commands, Exception e) {
+      commands.forEach(command -> command.result().completeExceptionally(e));
+    }
+  }
+}
@@ -1,33 +1,60 @@
 package com.amalitech.services;
 
 import com.amalitech.constants.AccountType;
+import com.amalitech.constants.TransactionType;
 import com.amalitech.exceptions.AccountNotFoundException;
 import com.amalitech.models.*;
 import com.amalitech.utils.ConsoleTablePrinter;
 import com.amalitech.utils.InputReader;
+import com.amalitech.utils.MoneyUtils;
 import com.amalitech.utils.TablePrinter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
-/** Manages a collection of bank accounts using HashMap with file persistence. */
+/**
+ * Manages a collection of bank accounts using ConcurrentHashMap with file persistence. Lookups and
+ * inserts are safe from any thread; aggregates iterate over a point-in-time snapshot.
+ *
+ * <p>The balance each account had when last loaded or saved is remembered, so a save only hands
+ * the persistence service the accounts that were added or whose balance has moved since.
+ */
 public class AccountManager {
-  private final HashMap<String, Account> accounts;
+  private static final int MAX_LOCKED_ACCOUNTS = 64;
+
+  private volatile ConcurrentHashMap<String, Account> accounts;
   private final TablePrinter printer;
   private final PersistenceService persistenceService;
   private final CustomerManager customerManager;
+  // Balance of each account as of the last load or save, to find accounts changed since
+  private volatile ConcurrentHashMap<String, Long> savedBalanceCents;
 
   public AccountManager(CustomerManager customerManager, PersistenceService persistenceService) {
     this.customerManager = customerManager;
     this.persistenceService = persistenceService;
     this.printer = new ConsoleTablePrinter();
-    this.accounts = new HashMap<>();
+    this.accounts = new ConcurrentHashMap<>();
+    this.savedBalanceCents = new ConcurrentHashMap<>();
   }
 
-  /** Loads accounts from file. */
+  /**
+   * Loads accounts from file. The registry is replaced by one built at the loaded size, so it is
+   * not grown entry by entry, and concurrent readers never observe an empty registry mid-load.
+   */
   public void loadAccounts() {
     try {
-      this.accounts.clear();
-      this.accounts.putAll(persistenceService.loadAccounts(customerManager.getCustomers()));
+      HashMap<String, Account> loaded =
+          persistenceService.loadAccounts(customerManager.getCustomers());
+      ConcurrentHashMap<String, Long> balances = new ConcurrentHashMap<>(loaded.size());
+      loaded.forEach((number, account) -> balances.put(number, account.getBalanceCents()));
+      this.savedBalanceCents = balances;
+      this.accounts = new ConcurrentHashMap<>(loaded);
     } catch (IOException e) {
       System.err.println("Warning: Could not load accounts from file: " + e.getMessage());
     }
@@ -37,14 +64,22 @@ public class AccountManager {
     return accounts.size();
   }
 
+  /**
+   * Returns a point-in-time copy of all accounts. Iterating the copy is unaffected by accounts
+   * added or replaced concurrently.
+   */
+  public List<Account> getAccountsSnapshot() {
+    return List.copyOf(accounts.values());
+  }
+
   public long getSavingsAccountCount() {
-    return accounts.values().stream()
+    return getAccountsSnapshot().stream()
         .filter(a -> a.getAccountType() == AccountType.SAVINGS)
         .count();
   }
 
   public long getCheckingAccountCount() {
-    return accounts.values().stream()
+    return getAccountsSnapshot().stream()
         .filter(a -> a.getAccountType() == AccountType.CHECKING)
         .count();
   }
@@ -66,14 +101,17 @@ public class AccountManager {
   }
 
   /**
-   * Transfers funds between two accounts.
+   * Transfers funds between two accounts. The TRANSFER_OUT and TRANSFER_IN records are built while
+   * both accounts are locked, from the balances the withdrawal and deposit produced, so their
+   * balance-after values are exact even when other threads update the accounts concurrently.
    *
    * @param fromAccountNumber the source account number
    * @param toAccountNumber the destination account number
    * @param amount the amount to transfer
+   * @return the debit and credit records for the transfer, in that order
    * @throws Exception if transfer fails (insufficient funds, invalid account, etc.)
    */
-  public void transfer(String fromAccountNumber, String toAccountNumber, double amount)
+  public List<Transaction> transfer(String fromAccountNumber, String toAccountNumber, double amount)
       throws Exception {
     if (fromAccountNumber.equals(toAccountNumber)) {
       throw new IllegalArgumentException("Cannot transfer to the same account.");
@@ -88,12 +126,60 @@ public class AccountManager {
 
     synchronized (lock1) {
       synchronized (lock2) {
-        fromAccount.withdraw(amount);
-        toAccount.deposit(amount);
+        return moveFunds(fromAccount, toAccount, amount);
       }
     }
   }
 
+  /**
+   * Applies a batch of transfers, such as a settlement file. Requests are grouped by the accounts
+   * they connect; each group's accounts are locked once, in account number order, and all of the
+   * group's transfers are applied in submission order before the locks are released. Using the
+   * same order as {@link #transfer} means batches and single transfers cannot deadlock.
+   *
+   * <p>Grouping pays off when transfers form small clusters. A hub account, such as a settlement
+   * account that most transfers touch, links every account it trades with into one group, so the
+   * whole batch degenerates into consecutive runs of up to 64 accounts each. Each run holds that
+   * many monitors while it is applied, and single transfers on any of those accounts wait for it.
+   *
+   * @param requests the transfers to apply
+   * @return one result per request, in request order
+   */
+  public List<TransferResult> transferBatch(List<TransferRequest> requests) {
+    TransferResult[] results = new TransferResult[requests.size()];
+    Map<String, Account> resolved = new HashMap<>();
+    Map<String, String> parents = new HashMap<>();
+    List<Integer> accepted = new ArrayList<>();
+
+    for (int i = 0; i < requests.size(); i++) {
+      TransferRequest request = requests.get(i);
+      String from = request.getFromAccountNumber();
+      String to = request.getToAccountNumber();
+      try {
+        if (from.equals(to)) {
+          throw new IllegalArgumentException("Cannot transfer to the same account.");
+        }
+        resolveAccount(from, resolved);
+        resolveAccount(to, resolved);
+        union(parents, from, to);
+        accepted.add(i);
+      } catch (AccountNotFoundException | IllegalArgumentException e) {
+        results[i] = TransferResult.failure(request, e.getMessage());
+      }
+    }
+
+    // Groups in order of first appearance, each holding its requests in submission order
+    Map<String, List<Integer>> groups = new LinkedHashMap<>();
+    for (int i : accepted) {
+      String root = find(parents, requests.get(i).getFromAccountNumber());
+      groups.computeIfAbsent(root, k -> new ArrayList<>()).add(i);
+    }
+    for (List<Integer> group : groups.values()) {
+      applyGroup(requests, group, resolved, results);
+    }
+    return Arrays.asList(results);
+  }
+
   /**
    * Displays a tabular view of all accounts and summary statistics.
    *
@@ -121,7 +207,7 @@ public class AccountManager {
 
   /** Constructs a 2D array of formatted account data for tabular display using Stream API. */
   private String[][] buildTableData() {
-    return accounts.values().stream()
+    return getAccountsSnapshot().stream()
         .map(
             acc ->
                 new String[] {
@@ -165,20 +251,155 @@ public class AccountManager {
   }
 
   public double getTotalBalance() {
-    return accounts.values().stream().mapToDouble(Account::getBalance).sum();
+    return MoneyUtils.toAmount(
+        getAccountsSnapshot().stream().mapToLong(Account::getBalanceCents).sum());
   }
 
-  /** Saves all accounts to file. */
+  /** Saves the accounts added or changed since the last load or save; does nothing if none. */
   public void saveAccounts() {
+    Map<String, Long> balances = new HashMap<>();
+    List<Account> changed = new ArrayList<>();
+    for (Account account : accounts.values()) {
+      long balanceCents = account.getBalanceCents();
+      Long saved = savedBalanceCents.get(account.getAccountNumber());
+      if (saved == null || saved != balanceCents) {
+        changed.add(account);
+        balances.put(account.getAccountNumber(), balanceCents);
+      }
+    }
+    if (changed.isEmpty()) {
+      return;
+    }
     try {
-      persistenceService.saveAccounts(accounts);
+      persistenceService.saveAccountChanges(changed, accounts);
+      savedBalanceCents.putAll(balances);
     } catch (IOException e) {
       System.err.println("Error saving accounts: " + e.getMessage());
     }
   }
 
-  /** Returns the accounts HashMap for persistence operations. */
-  public HashMap<String, Account> getAccounts() {
+  /** Returns the number of accounts added or changed since the last load or save. */
+  public long getUnsavedAccountCount() {
+    return accounts.values().stream()
+        .filter(
+            account -> {
+              Long saved = savedBalanceCents.get(account.getAccountNumber());
+              return saved == null || saved != account.getBalanceCents();
+            })
+        .count();
+  }
+
+  /** Returns the concurrent accounts map for persistence operations. */
+  public Map<String, Account> getAccounts() {
     return accounts;
   }
+
+  // ==================== HELPER METHODS ====================
+
+  /** Withdraws and deposits with both accounts locked, returning the debit and credit records. */
+  private static List<Transaction> moveFunds(Account fromAccount, Account toAccount, double amount)
+      throws Exception {
+    double fromBalance = fromAccount.withdraw(amount);
+    double toBalance = toAccount.deposit(amount);
+    return List.of(
+        new Transaction(
+            fromAccount.getAccountNumber(), TransactionType.TRANSFER_OUT, amount, fromBalance),
+        new Transaction(
+            toAccount.getAccountNumber(), TransactionType.TRANSFER_IN, amount, toBalance));
+  }
+
+  private void resolveAccount(String accountNumber, Map<String, Account> resolved)
+      throws AccountNotFoundException {
+    if (!resolved.containsKey(accountNumber)) {
+      resolved.put(accountNumber, findAccount(accountNumber));
+    }
+  }
+
+  /**
+   * Applies one group's transfers. Groups touching many accounts are applied in consecutive runs
+   * of at most {@link #MAX_LOCKED_ACCOUNTS} accounts, which bounds how many monitors are held.
+   */
+  private static void applyGroup(
+      List<TransferRequest> requests,
+      List<Integer> group,
+      Map<String, Account> resolved,
+      TransferResult[] results) {
+    TreeMap<String, Account> runAccounts = new TreeMap<>();
+    List<Integer> run = new ArrayList<>();
+    for (int i : group) {
+      String from = requests.get(i).getFromAccountNumber();
+      String to = requests.get(i).getToAccountNumber();
+      int added = (runAccounts.containsKey(from) ? 0 : 1) + (runAccounts.containsKey(to) ? 0 : 1);
+      if (!run.isEmpty() && runAccounts.size() + added > MAX_LOCKED_ACCOUNTS) {
+        applyRun(requests, run, runAccounts, results);
+        runAccounts.clear();
+        run.clear();
+      }
+      runAccounts.put(from, resolved.get(from));
+      runAccounts.put(to, resolved.get(to));
+      run.add(i);
+    }
+    if (!run.isEmpty()) {
+      applyRun(requests, run, runAccounts, results);
+    }
+  }
+
+  private static void applyRun(
+      List<TransferRequest> requests,
+      List<Integer> run,
+      TreeMap<String, Account> runAccounts,
+      TransferResult[] results) {
+    withLocks(
+        new ArrayList<>(runAccounts.values()),
+        0,
+        () -> {
+          for (int i : run) {
+            TransferRequest request = requests.get(i);
+            try {
+              List<Transaction> entries =
+                  moveFunds(
+                      runAccounts.get(request.getFromAccountNumber()),
+                      runAccounts.get(request.getToAccountNumber()),
+                      request.getAmount());
+              results[i] = TransferResult.success(request, entries);
+            } catch (Exception e) {
+              results[i] = TransferResult.failure(request, e.getMessage());
+            }
+          }
+        });
+  }
+
+  /** Locks the accounts from {@code index} onwards in list order, then runs the action. */
+  private static void withLocks(List<Account> ordered, int index, Runnable action) {
+    if (index == ordered.size()) {
+      action.run();
+      return;
+    }
+    synchronized (ordered.get(index)) {
+      withLocks(ordered, index + 1, action);
+    }
+  }
+
+  /** Returns the representative of an account's group, compressing the path on the way. */
+  private static String find(Map<String, String> parents, String accountNumber) {
+    String root = accountNumber;
+    while (parents.containsKey(root)) {
+      root = parents.get(root);
+    }
+    String current = accountNumber;
+    while (!current.equals(root)) {
+      String next = parents.get(current);
+      parents.put(current, root);
+      current = next;
+    }
+    return root;
+  }
+
+  private static void union(Map<String, String> parents, String first, String second) {
+    String firstRoot = find(parents, first);
+    String secondRoot = find(parents, second);
+    if (!firstRoot.equals(secondRoot)) {
+      parents.put(firstRoot, secondRoot);
+    }
+  }
 }
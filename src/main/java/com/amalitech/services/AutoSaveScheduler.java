@@ -0,0 +1,167 @@
+package com.amalitech.services;
+
+/**
+ * Saves data on a background thread so callers never wait for disk I/O. Callers report changes
+ * with {@link #requestSave()}, which only counts them; the worker saves once the interval has
+ * passed since the last save or as soon as the count reaches the threshold, so any number of
+ * requests in between cost one save. Each save writes only what changed since the previous one.
+ *
+ * <p>{@link #close()} saves anything still pending and waits for it at most the shutdown timeout,
+ * so shutdown latency stays bounded even if the disk is slow.
+ */
+public class AutoSaveScheduler implements AutoCloseable {
+
+  private final CustomerManager customerManager;
+  private final AccountManager accountManager;
+  private final TransactionManager transactionManager;
+  private final long intervalMillis;
+  private final int changeThreshold;
+  private final long shutdownTimeoutMillis;
+  private final Object lock = new Object();
+  private final Object flushLock = new Object();
+  private final Thread worker;
+
+  private int pendingChanges; // guarded by lock
+  private boolean closing; // guarded by lock
+  private volatile long flushCount;
+
+  /**
+   * Creates a scheduler and starts its worker thread. The thread is started here rather than in
+   * the constructor, so it never sees a partly constructed scheduler.
+   *
+   * @param intervalMillis longest time a requested save waits
+   * @param changeThreshold number of requested saves that triggers a save straight away
+   * @param shutdownTimeoutMillis longest time {@link #close()} waits for the final save
+   * @return the running scheduler
+   */
+  public static AutoSaveScheduler start(
+      CustomerManager customerManager,
+      AccountManager accountManager,
+      TransactionManager transactionManager,
+      long intervalMillis,
+      int changeThreshold,
+      long shutdownTimeoutMillis) {
+    if (intervalMillis <= 0 || changeThreshold <= 0 || shutdownTimeoutMillis <= 0) {
+      throw new IllegalArgumentException("Autosave interval, threshold and timeout must be > 0.");
+    }
+    AutoSaveScheduler scheduler =
+        new AutoSaveScheduler(
+            customerManager,
+            accountManager,
+            transactionManager,
+            intervalMillis,
+            changeThreshold,
+            shutdownTimeoutMillis);
+    scheduler.worker.start();
+    return scheduler;
+  }
+
+  private AutoSaveScheduler(
+      CustomerManager customerManager,
+      AccountManager accountManager,
+      TransactionManager transactionManager,
+      long intervalMillis,
+      int changeThreshold,
+      long shutdownTimeoutMillis) {
+    this.customerManager = customerManager;
+    this.accountManager = accountManager;
+    this.transactionManager = transactionManager;
+    this.intervalMillis = intervalMillis;
+    this.changeThreshold = changeThreshold;
+    this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    this.worker = new Thread(this::run, "autosave");
+    this.worker.setDaemon(true);
+  }
+
+  /** Records that data changed and should be saved. Returns immediately. */
+  public void requestSave() {
+    synchronized (lock) {
+      pendingChanges++;
+      if (pendingChanges >= changeThreshold) {
+        lock.notifyAll();
+      }
+    }
+  }
+
+  /** Returns the number of save requests not yet covered by a save. */
+  public int getPendingChanges() {
+    synchronized (lock) {
+      return pendingChanges;
+    }
+  }
+
+  /** Returns the number of saves performed so far. */
+  public long getFlushCount() {
+    return flushCount;
+  }
+
+  /** Saves customers, accounts and transactions now, on the calling thread. */
+  public void flush() {
+    synchronized (flushLock) {
+      synchronized (lock) {
+        // Changes requested from here on are saved by the next flush
+        pendingChanges = 0;
+      }
+      customerManager.saveCustomers();
+      accountManager.saveAccounts();
+      transactionManager.saveTransactions();
+      flushCount++;
+    }
+  }
+
+  /**
+   * Saves anything pending and stops the worker, waiting at most the shutdown timeout. Safe to
+   * call more than once, for example from both the exit path and a shutdown hook.
+   */
+  @Override
+  public void close() {
+    synchronized (lock) {
+      closing = true;
+      lock.notifyAll();
+    }
+    try {
+      worker.join(shutdownTimeoutMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (worker.isAlive()) {
+      System.err.println(
+          "Warning: Autosave did not finish within " + shutdownTimeoutMillis + " ms.");
+    }
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  private void run() {
+    boolean stopping = false;
+    while (!stopping) {
+      synchronized (lock) {
+        long deadline = System.currentTimeMillis() + intervalMillis;
+        while (!closing && pendingChanges < changeThreshold) {
+          long remaining = deadline - System.currentTimeMillis();
+          if (remaining <= 0) {
+            if (pendingChanges > 0) {
+              break;
+            }
+            deadline += intervalMillis;
+            continue;
+          }
+          try {
+            lock.wait(remaining);
+          } catch (InterruptedException e) {
+            closing = true;
+          }
+        }
+        stopping = closing;
+        if (pendingChanges == 0) {
+          continue;
+        }
+      }
+      try {
+        flush();
+      } catch (RuntimeException e) {
+        System.err.println("Error during autosave: " + e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package com.amalitech.services;
+
+import com.amalitech.constants.ExecutorMode;
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.Account;
+import com.amalitech.models.Transaction;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs deposit, withdrawal and transfer requests concurrently against an {@link AccountManager}.
+ * In {@link ExecutorMode#VIRTUAL} mode every request gets its own virtual thread, so requests that
+ * block on journal writes do not tie up a pool; {@link ExecutorMode#PLATFORM} mode uses a fixed
+ * pool of platform threads, the same cap the concurrency simulations use, for comparison. In
+ * {@link ExecutorMode#MAILBOX} mode deposits and withdrawals go through an {@link
+ * AccountMailboxExecutor} with one writer per processor, while transfers, which span two
+ * accounts, still run on virtual threads.
+ *
+ * <p>Each request completes with the transaction records it produced. When a {@link
+ * TransactionManager} is supplied they are also added to the history and journaled.
+ */
+public class BankingRequestExecutor implements AutoCloseable {
+
+  private static final int PLATFORM_POOL_SIZE = 100;
+
+  private final AccountManager accountManager;
+  private final TransactionManager transactionManager;
+  private final ExecutorMode mode;
+  private final ExecutorService executor;
+  private final AccountMailboxExecutor mailboxExecutor;
+
+  /**
+   * Creates an executor.
+   *
+   * @param accountManager the accounts requests are applied to
+   * @param transactionManager where resulting transactions are recorded, or null to only update
+   *     balances
+   * @param mode the kind of threads to run requests on
+   */
+  public BankingRequestExecutor(
+      AccountManager accountManager, TransactionManager transactionManager, ExecutorMode mode) {
+    this.accountManager = accountManager;
+    this.transactionManager = transactionManager;
+    this.mode = mode;
+    this.executor =
+        mode == ExecutorMode.PLATFORM
+            ? Executors.newFixedThreadPool(PLATFORM_POOL_SIZE)
+            : Executors.newVirtualThreadPerTaskExecutor();
+    this.mailboxExecutor =
+        mode == ExecutorMode.MAILBOX
+            ? new AccountMailboxExecutor(
+                accountManager, transactionManager, Runtime.getRuntime().availableProcessors())
+            : null;
+  }
+
+  public ExecutorMode getMode() {
+    return mode;
+  }
+
+  /** Deposits into an account, completing with the DEPOSIT record. */
+  public CompletableFuture<Transaction> deposit(String accountNumber, double amount) {
+    if (mailboxExecutor != null) {
+      return mailboxExecutor.deposit(accountNumber, amount);
+    }
+    return submit(
+        () -> {
+          Account account = accountManager.findAccount(accountNumber);
+          double balance = account.deposit(amount);
+          return record(new Transaction(accountNumber, TransactionType.DEPOSIT, amount, balance));
+        });
+  }
+
+  /** Withdraws from an account, completing with the WITHDRAWAL record. */
+  public CompletableFuture<Transaction> withdraw(String accountNumber, double amount) {
+    if (mailboxExecutor != null) {
+      return mailboxExecutor.withdraw(accountNumber, amount);
+    }
+    return submit(
+        () -> {
+          Account account = accountManager.findAccount(accountNumber);
+          double balance = account.withdraw(amount);
+          return record(
+              new Transaction(accountNumber, TransactionType.WITHDRAWAL, amount, balance));
+        });
+  }
+
+  /** Transfers between accounts, completing with the TRANSFER_OUT and TRANSFER_IN records. */
+  public CompletableFuture<List<Transaction>> transfer(
+      String fromAccountNumber, String toAccountNumber, double amount) {
+    return submit(
+        () -> {
+          List<Transaction> entries =
+              accountManager.transfer(fromAccountNumber, toAccountNumber, amount);
+          if (transactionManager != null) {
+            transactionManager.recordTransactions(entries);
+          }
+          return entries;
+        });
+  }
+
+  /** Stops accepting requests and waits for those already submitted to finish. */
+  @Override
+  public void close() {
+    executor.close();
+    if (mailboxExecutor != null) {
+      mailboxExecutor.close();
+    }
+  }
+
+  /**
+   * Applies the same load in the given mode and returns the elapsed time: {@code requests}
+   * alternating deposits and withdrawals of 10.0 against one account, so its balance is unchanged
+   * afterwards. Nothing is recorded in the transaction history.
+   *
+   * @param accountManager the accounts to use
+   * @param mode the kind of threads to run requests on
+   * @param accountNumber the account to update
+   * @param requests number of requests to submit
+   * @return elapsed nanoseconds from the first submission until every request completed
+   */
+  public static long measure(
+      AccountManager accountManager, ExecutorMode mode, String accountNumber, int requests) {
+    try (BankingRequestExecutor requestExecutor =
+        new BankingRequestExecutor(accountManager, null, mode)) {
+      CompletableFuture<?>[] futures = new CompletableFuture<?>[requests];
+      long began = System.nanoTime();
+      for (int i = 0; i < requests; i++) {
+        futures[i] =
+            i % 2 == 0
+                ? requestExecutor.deposit(accountNumber, 10.0)
+                : requestExecutor.withdraw(accountNumber, 10.0);
+      }
+      // Rejected withdrawals still count as completed requests
+      CompletableFuture.allOf(futures).exceptionally(e -> null).join();
+      return System.nanoTime() - began;
+    }
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  private Transaction record(Transaction transaction) {
+    if (transactionManager != null) {
+      transactionManager.recordTransaction(transaction);
+    }
+    return transaction;
+  }
+
+  private <T> CompletableFuture<T> submit(Callable<T> request) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    executor.execute(
+        () -> {
+          try {
+            result.complete(request.call());
+          } catch (Exception e) {
+            result.completeExceptionally(e);
+          }
+        });
+    return result;
+  }
+}
@@ -0,0 +1,465 @@
+package com.amalitech.services;
+
+import com.amalitech.constants.AccountType;
+import com.amalitech.constants.CustomerType;
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.*;
+import com.amalitech.utils.MoneyUtils;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistence service that stores bank data as fixed-layout binary snapshots and loads them through
+ * a {@link MappedByteBuffer}. Records use length-prefixed UTF-8 strings, primitive longs and enum
+ * ordinals, so loading is a sequential read of the mapped file with no text parsing.
+ *
+ * <p>Every file starts with a 20 byte header: magic (int), format version (short), record kind
+ * (byte), reserved (byte), record count (int) and the offset of the end of record data (long).
+ * Version 3 stores money as cents and transaction timestamps as epoch milliseconds; files with any
+ * other version are rejected.
+ */
+public class BinarySnapshotPersistenceService implements PersistenceService {
+
+  private static final int MAGIC = 0x42414D53; // "BAMS"
+  private static final short FORMAT_VERSION = 3;
+  private static final int HEADER_SIZE = 20;
+  private static final int COUNT_OFFSET = 8;
+  private static final long MAP_WINDOW = 256L * 1024 * 1024;
+
+  private static final byte KIND_CUSTOMERS = 1;
+  private static final byte KIND_ACCOUNTS = 2;
+  private static final byte KIND_TRANSACTIONS = 3;
+
+  private static final CustomerType[] CUSTOMER_TYPES = CustomerType.values();
+  private static final AccountType[] ACCOUNT_TYPES = AccountType.values();
+  private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+
+  private final Path customersFile;
+  private final Path accountsFile;
+  private final Path transactionsFile;
+  private final PersistenceService fallback;
+
+  /** Default constructor using production data directory. */
+  public BinarySnapshotPersistenceService() {
+    this("src/main/resources/data/", null);
+  }
+
+  /** Constructor with custom data directory (for testing). */
+  public BinarySnapshotPersistenceService(String dataDirectory) {
+    this(dataDirectory, null);
+  }
+
+  /**
+   * Constructor with a fallback service used to load data that has not been written in binary
+   * form yet, such as the existing CSV files on first start.
+   *
+   * @param dataDirectory directory holding the {@code .bin} files
+   * @param fallback service to read from when a binary file is missing, or null for none
+   */
+  public BinarySnapshotPersistenceService(String dataDirectory, PersistenceService fallback) {
+    this.customersFile = Paths.get(dataDirectory + "customers.bin");
+    this.accountsFile = Paths.get(dataDirectory + "accounts.bin");
+    this.transactionsFile = Paths.get(dataDirectory + "transactions.bin");
+    this.fallback = fallback;
+  }
+
+  /**
+   * Loads accounts from the mapped binary snapshot. Record layout in version 3:
+   * type(byte),accountNumber,customerId,balanceCents(long),status
+   *
+   * @return HashMap of account number to Account object
+   * @throws IOException if the file is not a valid snapshot or is truncated
+   */
+  @Override
+  public HashMap<String, Account> loadAccounts(HashMap<String, Customer> customers)
+      throws IOException {
+    if (!Files.exists(accountsFile)) {
+      return fallback != null ? fallback.loadAccounts(customers) : new HashMap<>();
+    }
+
+    try (MappedReader reader = new MappedReader(accountsFile, KIND_ACCOUNTS)) {
+      HashMap<String, Account> accounts = HashMap.newHashMap(reader.count);
+      for (int i = 0; i < reader.count; i++) {
+        AccountType type = ACCOUNT_TYPES[reader.readByte()];
+        String accountNumber = reader.readString();
+        String customerId = reader.readString();
+        double balance = MoneyUtils.toAmount(reader.readLong());
+        reader.readString(); // status is always derived by the account itself
+
+        Customer customer = customers.get(customerId);
+        if (customer == null) {
+          System.err.println("Customer not found for account: " + accountNumber);
+          continue;
+        }
+        Account account =
+            type == AccountType.SAVINGS
+                ? new SavingsAccount(accountNumber, customer, balance)
+                : new CheckingAccount(accountNumber, customer, balance);
+        accounts.putIfAbsent(accountNumber, account);
+      }
+
+      FilePersistenceService.updateAccountCounter(accounts);
+      return accounts;
+    }
+  }
+
+  /**
+   * Saves accounts as a binary snapshot.
+   *
+   * @param accounts Map of accounts to save
+   * @throws IOException if file operations fail
+   */
+  @Override
+  public void saveAccounts(Map<String, Account> accounts) throws IOException {
+    writeSnapshot(
+        accountsFile,
+        KIND_ACCOUNTS,
+        accounts.values(),
+        (out, account) -> {
+          out.writeByte(account.getAccountType().ordinal());
+          writeString(out, account.getAccountNumber());
+          writeString(out, account.getCustomer().getCustomerId());
+          out.writeLong(account.getBalanceCents());
+          writeString(out, account.getStatus());
+        });
+  }
+
+  /**
+   * Loads customers from the mapped binary snapshot. Record layout:
+   * type(byte),customerId,name,age(int),contact,address,email
+   *
+   * @return HashMap of customer ID to Customer object
+   * @throws IOException if the file is not a valid snapshot or is truncated
+   */
+  @Override
+  public HashMap<String, Customer> loadCustomers() throws IOException {
+    if (!Files.exists(customersFile)) {
+      return fallback != null ? fallback.loadCustomers() : new HashMap<>();
+    }
+
+    try (MappedReader reader = new MappedReader(customersFile, KIND_CUSTOMERS)) {
+      HashMap<String, Customer> customers = HashMap.newHashMap(reader.count);
+      for (int i = 0; i < reader.count; i++) {
+        CustomerType type = CUSTOMER_TYPES[reader.readByte()];
+        String customerId = reader.readString();
+        String name = reader.readString();
+        int age = reader.readInt();
+        String contact = reader.readString();
+        String address = reader.readString();
+        String email = reader.readString();
+
+        Customer customer =
+            type == CustomerType.PREMIUM
+                ? new PremiumCustomer(customerId, name, age, contact, address, email)
+                : new RegularCustomer(customerId, name, age, contact, address, email);
+        customers.putIfAbsent(customerId, customer);
+      }
+
+      FilePersistenceService.updateCustomerCounter(customers);
+      return customers;
+    }
+  }
+
+  /**
+   * Saves customers as a binary snapshot.
+   *
+   * @param customers HashMap of customers to save
+   * @throws IOException if file operations fail
+   */
+  @Override
+  public void saveCustomers(HashMap<String, Customer> customers) throws IOException {
+    writeSnapshot(
+        customersFile,
+        KIND_CUSTOMERS,
+        customers.values(),
+        (out, customer) -> {
+          out.writeByte(customer.getCustomerType().ordinal());
+          writeString(out, customer.getCustomerId());
+          writeString(out, customer.getName());
+          out.writeInt(customer.getAge());
+          writeString(out, customer.getContact());
+          writeString(out, customer.getAddress());
+          writeString(out, customer.getEmail());
+        });
+  }
+
+  /**
+   * Loads transactions from the mapped binary snapshot. Record layout in version 3:
+   * transactionId,accountNumber,type(byte),amountCents(long),balanceAfterCents(long),
+   * timestampMillis(long)
+   *
+   * @return List of Transaction objects
+   * @throws IOException if the file is not a valid snapshot or is truncated
+   */
+  @Override
+  public List<Transaction> loadTransactions() throws IOException {
+    if (!Files.exists(transactionsFile)) {
+      return fallback != null ? fallback.loadTransactions() : new ArrayList<>();
+    }
+
+    try (MappedReader reader = new MappedReader(transactionsFile, KIND_TRANSACTIONS)) {
+      ArrayList<Transaction> transactions = new ArrayList<>(reader.count);
+      for (int i = 0; i < reader.count; i++) {
+        transactions.add(readTransaction(reader));
+      }
+
+      FilePersistenceService.updateTransactionCounter(transactions);
+      return transactions;
+    }
+  }
+
+  /**
+   * Saves transactions as a binary snapshot.
+   *
+   * @param transactions List of transactions to save
+   * @throws IOException if file operations fail
+   */
+  @Override
+  public void saveTransactions(List<Transaction> transactions) throws IOException {
+    writeSnapshot(
+        transactionsFile,
+        KIND_TRANSACTIONS,
+        transactions,
+        BinarySnapshotPersistenceService::writeTransaction);
+  }
+
+  /**
+   * Appends transactions to the end of the binary snapshot. Record data is forced to disk before
+   * the header count is updated, so a crash mid-append leaves the previous snapshot intact.
+   *
+   * @param transactions List of new transactions to append
+   * @throws IOException if file operations fail
+   */
+  @Override
+  public synchronized void appendTransactions(List<Transaction> transactions) throws IOException {
+    if (transactions.isEmpty()) {
+      return;
+    }
+    if (!Files.exists(transactionsFile)) {
+      // First write in binary form: carry over whatever the fallback still holds
+      List<Transaction> all = new ArrayList<>(loadTransactions());
+      all.addAll(transactions);
+      saveTransactions(all);
+      return;
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      for (Transaction transaction : transactions) {
+        writeTransaction(out, transaction);
+      }
+    }
+
+    try (FileChannel channel =
+        FileChannel.open(transactionsFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      channel.read(header, 0);
+      header.flip();
+      validateHeader(header, KIND_TRANSACTIONS, transactionsFile);
+      int count = header.getInt(COUNT_OFFSET);
+      long dataEnd = header.getLong(COUNT_OFFSET + 4);
+
+      ByteBuffer records = ByteBuffer.wrap(bytes.toByteArray());
+      long position = dataEnd;
+      while (records.hasRemaining()) {
+        position += channel.write(records, position);
+      }
+      channel.force(false);
+
+      ByteBuffer update = ByteBuffer.allocate(12);
+      update.putInt(count + transactions.size()).putLong(position).flip();
+      channel.write(update, COUNT_OFFSET);
+      channel.force(false);
+    }
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  @FunctionalInterface
+  private interface RecordWriter<T> {
+    void write(DataOutputStream out, T record) throws IOException;
+  }
+
+  /** Writes a complete snapshot to a temporary file and atomically moves it into place. */
+  private <T> void writeSnapshot(
+      Path path, byte kind, Collection<T> records, RecordWriter<T> recordWriter)
+      throws IOException {
+    if (path.getParent() != null && !Files.exists(path.getParent())) {
+      Files.createDirectories(path.getParent());
+    }
+    Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+    int count = 0;
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+      out.writeInt(MAGIC);
+      out.writeShort(FORMAT_VERSION);
+      out.writeByte(kind);
+      out.writeByte(0);
+      out.writeInt(0); // count, patched below
+      out.writeLong(0); // data end, patched below
+      for (T record : records) {
+        recordWriter.write(out, record);
+        count++;
+      }
+    }
+
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+      ByteBuffer update = ByteBuffer.allocate(12);
+      update.putInt(count).putLong(channel.size()).flip();
+      channel.write(update, COUNT_OFFSET);
+      channel.force(false);
+    }
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static void writeTransaction(DataOutputStream out, Transaction transaction)
+      throws IOException {
+    writeString(out, transaction.getTransactionId());
+    writeString(out, transaction.getAccountNumber());
+    out.writeByte(transaction.getType().ordinal());
+    out.writeLong(transaction.getAmountCents());
+    out.writeLong(transaction.getBalanceAfterCents());
+    out.writeLong(transaction.getTimestampMillis());
+  }
+
+  private static Transaction readTransaction(MappedReader reader) throws IOException {
+    String transactionId = reader.readString();
+    String accountNumber = reader.readString();
+    TransactionType type = TRANSACTION_TYPES[reader.readByte()];
+    double amount = MoneyUtils.toAmount(reader.readLong());
+    double balanceAfter = MoneyUtils.toAmount(reader.readLong());
+    long timestampMillis = reader.readLong();
+    return new Transaction(
+        transactionId, accountNumber, type, amount, balanceAfter, timestampMillis);
+  }
+
+  /** Writes a string as a signed short byte length followed by UTF-8 bytes; -1 marks null. */
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeShort(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > Short.MAX_VALUE) {
+      throw new IOException("String field too long for binary snapshot: " + bytes.length);
+    }
+    out.writeShort(bytes.length);
+    out.write(bytes);
+  }
+
+  private static void validateHeader(ByteBuffer header, byte kind, Path path) throws IOException {
+    if (header.remaining() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+      throw new IOException("Not a binary snapshot: " + path);
+    }
+    if (header.getShort(4) != FORMAT_VERSION) {
+      throw new IOException("Unsupported snapshot version " + header.getShort(4) + ": " + path);
+    }
+    if (header.get(6) != kind) {
+      throw new IOException("Unexpected record kind " + header.get(6) + ": " + path);
+    }
+  }
+
+  /**
+   * Sequential reader over a memory-mapped snapshot. Files larger than one mapping window are
+   * remapped as reading advances, so snapshots may exceed the 2 GB limit of a single buffer. A read
+   * past the end of record data throws an IOException.
+   */
+  private static final class MappedReader implements Closeable {
+    private final Path path;
+    private final FileChannel channel;
+    private final long end;
+    private final int count;
+    private MappedByteBuffer buffer;
+    private long base;
+    private byte[] scratch = new byte[256];
+
+    MappedReader(Path path, byte kind) throws IOException {
+      this.path = path;
+      this.channel = FileChannel.open(path, StandardOpenOption.READ);
+      try {
+        long size = channel.size();
+        map(0, size);
+        ByteBuffer header = buffer.slice(0, (int) Math.min(HEADER_SIZE, size));
+        validateHeader(header, kind, path);
+        this.count = header.getInt(COUNT_OFFSET);
+        this.end = header.getLong(COUNT_OFFSET + 4);
+        if (count < 0 || end < HEADER_SIZE || end > size) {
+          throw new IOException("Truncated snapshot: " + path);
+        }
+        buffer.position(HEADER_SIZE);
+      } catch (IOException | RuntimeException e) {
+        channel.close();
+        throw e;
+      }
+    }
+
+    byte readByte() throws IOException {
+      ensure(1);
+      return buffer.get();
+    }
+
+    int readInt() throws IOException {
+      ensure(4);
+      return buffer.getInt();
+    }
+
+    long readLong() throws IOException {
+      ensure(8);
+      return buffer.getLong();
+    }
+
+    String readString() throws IOException {
+      ensure(2);
+      short length = buffer.getShort();
+      if (length < 0) {
+        return null;
+      }
+      ensure(length);
+      if (scratch.length < length) {
+        scratch = new byte[Math.max(length, scratch.length * 2)];
+      }
+      buffer.get(scratch, 0, length);
+      return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void ensure(int bytes) throws IOException {
+      long position = base + buffer.position();
+      if (position + bytes > end) {
+        throw new IOException("Truncated snapshot at byte " + position + ": " + path);
+      }
+      if (buffer.remaining() < bytes) {
+        map(position, end);
+      }
+    }
+
+    private void map(long position, long limit) throws IOException {
+      this.base = position;
+      this.buffer =
+          channel.map(
+              FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_WINDOW, limit - position));
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+}
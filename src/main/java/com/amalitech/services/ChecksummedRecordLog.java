@@ -0,0 +1,355 @@
+package com.amalitech.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of text records, each stored with a checksum. It backs the transaction journal,
+ * the account and customer delta logs and the recovery checkpoint. Each append writes only the new
+ * records, so the cost of persisting a change does not depend on the size of the data it changes.
+ *
+ * <p>Durability uses group commit: a writer that finds an fsync already in progress waits for it,
+ * and the next fsync covers every record written up to that point. Concurrent writers therefore
+ * share one {@code force} call instead of issuing one each.
+ *
+ * <p>Each record is stored with a CRC32 of its contents ({@code record|crc}), so a record torn by
+ * a crash mid-write, or damaged later, is detected. Reading stops at the first such record, and
+ * the log is cut back to the last intact record before anything new is appended. A line without a
+ * well-formed checksum counts as damaged too.
+ */
+public class ChecksummedRecordLog implements Closeable {
+
+  private static final char CRC_SEPARATOR = '|';
+  private static final int CRC_DIGITS = 8;
+  private static final HexFormat HEX = HexFormat.of();
+
+  private final Path path;
+  private final Object writeLock = new Object();
+  private final Object syncLock = new Object();
+
+  private FileChannel channel; // guarded by writeLock
+  private long writtenSequence; // guarded by writeLock
+  private int entryCount = -1; // guarded by writeLock, -1 until counted
+  private long validBytes; // guarded by writeLock, length of the intact prefix at the last scan
+  private volatile long syncedSequence;
+
+  public ChecksummedRecordLog(Path path) {
+    this.path = path;
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  /**
+   * Appends the given lines and returns once they are durable on disk.
+   *
+   * @param lines CSV records to append, without line terminators
+   * @throws IOException if the write or fsync fails
+   */
+  public void append(List<String> lines) throws IOException {
+    if (lines.isEmpty()) {
+      return;
+    }
+    ByteBuffer buffer = frame(lines);
+    long sequence;
+    synchronized (writeLock) {
+      int existing = countEntries();
+      FileChannel ch = openChannel();
+      while (buffer.hasRemaining()) {
+        ch.write(buffer);
+      }
+      entryCount = existing + lines.size();
+      sequence = ++writtenSequence;
+    }
+    sync(sequence);
+  }
+
+  /** Returns the number of records currently held in the log. */
+  public int size() throws IOException {
+    synchronized (writeLock) {
+      return countEntries();
+    }
+  }
+
+  /**
+   * Reads every intact record currently in the log, in append order, without checksums. A
+   * torn or corrupt record and everything after it are left out.
+   */
+  public List<String> readLines() throws IOException {
+    synchronized (writeLock) {
+      return scan();
+    }
+  }
+
+  /** Receives the records of a log being compacted. */
+  @FunctionalInterface
+  public interface CompactionTarget {
+    void write(List<String> records) throws IOException;
+  }
+
+  /**
+   * Hands every intact record, without checksums, to the target and then empties the log.
+   * Appends wait until both are done, so no record can be written between the two. If the target
+   * fails, the log is left as it was.
+   *
+   * @param target where the records are moved
+   * @throws IOException if the target or truncation fails
+   */
+  public void compact(CompactionTarget target) throws IOException {
+    synchronized (syncLock) {
+      synchronized (writeLock) {
+        List<String> records = scan();
+        if (records.isEmpty()) {
+          return;
+        }
+        target.write(records);
+        truncate();
+      }
+    }
+  }
+
+  /**
+   * Replaces the log with a full snapshot: hands every intact record, without checksums, to
+   * the target, which writes the snapshot and must include any of those records it does not
+   * already hold, and then empties the log. Unlike {@link #compact}, the target runs even when
+   * the log is empty. Appends wait until both are done, so no record written meanwhile is
+   * discarded unsaved. If the target fails, the log is left as it was.
+   *
+   * @param target writes the snapshot that supersedes the log
+   * @throws IOException if the target or truncation fails
+   */
+  public void supersede(CompactionTarget target) throws IOException {
+    synchronized (syncLock) {
+      synchronized (writeLock) {
+        target.write(Files.exists(path) ? scan() : List.of());
+        if (channel == null && !Files.exists(path)) {
+          entryCount = 0;
+          return;
+        }
+        truncate();
+      }
+    }
+  }
+
+  /**
+   * Moves all intact log records, without checksums, to the end of the snapshot file and empties
+   * the log. The snapshot is forced before the log is truncated, so a crash in between leaves
+   * duplicates (which loading skips) rather than lost records.
+   *
+   * @param snapshot the snapshot file to compact into
+   * @param header header line to write if the snapshot does not exist yet
+   * @throws IOException if copying or truncating fails
+   */
+  public void compactInto(Path snapshot, String header) throws IOException {
+    compact(
+        records -> {
+          try (FileChannel target =
+              FileChannel.open(
+                  snapshot,
+                  StandardOpenOption.CREATE,
+                  StandardOpenOption.WRITE,
+                  StandardOpenOption.APPEND)) {
+            if (target.size() == 0) {
+              writeFully(target, encode(List.of(header)));
+            } else if (!endsWithNewline(snapshot, target.size())) {
+              writeFully(target, encode(List.of("")));
+            }
+            writeFully(target, encode(records));
+            target.force(false);
+          }
+        });
+  }
+
+  /** Discards all log records, typically after a full snapshot has been written. */
+  public void reset() throws IOException {
+    synchronized (syncLock) {
+      synchronized (writeLock) {
+        if (channel == null && !Files.exists(path)) {
+          entryCount = 0;
+          return;
+        }
+        truncate();
+      }
+    }
+  }
+
+  /** Closes the file; a later append reopens it. */
+  @Override
+  public void close() throws IOException {
+    synchronized (syncLock) {
+      synchronized (writeLock) {
+        if (channel != null) {
+          channel.close();
+          channel = null;
+        }
+      }
+    }
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  private void sync(long sequence) throws IOException {
+    if (syncedSequence >= sequence) {
+      return;
+    }
+    synchronized (syncLock) {
+      if (syncedSequence >= sequence) {
+        return; // Another writer's fsync already covered this record
+      }
+      long target;
+      FileChannel ch;
+      synchronized (writeLock) {
+        target = writtenSequence;
+        ch = openChannel();
+      }
+      ch.force(false);
+      syncedSequence = target;
+    }
+  }
+
+  private void truncate() throws IOException {
+    FileChannel ch = openChannel();
+    ch.truncate(0);
+    ch.force(false);
+    entryCount = 0;
+    syncedSequence = writtenSequence;
+  }
+
+  private FileChannel openChannel() throws IOException {
+    if (channel == null || !channel.isOpen()) {
+      if (path.getParent() != null && !Files.exists(path.getParent())) {
+        Files.createDirectories(path.getParent());
+      }
+      discardDamagedTail();
+      channel =
+          FileChannel.open(
+              path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+    return channel;
+  }
+
+  /** Cuts a torn or corrupt tail off the file, so new records follow the last intact one. */
+  private void discardDamagedTail() throws IOException {
+    if (!Files.exists(path)) {
+      return;
+    }
+    scan();
+    long size = Files.size(path);
+    if (validBytes < size) {
+      System.err.println(
+          "Warning: Discarding "
+              + (size - validBytes)
+              + " damaged bytes at the end of "
+              + path.getFileName());
+      try (FileChannel ch = FileChannel.open(path, StandardOpenOption.WRITE)) {
+        ch.truncate(validBytes);
+        ch.force(false);
+      }
+    }
+  }
+
+  private int countEntries() throws IOException {
+    if (entryCount < 0) {
+      scan();
+    }
+    return entryCount;
+  }
+
+  /**
+   * Reads the records up to the first torn or corrupt one, recording how many there are and how
+   * many bytes they span.
+   */
+  private List<String> scan() throws IOException {
+    List<String> records = new ArrayList<>();
+    validBytes = 0;
+    if (Files.exists(path)) {
+      byte[] bytes = Files.readAllBytes(path);
+      int start = 0;
+      for (int i = 0; i < bytes.length; i++) {
+        if (bytes[i] != '\n') {
+          continue;
+        }
+        int end = i > start && bytes[i - 1] == '\r' ? i - 1 : i;
+        String record = unframe(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+        if (record == null) {
+          break;
+        }
+        if (!record.trim().isEmpty()) {
+          records.add(record);
+        }
+        start = i + 1;
+        validBytes = start;
+      }
+    }
+    entryCount = records.size();
+    return records;
+  }
+
+  /** Returns the record without its checksum, or null if the checksum is missing or wrong. */
+  private static String unframe(String line) {
+    int separator = line.length() - CRC_DIGITS - 1;
+    if (separator < 0 || line.charAt(separator) != CRC_SEPARATOR) {
+      return null;
+    }
+    for (int i = separator + 1; i < line.length(); i++) {
+      if (!HexFormat.isHexDigit(line.charAt(i))) {
+        return null;
+      }
+    }
+    String record = line.substring(0, separator);
+    int stored = HexFormat.fromHexDigits(line, separator + 1, line.length());
+    return stored == crc(record) ? record : null;
+  }
+
+  private static int crc(String record) {
+    CRC32 crc = new CRC32();
+    crc.update(record.getBytes(StandardCharsets.UTF_8));
+    return (int) crc.getValue();
+  }
+
+  private static void writeFully(FileChannel target, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      target.write(buffer);
+    }
+  }
+
+  private static boolean endsWithNewline(Path file, long size) throws IOException {
+    try (FileChannel reader = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer last = ByteBuffer.allocate(1);
+      reader.read(last, size - 1);
+      return last.get(0) == '\n';
+    }
+  }
+
+  /** Encodes records with their checksums for appending to the log. */
+  private static ByteBuffer frame(List<String> lines) {
+    StringBuilder sb = new StringBuilder();
+    for (String line : lines) {
+      sb.append(line)
+          .append(CRC_SEPARATOR)
+          .append(HEX.toHexDigits(crc(line)))
+          .append(System.lineSeparator());
+    }
+    return ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** Encodes plain lines for the snapshot file. */
+  private static ByteBuffer encode(List<String> lines) {
+    StringBuilder sb = new StringBuilder();
+    for (String line : lines) {
+      sb.append(line).append(System.lineSeparator());
+    }
+    return ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+  }
+}
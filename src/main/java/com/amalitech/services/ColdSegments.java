@@ -0,0 +1,225 @@
+package com.amalitech.services;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.Transaction;
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only view of the transaction segments left on disk when the history was loaded. Segments
+ * are read on demand and kept in a least-recently-used cache of bounded size, so a query over old
+ * history pays for a segment read the first time instead of holding the whole history in memory.
+ * Overall totals come from the manifest; per-account totals are computed once per account, from
+ * only the segments the manifest lists the account in.
+ *
+ * <p>The view is fixed at load time: each segment is read only up to the length the manifest
+ * recorded then, so records folded into an old month later are not seen twice.
+ */
+public final class ColdSegments {
+
+  private static final Comparator<Transaction> BY_TIMESTAMP =
+      Comparator.comparingLong(Transaction::getTimestampMillis);
+
+  /** Reads the records of one segment. */
+  interface SegmentReader {
+    List<Transaction> read(SegmentedPersistenceService.Segment segment) throws IOException;
+
+    /** Reads the records with timestamps in {@code [fromMillis, toMillis)}, oldest first. */
+    List<Transaction> readRange(
+        SegmentedPersistenceService.Segment segment, long fromMillis, long toMillis)
+        throws IOException;
+  }
+
+  private final List<SegmentedPersistenceService.Segment> segments;
+  private final long coldBeforeMillis;
+  private final SegmentReader reader;
+  private final Map<YearMonth, List<Transaction>> cache; // guarded by itself
+  private final TransactionStatistics statistics = new TransactionStatistics();
+  private final ConcurrentHashMap<String, TransactionStatistics> statisticsByAccount =
+      new ConcurrentHashMap<>();
+  private final long transactionCount;
+
+  /**
+   * Creates a view of the given segments.
+   *
+   * @param segments the cold segments, oldest month first
+   * @param coldBeforeMillis start of the first month that was loaded eagerly
+   * @param cacheCapacity number of segments kept in memory once read
+   * @param reader reads a segment's records
+   */
+  ColdSegments(
+      List<SegmentedPersistenceService.Segment> segments,
+      long coldBeforeMillis,
+      int cacheCapacity,
+      SegmentReader reader) {
+    this.segments = List.copyOf(segments);
+    this.coldBeforeMillis = coldBeforeMillis;
+    this.reader = reader;
+    this.cache =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<YearMonth, List<Transaction>> eldest) {
+            return size() > cacheCapacity;
+          }
+        };
+    long count = 0;
+    TransactionType[] types = TransactionType.values();
+    for (SegmentedPersistenceService.Segment segment : this.segments) {
+      for (int i = 0; i < types.length; i++) {
+        statistics.add(types[i], segment.typeCounts()[i], segment.typeCents()[i]);
+      }
+      count += segment.count();
+    }
+    this.transactionCount = count;
+  }
+
+  /** Returns the instant before which transactions are cold; hot history starts there. */
+  public long getColdBeforeMillis() {
+    return coldBeforeMillis;
+  }
+
+  public long getTransactionCount() {
+    return transactionCount;
+  }
+
+  public int getSegmentCount() {
+    return segments.size();
+  }
+
+  /** Returns the number of segments currently held in memory. */
+  public int getCachedSegmentCount() {
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  /** Returns the totals of every cold transaction, taken from the manifest. */
+  public TransactionStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * Returns cold transactions with timestamps in {@code [fromMillis, toMillis)}, oldest first. Only
+   * segments whose time span overlaps the range are read. A segment the range covers only in part
+   * and that is not cached is read for that part alone, without caching it.
+   */
+  public List<Transaction> between(long fromMillis, long toMillis) {
+    List<Transaction> range = new ArrayList<>();
+    for (SegmentedPersistenceService.Segment segment : segments) {
+      if (segment.count() == 0
+          || segment.lastMillis() < fromMillis
+          || segment.firstMillis() >= toMillis) {
+        continue;
+      }
+      List<Transaction> sorted = cached(segment);
+      if (sorted == null
+          && (segment.firstMillis() < fromMillis || segment.lastMillis() >= toMillis)) {
+        range.addAll(loadRange(segment, fromMillis, toMillis));
+        continue;
+      }
+      if (sorted == null) {
+        sorted = load(segment);
+      }
+      range.addAll(sorted.subList(lowerBound(sorted, fromMillis), lowerBound(sorted, toMillis)));
+    }
+    return range;
+  }
+
+  /**
+   * Returns the cold transactions of one account, oldest first. Reads only the segments that have
+   * records for the account.
+   */
+  public List<Transaction> forAccount(String accountNumber) {
+    List<Transaction> accountTransactions = new ArrayList<>();
+    for (SegmentedPersistenceService.Segment segment : segments) {
+      if (!segment.accounts().contains(accountNumber)) {
+        continue;
+      }
+      for (Transaction transaction : load(segment)) {
+        if (accountNumber.equals(transaction.getAccountNumber())) {
+          accountTransactions.add(transaction);
+        }
+      }
+    }
+    return accountTransactions;
+  }
+
+  /** Returns one account's cold totals, computed from the segments the first time. */
+  public TransactionStatistics getAccountStatistics(String accountNumber) {
+    TransactionStatistics accountStatistics = statisticsByAccount.get(accountNumber);
+    if (accountStatistics == null) {
+      TransactionStatistics computed = new TransactionStatistics();
+      forAccount(accountNumber).forEach(computed::record);
+      accountStatistics = statisticsByAccount.putIfAbsent(accountNumber, computed);
+      if (accountStatistics == null) {
+        accountStatistics = computed;
+      }
+    }
+    return accountStatistics;
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  /** Returns a segment's records from the cache, or null if it is not cached. */
+  private List<Transaction> cached(SegmentedPersistenceService.Segment segment) {
+    synchronized (cache) {
+      return cache.get(segment.month());
+    }
+  }
+
+  /** Returns a segment's records sorted by timestamp, from the cache or from disk. */
+  private List<Transaction> load(SegmentedPersistenceService.Segment segment) {
+    List<Transaction> cached = cached(segment);
+    if (cached != null) {
+      return cached;
+    }
+    List<Transaction> sorted;
+    try {
+      sorted = new ArrayList<>(reader.read(segment));
+    } catch (IOException e) {
+      System.err.println(
+          "Warning: Could not load transactions for " + segment.month() + ": " + e.getMessage());
+      return List.of();
+    }
+    sorted.sort(BY_TIMESTAMP);
+    List<Transaction> loaded = Collections.unmodifiableList(sorted);
+    synchronized (cache) {
+      cache.put(segment.month(), loaded);
+    }
+    return loaded;
+  }
+
+  /** Reads part of a segment without caching it. */
+  private List<Transaction> loadRange(
+      SegmentedPersistenceService.Segment segment, long fromMillis, long toMillis) {
+    try {
+      return reader.readRange(segment, fromMillis, toMillis);
+    } catch (IOException e) {
+      System.err.println(
+          "Warning: Could not load transactions for " + segment.month() + ": " + e.getMessage());
+      return List.of();
+    }
+  }
+
+  /** Returns the index of the first transaction at or after the given instant. */
+  private static int lowerBound(List<Transaction> sorted, long timestampMillis) {
+    int low = 0;
+    int high = sorted.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sorted.get(mid).getTimestampMillis() < timestampMillis) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
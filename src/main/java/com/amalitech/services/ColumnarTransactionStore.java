@@ -0,0 +1,171 @@
+package com.amalitech.services;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.Transaction;
+import com.amalitech.utils.MoneyUtils;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Transaction history held as parallel primitive arrays, one per field. Transaction IDs of the
+ * generated {@code TXN<number>} form are stored as their number, account numbers as an index into a
+ * shared dictionary, types as their ordinal and amounts as cents, so a record costs a few dozen
+ * bytes instead of an object plus three strings.
+ *
+ * <p>{@link #get(int)} builds a short-lived {@link Transaction} view of a row; the store never
+ * keeps those objects. Scans that need one field can read the column accessors instead. The store
+ * is not thread-safe; {@link TransactionManager} guards it with its history lock.
+ */
+public class ColumnarTransactionStore extends AbstractList<Transaction> implements RandomAccess {
+
+  private static final String ID_PREFIX = "TXN";
+  private static final long IRREGULAR_ID = -1L;
+  private static final TransactionType[] TYPES = TransactionType.values();
+  private static final int INITIAL_CAPACITY = 16;
+
+  private long[] ids = new long[INITIAL_CAPACITY];
+  private int[] accountIndices = new int[INITIAL_CAPACITY];
+  private byte[] types = new byte[INITIAL_CAPACITY];
+  private long[] amountCents = new long[INITIAL_CAPACITY];
+  private long[] balanceAfterCents = new long[INITIAL_CAPACITY];
+  private long[] timestamps = new long[INITIAL_CAPACITY];
+  private int size;
+
+  private final ArrayList<String> accountNumbers = new ArrayList<>();
+  private final HashMap<String, Integer> accountIndexByNumber = new HashMap<>();
+  // IDs that do not round-trip through the numeric form, keyed by row
+  private final HashMap<Integer, String> irregularIds = new HashMap<>();
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Transaction get(int index) {
+    Objects.checkIndex(index, size);
+    return new Transaction(
+        getTransactionId(index),
+        getAccountNumber(index),
+        getType(index),
+        MoneyUtils.toAmount(amountCents[index]),
+        MoneyUtils.toAmount(balanceAfterCents[index]),
+        timestamps[index]);
+  }
+
+  @Override
+  public boolean add(Transaction transaction) {
+    ensureCapacity(size + 1);
+    long id = parseId(transaction.getTransactionId());
+    if (id == IRREGULAR_ID) {
+      irregularIds.put(size, transaction.getTransactionId());
+    }
+    ids[size] = id;
+    accountIndices[size] = accountIndex(transaction.getAccountNumber());
+    types[size] = (byte) transaction.getType().ordinal();
+    amountCents[size] = transaction.getAmountCents();
+    balanceAfterCents[size] = transaction.getBalanceAfterCents();
+    timestamps[size] = transaction.getTimestampMillis();
+    size++;
+    modCount++;
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    size = 0;
+    accountNumbers.clear();
+    accountIndexByNumber.clear();
+    irregularIds.clear();
+    modCount++;
+  }
+
+  public String getTransactionId(int index) {
+    Objects.checkIndex(index, size);
+    return ids[index] == IRREGULAR_ID ? irregularIds.get(index) : formatId(ids[index]);
+  }
+
+  public String getAccountNumber(int index) {
+    Objects.checkIndex(index, size);
+    return accountNumbers.get(accountIndices[index]);
+  }
+
+  public TransactionType getType(int index) {
+    Objects.checkIndex(index, size);
+    return TYPES[types[index]];
+  }
+
+  public double getAmount(int index) {
+    return MoneyUtils.toAmount(getAmountCents(index));
+  }
+
+  public long getAmountCents(int index) {
+    Objects.checkIndex(index, size);
+    return amountCents[index];
+  }
+
+  public long getTimestampMillis(int index) {
+    Objects.checkIndex(index, size);
+    return timestamps[index];
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  private int accountIndex(String accountNumber) {
+    Integer existing = accountIndexByNumber.get(accountNumber);
+    if (existing != null) {
+      return existing;
+    }
+    int index = accountNumbers.size();
+    accountNumbers.add(accountNumber);
+    accountIndexByNumber.put(accountNumber, index);
+    return index;
+  }
+
+  /** Returns the number in a generated ID, or {@link #IRREGULAR_ID} if it cannot be rebuilt. */
+  private static long parseId(String transactionId) {
+    if (transactionId == null
+        || !transactionId.startsWith(ID_PREFIX)
+        || transactionId.length() == ID_PREFIX.length()
+        || transactionId.length() > ID_PREFIX.length() + 18) {
+      return IRREGULAR_ID;
+    }
+    long number = 0;
+    for (int i = ID_PREFIX.length(); i < transactionId.length(); i++) {
+      char c = transactionId.charAt(i);
+      if (c < '0' || c > '9') {
+        return IRREGULAR_ID;
+      }
+      number = number * 10 + (c - '0');
+    }
+    // Leading zeros beyond the generated padding would be lost on the way back
+    return formatId(number).equals(transactionId) ? number : IRREGULAR_ID;
+  }
+
+  /** Formats an ID number the way {@code Transaction} generates IDs. */
+  private static String formatId(long number) {
+    String digits = Long.toString(number);
+    return switch (digits.length()) {
+      case 1 -> ID_PREFIX + "00" + digits;
+      case 2 -> ID_PREFIX + "0" + digits;
+      default -> ID_PREFIX + digits;
+    };
+  }
+
+  private void ensureCapacity(int required) {
+    if (required <= ids.length) {
+      return;
+    }
+    int capacity = Math.max(required, ids.length + (ids.length >> 1));
+    ids = Arrays.copyOf(ids, capacity);
+    accountIndices = Arrays.copyOf(accountIndices, capacity);
+    types = Arrays.copyOf(types, capacity);
+    amountCents = Arrays.copyOf(amountCents, capacity);
+    balanceAfterCents = Arrays.copyOf(balanceAfterCents, capacity);
+    timestamps = Arrays.copyOf(timestamps, capacity);
+  }
+}
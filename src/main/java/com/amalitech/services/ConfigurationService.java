@@ -1,5 +1,7 @@
 package com.amalitech.services;
 
+import com.amalitech.constants.PersistenceFormat;
+import com.amalitech.constants.TransactionStorage;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -15,6 +17,16 @@ public class ConfigurationService {
   private static final String KEY_AUTO_SAVE = "auto_save";
   private static final String KEY_AUTO_LOAD = "auto_load_on_startup";
   private static final String KEY_SAVE_ON_EXIT = "save_on_exit";
+  private static final String KEY_PERSISTENCE_FORMAT = "persistence_format";
+  private static final String KEY_TRANSACTION_STORAGE = "transaction_storage";
+  private static final String KEY_CHECKPOINT_INTERVAL = "checkpoint_interval_seconds";
+  private static final String KEY_AUTO_SAVE_INTERVAL = "auto_save_interval_seconds";
+  private static final String KEY_AUTO_SAVE_THRESHOLD = "auto_save_change_threshold";
+  private static final String KEY_AUTO_SAVE_SHUTDOWN_TIMEOUT = "auto_save_shutdown_timeout_millis";
+  private static final long DEFAULT_CHECKPOINT_INTERVAL_SECONDS = 60;
+  private static final long DEFAULT_AUTO_SAVE_INTERVAL_SECONDS = 30;
+  private static final long DEFAULT_AUTO_SAVE_THRESHOLD = 50;
+  private static final long DEFAULT_AUTO_SAVE_SHUTDOWN_TIMEOUT_MILLIS = 5000;
 
   private final String configFile;
   private final Properties properties;
@@ -86,4 +98,99 @@ public class ConfigurationService {
     properties.setProperty(KEY_SAVE_ON_EXIT, String.valueOf(saveOnExit));
     saveConfig();
   }
+
+  /** Returns the configured storage format, falling back to CSV for unknown values. */
+  public PersistenceFormat getPersistenceFormat() {
+    String value = properties.getProperty(KEY_PERSISTENCE_FORMAT, PersistenceFormat.CSV.name());
+    try {
+      return PersistenceFormat.valueOf(value.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      System.err.println("Warning: Unknown persistence format '" + value + "'. Using CSV.");
+      return PersistenceFormat.CSV;
+    }
+  }
+
+  public void setPersistenceFormat(PersistenceFormat format) {
+    properties.setProperty(KEY_PERSISTENCE_FORMAT, format.name());
+    saveConfig();
+  }
+
+  /** Returns the configured in-memory transaction layout, falling back to OBJECTS. */
+  public TransactionStorage getTransactionStorage() {
+    String value =
+        properties.getProperty(KEY_TRANSACTION_STORAGE, TransactionStorage.OBJECTS.name());
+    try {
+      return TransactionStorage.valueOf(value.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      System.err.println("Warning: Unknown transaction storage '" + value + "'. Using OBJECTS.");
+      return TransactionStorage.OBJECTS;
+    }
+  }
+
+  public void setTransactionStorage(TransactionStorage storage) {
+    properties.setProperty(KEY_TRANSACTION_STORAGE, storage.name());
+    saveConfig();
+  }
+
+  /** Returns the seconds between recovery checkpoints, falling back to 60 for invalid values. */
+  public long getCheckpointIntervalSeconds() {
+    return getPositiveLong(KEY_CHECKPOINT_INTERVAL, DEFAULT_CHECKPOINT_INTERVAL_SECONDS);
+  }
+
+  public void setCheckpointIntervalSeconds(long seconds) {
+    properties.setProperty(KEY_CHECKPOINT_INTERVAL, String.valueOf(seconds));
+    saveConfig();
+  }
+
+  /** Returns the longest time a requested autosave waits, falling back to 30 seconds. */
+  public long getAutoSaveIntervalSeconds() {
+    return getPositiveLong(KEY_AUTO_SAVE_INTERVAL, DEFAULT_AUTO_SAVE_INTERVAL_SECONDS);
+  }
+
+  public void setAutoSaveIntervalSeconds(long seconds) {
+    properties.setProperty(KEY_AUTO_SAVE_INTERVAL, String.valueOf(seconds));
+    saveConfig();
+  }
+
+  /** Returns the number of changes that triggers an autosave straight away, falling back to 50. */
+  public int getAutoSaveChangeThreshold() {
+    return (int)
+        Math.min(
+            Integer.MAX_VALUE,
+            getPositiveLong(KEY_AUTO_SAVE_THRESHOLD, DEFAULT_AUTO_SAVE_THRESHOLD));
+  }
+
+  public void setAutoSaveChangeThreshold(int changes) {
+    properties.setProperty(KEY_AUTO_SAVE_THRESHOLD, String.valueOf(changes));
+    saveConfig();
+  }
+
+  /** Returns how long shutdown waits for the final autosave, falling back to 5000 ms. */
+  public long getAutoSaveShutdownTimeoutMillis() {
+    return getPositiveLong(
+        KEY_AUTO_SAVE_SHUTDOWN_TIMEOUT, DEFAULT_AUTO_SAVE_SHUTDOWN_TIMEOUT_MILLIS);
+  }
+
+  public void setAutoSaveShutdownTimeoutMillis(long millis) {
+    properties.setProperty(KEY_AUTO_SAVE_SHUTDOWN_TIMEOUT, String.valueOf(millis));
+    saveConfig();
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  /** Reads a positive whole number, warning and falling back to the default otherwise. */
+  private long getPositiveLong(String key, long defaultValue) {
+    String value = properties.getProperty(key, String.valueOf(defaultValue));
+    try {
+      long number = Long.parseLong(value.trim());
+      if (number > 0) {
+        return number;
+      }
+    } catch (NumberFormatException e) {
+      // Reported below
+    }
+    System.err.println(
+        "Warning: Invalid " + key + " '" + value + "'. Using " + defaultValue + ".");
+    return defaultValue;
+  }
 }
@@ -0,0 +1,232 @@
+package com.amalitech.services;
+
+import com.amalitech.models.Transaction;
+import com.amalitech.utils.MoneyUtils;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+
+/**
+ * Writes CSV records into a reusable buffer that is flushed through a {@link FileChannel} whenever
+ * it fills. Numbers, amounts and timestamps are formatted digit by digit straight into the buffer,
+ * so saving a file needs neither a String per row nor the whole file in memory.
+ *
+ * <p>Fields are written in order and separated automatically; {@link #endRecord()} ends the line.
+ * Not thread-safe.
+ */
+final class CsvRecordWriter implements AutoCloseable {
+
+  static final int DEFAULT_BUFFER_BYTES = 64 * 1024;
+
+  private static final long HOUR_MILLIS = 3_600_000L;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private final byte[] digits = new byte[20];
+  private final ZoneId zone = ZoneId.systemDefault();
+  private final ZoneRules zoneRules = zone.getRules();
+  private boolean firstField = true;
+
+  // Timestamps in a history repeat their local date and hour, so the formatted "dd-MM-yyyy HH:"
+  // prefix is kept for the hour it covers
+  private final byte[] hourPrefix = new byte[14];
+  private long hourStartMillis = Long.MAX_VALUE;
+  private long hourEndMillis = Long.MIN_VALUE;
+
+  /** Creates or truncates the file and opens it for writing. */
+  CsvRecordWriter(Path path) throws IOException {
+    this(path, DEFAULT_BUFFER_BYTES);
+  }
+
+  CsvRecordWriter(Path path, int bufferBytes) throws IOException {
+    this.channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+  }
+
+  /** Writes a complete line, such as a header. */
+  void line(String text) throws IOException {
+    writeText(text);
+    put((byte) '\n');
+  }
+
+  CsvRecordWriter field(String value) throws IOException {
+    separate();
+    writeText(value);
+    return this;
+  }
+
+  CsvRecordWriter field(Enum<?> value) throws IOException {
+    return field(value.name());
+  }
+
+  CsvRecordWriter field(long value) throws IOException {
+    separate();
+    writeLong(value);
+    return this;
+  }
+
+  /** Writes cents as a plain decimal with two fraction digits, as {@link MoneyUtils#format}. */
+  CsvRecordWriter money(long cents) throws IOException {
+    separate();
+    if (cents < 0) {
+      put((byte) '-');
+    }
+    long units = Math.abs(cents / MoneyUtils.CENTS_PER_UNIT);
+    int fraction = (int) Math.abs(cents % MoneyUtils.CENTS_PER_UNIT);
+    writeLong(units);
+    put((byte) '.');
+    writeTwoDigits(fraction);
+    return this;
+  }
+
+  /** Writes epoch milliseconds as dd-MM-yyyy HH:mm:ss in the system time zone. */
+  CsvRecordWriter timestamp(long millis) throws IOException {
+    separate();
+    if (millis < hourStartMillis || millis >= hourEndMillis) {
+      cacheHour(millis);
+    }
+    if (millis >= hourStartMillis && millis < hourEndMillis) {
+      for (byte b : hourPrefix) {
+        put(b);
+      }
+      long seconds = (millis - hourStartMillis) / 1000;
+      writeTwoDigits((int) (seconds / 60));
+      put((byte) ':');
+      writeTwoDigits((int) (seconds % 60));
+    } else {
+      // The offset changes within this hour, or the year needs other than four digits
+      writeText(Transaction.formatTimestamp(millis));
+    }
+    return this;
+  }
+
+  void endRecord() throws IOException {
+    put((byte) '\n');
+    firstField = true;
+  }
+
+  /** Writes out anything still buffered and forces the file to disk. */
+  void force() throws IOException {
+    flush();
+    channel.force(false);
+  }
+
+  /** Writes out anything still buffered and closes the file. */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      channel.close();
+    }
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  private void separate() throws IOException {
+    if (!firstField) {
+      put((byte) ',');
+    }
+    firstField = false;
+  }
+
+  private void writeText(String text) throws IOException {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c >= 0x80) {
+        // Rare non-ASCII text takes the encoder path
+        for (byte b : text.substring(i).getBytes(StandardCharsets.UTF_8)) {
+          put(b);
+        }
+        return;
+      }
+      put((byte) c);
+    }
+  }
+
+  private void writeLong(long value) throws IOException {
+    if (value == Long.MIN_VALUE) {
+      writeText(Long.toString(value));
+      return;
+    }
+    if (value < 0) {
+      put((byte) '-');
+      value = -value;
+    }
+    int length = 0;
+    do {
+      digits[length++] = (byte) ('0' + value % 10);
+      value /= 10;
+    } while (value > 0);
+    while (length > 0) {
+      put(digits[--length]);
+    }
+  }
+
+  private void writeTwoDigits(int value) throws IOException {
+    put((byte) ('0' + value / 10));
+    put((byte) ('0' + value % 10));
+  }
+
+  /** Formats the prefix for the local hour containing the instant, if it can be reused. */
+  private void cacheHour(long millis) {
+    LocalDateTime local = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+    long intoHour =
+        (local.getMinute() * 60L + local.getSecond()) * 1000 + Math.floorMod(millis, 1000L);
+    long start = millis - intoHour;
+    long end = start + HOUR_MILLIS;
+    boolean offsetChanges =
+        !zoneRules
+            .getOffset(Instant.ofEpochMilli(start))
+            .equals(zoneRules.getOffset(Instant.ofEpochMilli(end - 1)));
+    int year = local.getYear();
+    if (offsetChanges || year < 0 || year > 9999) {
+      hourStartMillis = Long.MAX_VALUE;
+      hourEndMillis = Long.MIN_VALUE;
+      return;
+    }
+    setTwoDigits(0, local.getDayOfMonth());
+    hourPrefix[2] = '-';
+    setTwoDigits(3, local.getMonthValue());
+    hourPrefix[5] = '-';
+    setTwoDigits(6, year / 100 % 100);
+    setTwoDigits(8, year % 100);
+    hourPrefix[10] = ' ';
+    setTwoDigits(11, local.getHour());
+    hourPrefix[13] = ':';
+    hourStartMillis = start;
+    hourEndMillis = end;
+  }
+
+  private void setTwoDigits(int offset, int value) {
+    hourPrefix[offset] = (byte) ('0' + value / 10);
+    hourPrefix[offset + 1] = (byte) ('0' + value % 10);
+  }
+
+  private void put(byte b) throws IOException {
+    if (!buffer.hasRemaining()) {
+      flush();
+    }
+    buffer.put(b);
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
@@ -5,26 +5,42 @@ import com.amalitech.utils.ConsoleTablePrinter;
 import com.amalitech.utils.InputReader;
 import com.amalitech.utils.TablePrinter;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
-
-/** Manages a collection of bank customers using HashMap with file persistence. */
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Manages a collection of bank customers using HashMap with file persistence. Saves only hand the
+ * persistence service the customers added or edited since the last load or save. Changes to the
+ * map hold its lock, so a save on a background thread sees a consistent view without blocking the
+ * caller for the duration of the write.
+ */
 public class CustomerManager {
 
   private final HashMap<String, Customer> customers;
   private final TablePrinter printer;
   private final PersistenceService persistenceService;
+  // Field values of each customer as of the last load or save, to find customers changed since
+  private final HashMap<String, String> savedFields;
 
   public CustomerManager(PersistenceService persistenceService) {
     this.persistenceService = persistenceService;
     this.printer = new ConsoleTablePrinter();
     this.customers = new HashMap<>();
+    this.savedFields = new HashMap<>();
   }
 
   /** Loads customers from file. */
   public void loadCustomers() {
     try {
-      this.customers.clear();
-      this.customers.putAll(persistenceService.loadCustomers());
+      HashMap<String, Customer> loaded = persistenceService.loadCustomers();
+      synchronized (customers) {
+        this.customers.clear();
+        this.customers.putAll(loaded);
+        this.savedFields.clear();
+        customers.forEach((id, customer) -> savedFields.put(id, fields(customer)));
+      }
     } catch (IOException e) {
       System.err.println("Warning: Could not load customers from file: " + e.getMessage());
     }
@@ -36,7 +52,9 @@ public class CustomerManager {
       System.out.println("Cannot add null customer.");
       return;
     }
-    customers.put(customer.getCustomerId(), customer);
+    synchronized (customers) {
+      customers.put(customer.getCustomerId(), customer);
+    }
   }
 
   /**
@@ -99,10 +117,29 @@ public class CustomerManager {
     return customers.values().stream().filter(PremiumCustomer.class::isInstance).count();
   }
 
-  /** Saves all customers to file. */
+  /** Saves the customers added or edited since the last load or save; does nothing if none. */
   public void saveCustomers() {
+    Map<String, String> current = new HashMap<>();
+    List<Customer> changed = new ArrayList<>();
+    HashMap<String, Customer> all;
+    synchronized (customers) {
+      for (Customer customer : customers.values()) {
+        String fields = fields(customer);
+        if (!fields.equals(savedFields.get(customer.getCustomerId()))) {
+          changed.add(customer);
+          current.put(customer.getCustomerId(), fields);
+        }
+      }
+      if (changed.isEmpty()) {
+        return;
+      }
+      all = new HashMap<>(customers);
+    }
     try {
-      persistenceService.saveCustomers(customers);
+      persistenceService.saveCustomerChanges(changed, all);
+      synchronized (customers) {
+        savedFields.putAll(current);
+      }
     } catch (IOException e) {
       System.err.println("Error saving customers: " + e.getMessage());
     }
@@ -112,4 +149,18 @@ public class CustomerManager {
   public HashMap<String, Customer> getCustomers() {
     return customers;
   }
+
+  // ==================== HELPER METHODS ====================
+
+  /** Joins the persisted fields of a customer, so edits can be detected by comparison. */
+  private static String fields(Customer customer) {
+    return String.join(
+        "\0",
+        customer.getCustomerType().name(),
+        customer.getName(),
+        String.valueOf(customer.getAge()),
+        customer.getContact(),
+        customer.getAddress(),
+        customer.getEmail());
+  }
 }
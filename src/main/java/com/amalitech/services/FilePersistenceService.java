@@ -4,27 +4,56 @@ import com.amalitech.constants.AccountType;
 import com.amalitech.constants.CustomerType;
 import com.amalitech.constants.TransactionType;
 import com.amalitech.models.*;
+import com.amalitech.utils.MoneyUtils;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Service for persisting and loading bank data using java.nio.file. Handles CSV-style file
  * operations for accounts, customers, and transactions.
+ *
+ * <p>New transactions are appended to {@code transactions.journal}; once the journal holds {@code
+ * journalCompactionThreshold} records it is folded into {@code transactions.txt}. Incremental
+ * account and customer saves likewise append the changed records to {@code accounts.delta} and
+ * {@code customers.delta}, whose records override the main file on load, until a delta reaches the
+ * same threshold and the full file is rewritten.
  */
 public class FilePersistenceService implements PersistenceService {
 
+  private static final int DEFAULT_JOURNAL_COMPACTION_THRESHOLD = 1_000;
+  // Shortest typical record lengths, so map capacities estimated from file sizes rarely fall short
+  private static final int MIN_ACCOUNT_LINE_BYTES = 32;
+  private static final int MIN_CUSTOMER_LINE_BYTES = 48;
+  private static final String ACCOUNTS_HEADER =
+      "accountType,accountNumber,customerId,balance,status";
+  private static final String CUSTOMERS_HEADER =
+      "customerType,customerId,name,age,contact,address,email";
+  static final String TRANSACTIONS_HEADER =
+      "transactionId,accountNumber,type,amount,balanceAfter,timestamp";
+
   private final String dataDir;
   private final String accountsFile;
   private final String customersFile;
   private final String transactionsFile;
+  private final ChecksummedRecordLog journal;
+  private final ChecksummedRecordLog accountsDelta;
+  private final ChecksummedRecordLog customersDelta;
+  private final TransactionCsvLoader transactionLoader;
+  private final int journalCompactionThreshold;
 
   /** Default constructor using production data directory. */
   public FilePersistenceService() {
@@ -33,15 +62,27 @@ public class FilePersistenceService implements PersistenceService {
 
   /** Constructor with custom data directory (for testing). */
   public FilePersistenceService(String dataDirectory) {
+    this(dataDirectory, DEFAULT_JOURNAL_COMPACTION_THRESHOLD);
+  }
+
+  /** Constructor with custom data directory and journal compaction threshold. */
+  public FilePersistenceService(String dataDirectory, int journalCompactionThreshold) {
     this.dataDir = dataDirectory;
     this.accountsFile = dataDir + "accounts.txt";
     this.customersFile = dataDir + "customers.txt";
     this.transactionsFile = dataDir + "transactions.txt";
+    this.journal = new ChecksummedRecordLog(Paths.get(dataDir + "transactions.journal"));
+    this.accountsDelta = new ChecksummedRecordLog(Paths.get(dataDir + "accounts.delta"));
+    this.customersDelta = new ChecksummedRecordLog(Paths.get(dataDir + "customers.delta"));
+    this.transactionLoader =
+        new TransactionCsvLoader(
+            TransactionCsvLoader.DEFAULT_CHUNK_BYTES, FilePersistenceService::parseTransaction);
+    this.journalCompactionThreshold = journalCompactionThreshold;
   }
 
   /**
-   * Loads accounts from file using NIO and Stream API. File format:
-   * accountType,accountNumber,customerId,balance,status
+   * Loads accounts from file using NIO and Stream API, then applies any records in the delta file.
+   * File format: accountType,accountNumber,customerId,balance,status
    *
    * @return HashMap of account number to Account object
    * @throws IOException if file operations fail
@@ -49,77 +90,127 @@ public class FilePersistenceService implements PersistenceService {
   public HashMap<String, Account> loadAccounts(HashMap<String, Customer> customers)
       throws IOException {
     Path path = Paths.get(accountsFile);
-    if (!Files.exists(path)) {
-      return new HashMap<>();
+    HashMap<String, Account> accounts = new HashMap<>();
+    if (Files.exists(path)) {
+      int expected = expectedRecords(path, MIN_ACCOUNT_LINE_BYTES);
+      try (Stream<String> lines = Files.lines(path)) {
+        accounts =
+            lines
+                .skip(1) // Skip header
+                .filter(line -> !line.trim().isEmpty())
+                .map(line -> parseAccount(line, customers))
+                .filter(account -> account != null)
+                .collect(
+                    Collectors.toMap(
+                        Account::getAccountNumber,
+                        account -> account,
+                        (a1, a2) -> a1,
+                        () -> HashMap.newHashMap(expected)));
+      }
     }
 
-    try (Stream<String> lines = Files.lines(path)) {
-      HashMap<String, Account> accounts =
-          lines
-              .skip(1) // Skip header
-              .filter(line -> !line.trim().isEmpty())
-              .map(line -> parseAccount(line, customers))
-              .filter(account -> account != null)
-              .collect(
-                  Collectors.toMap(
-                      Account::getAccountNumber, account -> account, (a1, a2) -> a1, HashMap::new));
-
-      // Restore account counter to max ID found
-      updateAccountCounter(accounts);
-      return accounts;
+    // Later delta records supersede earlier ones and the main file
+    for (String line : accountsDelta.readLines()) {
+      Account account = parseAccount(line, customers);
+      if (account != null) {
+        accounts.put(account.getAccountNumber(), account);
+      }
     }
+
+    // Restore account counter to max ID found
+    updateAccountCounter(accounts);
+    return accounts;
   }
 
   /**
-   * Saves accounts to file using NIO.
+   * Saves accounts to file, streaming records through a reusable buffer.
    *
-   * @param accounts HashMap of accounts to save
+   * @param accounts Map of accounts to save
    * @throws IOException if file operations fail
    */
-  public void saveAccounts(HashMap<String, Account> accounts) throws IOException {
+  public void saveAccounts(Map<String, Account> accounts) throws IOException {
     Path path = Paths.get(accountsFile);
     ensureDirectoryExists(path.getParent());
 
-    List<String> lines = new ArrayList<>();
-    lines.add("accountType,accountNumber,customerId,balance,status");
-
-    accounts.values().stream().map(this::accountToCsv).forEach(lines::add);
+    try (CsvRecordWriter writer = new CsvRecordWriter(path)) {
+      writer.line(ACCOUNTS_HEADER);
+      for (Account account : accounts.values()) {
+        writer
+            .field(account.getAccountType())
+            .field(account.getAccountNumber())
+            .field(account.getCustomer().getCustomerId())
+            .money(account.getBalanceCents())
+            .field(account.getStatus())
+            .endRecord();
+      }
+    }
+    accountsDelta.reset();
+  }
 
-    Files.write(path, lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+  /**
+   * Appends the changed accounts to {@code accounts.delta}, or rewrites {@code accounts.txt} once
+   * the delta would reach the compaction threshold.
+   *
+   * @param changed accounts added or changed since the last save
+   * @param accounts every account, written out when the delta is folded in
+   * @throws IOException if file operations fail
+   */
+  @Override
+  public void saveAccountChanges(Collection<Account> changed, Map<String, Account> accounts)
+      throws IOException {
+    if (changed.isEmpty()) {
+      return;
+    }
+    if (!Files.exists(Paths.get(accountsFile))
+        || accountsDelta.size() + changed.size() >= journalCompactionThreshold) {
+      saveAccounts(accounts);
+      return;
+    }
+    accountsDelta.append(changed.stream().map(this::accountToCsv).toList());
   }
 
   /**
-   * Loads customers from file using NIO and Stream API. File format:
-   * customerType,customerId,name,age,contact,address
+   * Loads customers from file using NIO and Stream API, then applies any records in the delta
+   * file. File format: customerType,customerId,name,age,contact,address
    *
    * @return HashMap of customer ID to Customer object
    * @throws IOException if file operations fail
    */
   public HashMap<String, Customer> loadCustomers() throws IOException {
     Path path = Paths.get(customersFile);
-    if (!Files.exists(path)) {
-      return new HashMap<>();
+    HashMap<String, Customer> customers = new HashMap<>();
+    if (Files.exists(path)) {
+      int expected = expectedRecords(path, MIN_CUSTOMER_LINE_BYTES);
+      try (Stream<String> lines = Files.lines(path)) {
+        customers =
+            lines
+                .skip(1) // Skip header
+                .filter(line -> !line.trim().isEmpty())
+                .map(this::parseCustomer)
+                .filter(customer -> customer != null)
+                .collect(
+                    Collectors.toMap(
+                        Customer::getCustomerId,
+                        customer -> customer,
+                        (c1, c2) -> c1,
+                        () -> HashMap.newHashMap(expected)));
+      }
     }
 
-    try (Stream<String> lines = Files.lines(path)) {
-      HashMap<String, Customer> customers =
-          lines
-              .skip(1) // Skip header
-              .filter(line -> !line.trim().isEmpty())
-              .map(this::parseCustomer)
-              .filter(customer -> customer != null)
-              .collect(
-                  Collectors.toMap(
-                      Customer::getCustomerId, customer -> customer, (c1, c2) -> c1, HashMap::new));
-
-      // Restore customer counter to max ID found
-      updateCustomerCounter(customers);
-      return customers;
+    for (String line : customersDelta.readLines()) {
+      Customer customer = parseCustomer(line);
+      if (customer != null) {
+        customers.put(customer.getCustomerId(), customer);
+      }
     }
+
+    // Restore customer counter to max ID found
+    updateCustomerCounter(customers);
+    return customers;
   }
 
   /**
-   * Saves customers to file using NIO.
+   * Saves customers to file, streaming records through a reusable buffer.
    *
    * @param customers HashMap of customers to save
    * @throws IOException if file operations fail
@@ -128,16 +219,48 @@ public class FilePersistenceService implements PersistenceService {
     Path path = Paths.get(customersFile);
     ensureDirectoryExists(path.getParent());
 
-    List<String> lines = new ArrayList<>();
-    lines.add("customerType,customerId,name,age,contact,address,email");
-
-    customers.values().stream().map(this::customerToCsv).forEach(lines::add);
+    try (CsvRecordWriter writer = new CsvRecordWriter(path)) {
+      writer.line(CUSTOMERS_HEADER);
+      for (Customer customer : customers.values()) {
+        writer
+            .field(customer.getCustomerType())
+            .field(customer.getCustomerId())
+            .field(customer.getName())
+            .field(customer.getAge())
+            .field(customer.getContact())
+            .field(customer.getAddress())
+            .field(customer.getEmail())
+            .endRecord();
+      }
+    }
+    customersDelta.reset();
+  }
 
-    Files.write(path, lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+  /**
+   * Appends the changed customers to {@code customers.delta}, or rewrites {@code customers.txt}
+   * once the delta would reach the compaction threshold.
+   *
+   * @param changed customers added or changed since the last save
+   * @param customers every customer, written out when the delta is folded in
+   * @throws IOException if file operations fail
+   */
+  @Override
+  public void saveCustomerChanges(Collection<Customer> changed, HashMap<String, Customer> customers)
+      throws IOException {
+    if (changed.isEmpty()) {
+      return;
+    }
+    if (!Files.exists(Paths.get(customersFile))
+        || customersDelta.size() + changed.size() >= journalCompactionThreshold) {
+      saveCustomers(customers);
+      return;
+    }
+    customersDelta.append(changed.stream().map(this::customerToCsv).toList());
   }
 
   /**
-   * Loads transactions from file using NIO and Stream API. File format:
+   * Loads transactions from file, parsing newline-aligned chunks of it in parallel, followed by any
+   * records still in the journal. File format:
    * transactionId,accountNumber,type,amount,balanceAfter,timestamp
    *
    * @return List of Transaction objects
@@ -146,27 +269,40 @@ public class FilePersistenceService implements PersistenceService {
   @Override
   public List<Transaction> loadTransactions() throws IOException {
     Path path = Paths.get(transactionsFile);
-    if (!Files.exists(path)) {
-      return new ArrayList<>();
+    List<Transaction> transactions = new ArrayList<>();
+
+    if (Files.exists(path)) {
+      transactions = transactionLoader.load(path);
     }
 
-    try (Stream<String> lines = Files.lines(path)) {
-      ArrayList<Transaction> transactions =
-          lines
-              .skip(1) // Skip header
-              .filter(line -> !line.trim().isEmpty())
-              .map(this::parseTransaction)
-              .filter(transaction -> transaction != null)
-              .collect(Collectors.toCollection(ArrayList::new));
-
-      // Restore transaction counter to max ID found
-      updateTransactionCounter(transactions);
-      return transactions;
+    List<String> journalLines = journal.readLines();
+    if (!journalLines.isEmpty()) {
+      // A crash while compacting or saving can leave journal records at the end of the file too;
+      // keep the first copy. Such copies sit among the last records, so only a tail twice the
+      // journal's length is checked instead of every loaded ID.
+      int tailStart = Math.max(0, transactions.size() - 2 * journalLines.size());
+      Set<String> loadedIds = new HashSet<>();
+      for (Transaction transaction : transactions.subList(tailStart, transactions.size())) {
+        loadedIds.add(transaction.getTransactionId());
+      }
+      journalLines.stream()
+          .map(FilePersistenceService::parseTransaction)
+          .filter(transaction -> transaction != null)
+          .filter(transaction -> loadedIds.add(transaction.getTransactionId()))
+          .forEach(transactions::add);
     }
+
+    // Restore transaction counter to max ID found
+    updateTransactionCounter(transactions);
+    return transactions;
   }
 
   /**
-   * Saves transactions to file using NIO.
+   * Saves transactions to file, streaming records through a reusable buffer so memory use does not
+   * grow with the history. The snapshot is written to a temporary file and moved over the old one,
+   * so a crash leaves one complete version. The full snapshot supersedes the journal, which is
+   * emptied under the journal's own lock; records journaled after the caller took its copy of the
+   * history are carried into the snapshot first.
    *
    * @param transactions List of transactions to save
    * @throws IOException if file operations fail
@@ -174,17 +310,88 @@ public class FilePersistenceService implements PersistenceService {
   public void saveTransactions(List<Transaction> transactions) throws IOException {
     Path path = Paths.get(transactionsFile);
     ensureDirectoryExists(path.getParent());
+    Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+    journal.supersede(
+        journalRecords -> {
+          Map<String, String> unsavedRecords = new LinkedHashMap<>();
+          for (String record : journalRecords) {
+            int idEnd = record.indexOf(',');
+            if (idEnd > 0) {
+              unsavedRecords.putIfAbsent(record.substring(0, idEnd), record);
+            }
+          }
+          try (CsvRecordWriter writer = new CsvRecordWriter(temp)) {
+            writer.line(TRANSACTIONS_HEADER);
+            for (Transaction transaction : transactions) {
+              if (!unsavedRecords.isEmpty()) {
+                unsavedRecords.remove(transaction.getTransactionId());
+              }
+              writer
+                  .field(transaction.getTransactionId())
+                  .field(transaction.getAccountNumber())
+                  .field(transaction.getType())
+                  .money(transaction.getAmountCents())
+                  .money(transaction.getBalanceAfterCents())
+                  .timestamp(transaction.getTimestampMillis())
+                  .endRecord();
+            }
+            for (String record : unsavedRecords.values()) {
+              writer.line(record);
+            }
+            writer.force();
+          }
+          Files.move(
+              temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        });
+  }
+
+  /**
+   * Appends transactions to the journal, compacting it into the transactions file once it reaches
+   * the configured threshold.
+   *
+   * @param transactions List of new transactions to append
+   * @throws IOException if file operations fail
+   */
+  @Override
+  public void appendTransactions(List<Transaction> transactions) throws IOException {
+    if (transactions.isEmpty()) {
+      return;
+    }
+    journal.append(transactions.stream().map(this::transactionToCsv).toList());
 
-    List<String> lines = new ArrayList<>();
-    lines.add("transactionId,accountNumber,type,amount,balanceAfter,timestamp");
+    if (journal.size() >= journalCompactionThreshold) {
+      compactJournal();
+    }
+  }
 
-    transactions.stream().map(this::transactionToCsv).forEach(lines::add);
+  /**
+   * Folds all journal records into the transactions file.
+   *
+   * @throws IOException if file operations fail
+   */
+  public void compactJournal() throws IOException {
+    Path path = Paths.get(transactionsFile);
+    ensureDirectoryExists(path.getParent());
+    journal.compactInto(path, TRANSACTIONS_HEADER);
+  }
 
-    Files.write(path, lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+  /**
+   * Loads a file in {@code transactions.txt} format, reading at most {@code limitBytes} bytes.
+   *
+   * @throws IOException if the file cannot be read
+   */
+  List<Transaction> loadTransactionFile(Path path, long limitBytes) throws IOException {
+    return transactionLoader.load(path, limitBytes);
   }
 
   // ==================== HELPER METHODS ====================
 
+  /** Estimates the record count from the file size, so maps need not grow while loading. */
+  private static int expectedRecords(Path path, int minLineBytes) throws IOException {
+    return (int) Math.min(Files.size(path) / minLineBytes, Integer.MAX_VALUE / 2);
+  }
+
   private void ensureDirectoryExists(Path directory) throws IOException {
     if (!Files.exists(directory)) {
       Files.createDirectories(directory);
@@ -227,16 +434,6 @@ public class FilePersistenceService implements PersistenceService {
     }
   }
 
-  private String accountToCsv(Account account) {
-    return String.format(
-        "%s,%s,%s,%.2f,%s",
-        account.getAccountType(),
-        account.getAccountNumber(),
-        account.getCustomer().getCustomerId(),
-        account.getBalance(),
-        account.getStatus());
-  }
-
   private Customer parseCustomer(String line) {
     try {
       String[] parts = line.split(",");
@@ -269,19 +466,7 @@ public class FilePersistenceService implements PersistenceService {
     }
   }
 
-  private String customerToCsv(Customer customer) {
-    return String.format(
-        "%s,%s,%s,%d,%s,%s,%s",
-        customer.getCustomerType(),
-        customer.getCustomerId(),
-        customer.getName(),
-        customer.getAge(),
-        customer.getContact(),
-        customer.getAddress(),
-        customer.getEmail());
-  }
-
-  private Transaction parseTransaction(String line) {
+  static Transaction parseTransaction(String line) {
     try {
       String[] parts = line.split(",");
       if (parts.length < 6) return null;
@@ -304,22 +489,63 @@ public class FilePersistenceService implements PersistenceService {
     }
   }
 
-  private String transactionToCsv(Transaction transaction) {
-    return String.format(
-        "%s,%s,%s,%.2f,%.2f,%s",
-        transaction.getTransactionId(),
-        transaction.getAccountNumber(),
-        transaction.getType(),
-        transaction.getAmount(),
-        transaction.getBalanceAfter(),
-        transaction.getTimestamp());
+  /** Formats an account as one CSV line for the delta file. */
+  private String accountToCsv(Account account) {
+    return new StringBuilder(64)
+        .append(account.getAccountType())
+        .append(',')
+        .append(account.getAccountNumber())
+        .append(',')
+        .append(account.getCustomer().getCustomerId())
+        .append(',')
+        .append(MoneyUtils.format(account.getBalanceCents()))
+        .append(',')
+        .append(account.getStatus())
+        .toString();
   }
 
+  /** Formats a customer as one CSV line for the delta file. */
+  private String customerToCsv(Customer customer) {
+    return new StringBuilder(96)
+        .append(customer.getCustomerType())
+        .append(',')
+        .append(customer.getCustomerId())
+        .append(',')
+        .append(customer.getName())
+        .append(',')
+        .append(customer.getAge())
+        .append(',')
+        .append(customer.getContact())
+        .append(',')
+        .append(customer.getAddress())
+        .append(',')
+        .append(customer.getEmail())
+        .toString();
+  }
+
+  /** Formats a transaction as one CSV line for the journal. */
+  String transactionToCsv(Transaction transaction) {
+    return new StringBuilder(64)
+        .append(transaction.getTransactionId())
+        .append(',')
+        .append(transaction.getAccountNumber())
+        .append(',')
+        .append(transaction.getType())
+        .append(',')
+        .append(MoneyUtils.format(transaction.getAmountCents()))
+        .append(',')
+        .append(MoneyUtils.format(transaction.getBalanceAfterCents()))
+        .append(',')
+        .append(transaction.getTimestamp())
+        .toString();
+  }
+
+
   /**
    * Updates the customer counter based on loaded customers. Extracts the numeric part from customer
    * IDs and sets counter to max.
    */
-  private void updateCustomerCounter(HashMap<String, Customer> customers) {
+  static void updateCustomerCounter(HashMap<String, Customer> customers) {
     int maxId =
         customers.keySet().stream()
             .map(id -> id.replace("CUS", ""))
@@ -334,7 +560,7 @@ public class FilePersistenceService implements PersistenceService {
    * Updates the account counter based on loaded accounts. Extracts the numeric part from account
    * numbers and sets counter to max.
    */
-  private void updateAccountCounter(HashMap<String, Account> accounts) {
+  static void updateAccountCounter(HashMap<String, Account> accounts) {
     int maxId =
         accounts.keySet().stream()
             .map(id -> id.replace("ACC", ""))
@@ -349,15 +575,29 @@ public class FilePersistenceService implements PersistenceService {
    * Updates the transaction counter based on loaded transactions. Extracts the numeric part from
    * transaction IDs and sets counter to max.
    */
-  private void updateTransactionCounter(ArrayList<Transaction> transactions) {
+  static void updateTransactionCounter(List<Transaction> transactions) {
     int maxId =
-        transactions.stream()
-            .map(Transaction::getTransactionId)
-            .map(id -> id.replace("TXN", ""))
-            .filter(numStr -> numStr.matches("\\d+"))
-            .mapToInt(Integer::parseInt)
+        transactions.parallelStream()
+            .mapToInt(transaction -> idNumber(transaction.getTransactionId()))
             .max()
             .orElse(0);
     Transaction.setTransactionCounter(maxId);
   }
+
+  /** Returns the number in a {@code TXN<digits>} ID, or 0 for IDs of any other form. */
+  static int idNumber(String transactionId) {
+    String digits = transactionId.replace("TXN", "");
+    if (digits.isEmpty() || digits.length() > 9) {
+      return 0;
+    }
+    int number = 0;
+    for (int i = 0; i < digits.length(); i++) {
+      char c = digits.charAt(i);
+      if (c < '0' || c > '9') {
+        return 0;
+      }
+      number = number * 10 + (c - '0');
+    }
+    return number;
+  }
 }
@@ -4,8 +4,10 @@ import com.amalitech.models.Account;
 import com.amalitech.models.Customer;
 import com.amalitech.models.Transaction;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface for persisting and loading bank data. This abstraction allows for different storage
@@ -25,10 +27,23 @@ public interface PersistenceService {
   /**
    * Saves accounts to storage.
    *
-   * @param accounts HashMap of accounts to save
+   * @param accounts Map of accounts to save
    * @throws IOException if storage operations fail
    */
-  void saveAccounts(HashMap<String, Account> accounts) throws IOException;
+  void saveAccounts(Map<String, Account> accounts) throws IOException;
+
+  /**
+   * Persists the accounts added or changed since the last save. Storage without incremental
+   * support rewrites every account.
+   *
+   * @param changed accounts added or changed since the last save
+   * @param accounts every account, for storage that rewrites the full set
+   * @throws IOException if storage operations fail
+   */
+  default void saveAccountChanges(Collection<Account> changed, Map<String, Account> accounts)
+      throws IOException {
+    saveAccounts(accounts);
+  }
 
   /**
    * Loads customers from storage.
@@ -46,6 +61,27 @@ public interface PersistenceService {
    */
   void saveCustomers(HashMap<String, Customer> customers) throws IOException;
 
+  /**
+   * Persists the customers added or changed since the last save. Storage without incremental
+   * support rewrites every customer.
+   *
+   * @param changed customers added or changed since the last save
+   * @param customers every customer, for storage that rewrites the full set
+   * @throws IOException if storage operations fail
+   */
+  default void saveCustomerChanges(
+      Collection<Customer> changed, HashMap<String, Customer> customers) throws IOException {
+    saveCustomers(customers);
+  }
+
+  /**
+   * Returns the older history that {@link #loadTransactions()} left on disk, as of the last load.
+   * Storage that loads the whole history returns null.
+   */
+  default ColdSegments getColdSegments() {
+    return null;
+  }
+
   /**
    * Loads transactions from storage.
    *
@@ -61,4 +97,12 @@ public interface PersistenceService {
    * @throws IOException if storage operations fail
    */
   void saveTransactions(List<Transaction> transactions) throws IOException;
+
+  /**
+   * Appends newly recorded transactions to storage without rewriting existing history.
+   *
+   * @param transactions List of new transactions, in the order they were recorded
+   * @throws IOException if storage operations fail
+   */
+  void appendTransactions(List<Transaction> transactions) throws IOException;
 }
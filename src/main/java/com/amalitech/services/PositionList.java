@@ -0,0 +1,96 @@
+package com.amalitech.services;
+
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Growable array of positions into a transaction store. Indexes hold positions rather than object
+ * references so they stay compact when the store does not keep {@code Transaction} objects.
+ */
+final class PositionList {
+
+  private int[] positions = new int[8];
+  private int size;
+
+  int size() {
+    return size;
+  }
+
+  int get(int index) {
+    return positions[index];
+  }
+
+  int getLast() {
+    return positions[size - 1];
+  }
+
+  void add(int position) {
+    ensureCapacity(size + 1);
+    positions[size++] = position;
+  }
+
+  void insert(int index, int position) {
+    ensureCapacity(size + 1);
+    System.arraycopy(positions, index, positions, index + 1, size - index);
+    positions[index] = position;
+    size++;
+  }
+
+  void clear() {
+    size = 0;
+  }
+
+  /**
+   * Stably sorts the positions by the given key. Input that is already in order, the common case
+   * for a history loaded from file, is detected in one pass and left untouched.
+   */
+  void sort(IntToLongFunction key) {
+    if (isSorted(key)) {
+      return;
+    }
+    int[] source = positions;
+    int[] target = new int[positions.length];
+    for (int width = 1; width < size; width *= 2) {
+      for (int low = 0; low < size; low += 2 * width) {
+        int mid = Math.min(low + width, size);
+        int high = Math.min(low + 2 * width, size);
+        merge(source, target, low, mid, high, key);
+      }
+      int[] swap = source;
+      source = target;
+      target = swap;
+    }
+    positions = source;
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  private boolean isSorted(IntToLongFunction key) {
+    for (int i = 1; i < size; i++) {
+      if (key.applyAsLong(positions[i - 1]) > key.applyAsLong(positions[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void merge(
+      int[] source, int[] target, int low, int mid, int high, IntToLongFunction key) {
+    int left = low;
+    int right = mid;
+    for (int out = low; out < high; out++) {
+      if (right >= high
+          || (left < mid && key.applyAsLong(source[left]) <= key.applyAsLong(source[right]))) {
+        target[out] = source[left++];
+      } else {
+        target[out] = source[right++];
+      }
+    }
+  }
+
+  private void ensureCapacity(int required) {
+    if (required > positions.length) {
+      positions = Arrays.copyOf(positions, Math.max(required, positions.length * 2));
+    }
+  }
+}
@@ -0,0 +1,295 @@
+package com.amalitech.services;
+
+import com.amalitech.models.Account;
+import com.amalitech.models.Transaction;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkpoint-plus-replay recovery for account balances. Transactions reach the journal as they
+ * happen, but balances only reach {@code accounts.txt} when data is saved, so after a crash the two
+ * disagree. A checkpoint records every balance together with the last transaction in the history;
+ * on startup the balances are restored from it and only the transactions recorded after it are
+ * replayed, so restart work is bounded by the checkpoint interval rather than the history.
+ *
+ * <p>Replay starts from each account's checkpoint balance and adds the signed amount of every
+ * later transaction, so the result does not depend on the order in which concurrent recorders
+ * appended them. Replay is exact only if a checkpoint's balances contain precisely the
+ * transactions up to its tag. Balances read from live accounts cannot promise that while requests
+ * are in flight, so once {@link #recover()} has established a baseline, each checkpoint is derived
+ * from the previous one plus the history recorded since.
+ *
+ * <p>The checkpoint file is written through a {@link ChecksummedRecordLog}, so each record carries
+ * a CRC32, and it replaces the previous checkpoint with an atomic rename; a torn or incomplete
+ * checkpoint is ignored.
+ */
+public class RecoveryService implements AutoCloseable {
+
+  public static final String DEFAULT_CHECKPOINT_FILE = "src/main/resources/data/checkpoint.txt";
+
+  private static final String HEADER = "CHECKPOINT";
+
+  private final AccountManager accountManager;
+  private final TransactionManager transactionManager;
+  private final Path checkpointFile;
+  private final Object checkpointLock = new Object();
+  private ScheduledExecutorService scheduler; // guarded by checkpointLock
+  // Balances that match the history exactly up to the tag; null until the first checkpoint
+  private Checkpoint baseline; // guarded by checkpointLock
+
+  public RecoveryService(AccountManager accountManager, TransactionManager transactionManager) {
+    this(accountManager, transactionManager, Paths.get(DEFAULT_CHECKPOINT_FILE));
+  }
+
+  public RecoveryService(
+      AccountManager accountManager, TransactionManager transactionManager, Path checkpointFile) {
+    this.accountManager = accountManager;
+    this.transactionManager = transactionManager;
+    this.checkpointFile = checkpointFile;
+  }
+
+  /**
+   * Writes a checkpoint of every account balance, tagged with the last transaction it includes.
+   * After a baseline exists, balances are the previous checkpoint's plus the signed amounts
+   * recorded since, so they match the tag exactly. Accounts opened since then start from the
+   * balance before their first recorded transaction, or their current balance if they have none.
+   * Without a baseline the live balances are taken, which is exact only while no request is in
+   * flight.
+   *
+   * @throws IOException if the checkpoint cannot be written
+   */
+  public void checkpoint() throws IOException {
+    synchronized (checkpointLock) {
+      Checkpoint next = baseline == null ? null : advance(baseline);
+      if (next == null) {
+        next = liveSnapshot();
+      }
+      List<String> records = new ArrayList<>(next.balanceCents.size() + 1);
+      records.add(
+          HEADER
+              + ","
+              + (next.lastTransactionId == null ? "" : next.lastTransactionId)
+              + ","
+              + next.balanceCents.size());
+      next.balanceCents.forEach(
+          (accountNumber, balanceCents) -> records.add(accountNumber + "," + balanceCents));
+
+      Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+      Files.deleteIfExists(temp);
+      try (ChecksummedRecordLog writer = new ChecksummedRecordLog(temp)) {
+        writer.append(records);
+      }
+      Files.move(
+          temp,
+          checkpointFile,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      baseline = next;
+    }
+  }
+
+  /**
+   * Restores balances from the checkpoint and replays the transactions recorded after it. Call
+   * once accounts and transactions have been loaded, before requests are accepted. Without a
+   * usable checkpoint the loaded balances are kept. Either way the resulting balances become the
+   * baseline later checkpoints are derived from. Accounts missing from the checkpoint were opened
+   * after it; their opening balance is not in the history, so they keep their loaded balance and
+   * are reported.
+   *
+   * @return the number of transactions replayed, or -1 if there was no usable checkpoint
+   */
+  public int recover() {
+    synchronized (checkpointLock) {
+      int replayed = replay();
+      baseline = liveSnapshot();
+      return replayed;
+    }
+  }
+
+  /**
+   * Writes a checkpoint every {@code intervalSeconds} on a background thread until {@link #close()}
+   * is called. Does nothing if periodic checkpoints are already running.
+   */
+  public void startPeriodicCheckpoints(long intervalSeconds) {
+    if (intervalSeconds <= 0) {
+      throw new IllegalArgumentException("Checkpoint interval must be positive.");
+    }
+    synchronized (checkpointLock) {
+      if (scheduler != null) {
+        return;
+      }
+      scheduler =
+          Executors.newSingleThreadScheduledExecutor(
+              task -> {
+                Thread thread = new Thread(task, "checkpoint");
+                thread.setDaemon(true);
+                return thread;
+              });
+      scheduler.scheduleWithFixedDelay(
+          this::checkpointQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+  }
+
+  /** Stops periodic checkpoints and writes a final checkpoint. */
+  @Override
+  public void close() {
+    ScheduledExecutorService running;
+    synchronized (checkpointLock) {
+      running = scheduler;
+      scheduler = null;
+    }
+    if (running != null) {
+      running.shutdown();
+      try {
+        running.awaitTermination(1, TimeUnit.MINUTES);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    checkpointQuietly();
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  private int replay() {
+    Checkpoint checkpoint;
+    try {
+      checkpoint = readCheckpoint();
+    } catch (IOException e) {
+      System.err.println("Warning: Could not read checkpoint: " + e.getMessage());
+      return -1;
+    }
+    if (checkpoint == null) {
+      return -1;
+    }
+    List<Transaction> tail = transactionManager.getTransactionsAfter(checkpoint.lastTransactionId);
+    if (tail == null) {
+      System.err.println(
+          "Warning: Checkpoint does not match the transaction history. Keeping loaded balances.");
+      return -1;
+    }
+
+    Map<String, Long> balances = new HashMap<>(checkpoint.balanceCents);
+    Set<String> opened = new TreeSet<>();
+    for (Transaction transaction : tail) {
+      String accountNumber = transaction.getAccountNumber();
+      if (balances.containsKey(accountNumber)) {
+        balances.merge(accountNumber, signedCents(transaction), Long::sum);
+      } else {
+        opened.add(accountNumber);
+      }
+    }
+    Map<String, Account> accounts = accountManager.getAccounts();
+    balances.forEach(
+        (accountNumber, balanceCents) -> {
+          Account account = accounts.get(accountNumber);
+          if (account != null) {
+            account.setBalanceCents(balanceCents);
+          }
+        });
+    opened.retainAll(accounts.keySet());
+    if (!opened.isEmpty()) {
+      System.err.println(
+          "Warning: Accounts opened after the checkpoint keep their loaded balance: "
+              + String.join(", ", opened));
+    }
+    return tail.size();
+  }
+
+  /**
+   * Returns the checkpoint that follows {@code previous} by adding the transactions recorded since
+   * its tag, or null if the history no longer contains that tag.
+   */
+  private Checkpoint advance(Checkpoint previous) {
+    List<Transaction> tail = transactionManager.getTransactionsAfter(previous.lastTransactionId);
+    if (tail == null) {
+      return null;
+    }
+    Map<String, Long> balances = new TreeMap<>(previous.balanceCents);
+    for (Transaction transaction : tail) {
+      String accountNumber = transaction.getAccountNumber();
+      if (!balances.containsKey(accountNumber)) {
+        // Opened since the previous checkpoint: start from the balance before this transaction
+        balances.put(accountNumber, transaction.getBalanceAfterCents() - signedCents(transaction));
+      }
+      balances.merge(accountNumber, signedCents(transaction), Long::sum);
+    }
+    for (Account account : accountManager.getAccountsSnapshot()) {
+      balances.putIfAbsent(account.getAccountNumber(), account.getBalanceCents());
+    }
+    String lastTransactionId =
+        tail.isEmpty() ? previous.lastTransactionId : tail.getLast().getTransactionId();
+    return new Checkpoint(lastTransactionId, balances);
+  }
+
+  /** Returns the live balances tagged with the last transaction in the history. */
+  private Checkpoint liveSnapshot() {
+    String lastTransactionId = transactionManager.getLastTransactionId();
+    Map<String, Long> balances = new TreeMap<>();
+    for (Account account : accountManager.getAccountsSnapshot()) {
+      balances.put(account.getAccountNumber(), account.getBalanceCents());
+    }
+    return new Checkpoint(lastTransactionId, balances);
+  }
+
+  /** Returns the amount a transaction added to its account's balance, negative for debits. */
+  private static long signedCents(Transaction transaction) {
+    return switch (transaction.getType()) {
+      case DEPOSIT, TRANSFER_IN -> transaction.getAmountCents();
+      case WITHDRAWAL, TRANSFER_OUT -> -transaction.getAmountCents();
+    };
+  }
+
+  private void checkpointQuietly() {
+    try {
+      checkpoint();
+    } catch (IOException e) {
+      System.err.println("Error writing checkpoint: " + e.getMessage());
+    }
+  }
+
+  /** Reads the checkpoint, or returns null if there is none or it is incomplete. */
+  private Checkpoint readCheckpoint() throws IOException {
+    if (!Files.exists(checkpointFile)) {
+      return null;
+    }
+    List<String> records;
+    try (ChecksummedRecordLog reader = new ChecksummedRecordLog(checkpointFile)) {
+      records = reader.readLines();
+    }
+    String[] header = records.isEmpty() ? new String[0] : records.get(0).split(",", -1);
+    if (header.length != 3
+        || !HEADER.equals(header[0])
+        || !String.valueOf(records.size() - 1).equals(header[2])) {
+      System.err.println("Warning: Ignoring incomplete checkpoint " + checkpointFile.getFileName());
+      return null;
+    }
+
+    Map<String, Long> balanceCents = new HashMap<>();
+    for (String record : records.subList(1, records.size())) {
+      String[] fields = record.split(",");
+      try {
+        balanceCents.put(fields[0], Long.parseLong(fields[1]));
+      } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+        System.err.println("Warning: Ignoring malformed checkpoint record: " + record);
+        return null;
+      }
+    }
+    return new Checkpoint(header[1].isEmpty() ? null : header[1], balanceCents);
+  }
+
+  private record Checkpoint(String lastTransactionId, Map<String, Long> balanceCents) {}
+}
@@ -0,0 +1,235 @@
+package com.amalitech.services;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.Transaction;
+import com.amalitech.utils.MoneyUtils;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compressed file format for closed transaction segments. Account numbers are replaced by indexes
+ * into a dictionary stored once per file and types by their ordinal; amounts and balances are
+ * stored as variable-length cents and timestamps as deltas from the previous record. Records are
+ * sorted by timestamp and deflated in blocks, each framed with its record count, time span and
+ * compressed length, so a range read inflates only the blocks that overlap the range and stops at
+ * the first block past it.
+ *
+ * <p>Layout: magic (int), version (short), dictionary size (int), account numbers (modified UTF-8),
+ * block count (int), then per block: record count (int), first and last timestamp (long),
+ * compressed length (int) and the deflated records. A record is the transaction ID (modified
+ * UTF-8) followed by the account index, type ordinal, amount cents, balance cents and timestamp
+ * delta as zig-zag varints.
+ */
+final class SegmentArchive {
+
+  static final int BLOCK_RECORDS = 4096;
+
+  private static final int MAGIC = 0x42414D5A; // "BAMZ"
+  private static final short FORMAT_VERSION = 1;
+  private static final TransactionType[] TYPES = TransactionType.values();
+
+  private SegmentArchive() {}
+
+  /**
+   * Writes the transactions to the file, replacing it, and forces it to disk.
+   *
+   * @return the length of the file
+   * @throws IOException if the file cannot be written
+   */
+  static long write(Path file, List<Transaction> transactions) throws IOException {
+    List<Transaction> sorted = new ArrayList<>(transactions);
+    sorted.sort(Comparator.comparingLong(Transaction::getTimestampMillis));
+    Map<String, Integer> dictionary = new LinkedHashMap<>();
+    for (Transaction transaction : sorted) {
+      dictionary.putIfAbsent(transaction.getAccountNumber(), dictionary.size());
+    }
+
+    try (FileChannel channel =
+            FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+      out.writeInt(MAGIC);
+      out.writeShort(FORMAT_VERSION);
+      out.writeInt(dictionary.size());
+      for (String accountNumber : dictionary.keySet()) {
+        out.writeUTF(accountNumber);
+      }
+      out.writeInt((sorted.size() + BLOCK_RECORDS - 1) / BLOCK_RECORDS);
+
+      Deflater deflater = new Deflater();
+      try {
+        ByteArrayOutputStream block = new ByteArrayOutputStream();
+        for (int start = 0; start < sorted.size(); start += BLOCK_RECORDS) {
+          List<Transaction> records =
+              sorted.subList(start, Math.min(start + BLOCK_RECORDS, sorted.size()));
+          block.reset();
+          deflater.reset();
+          try (DataOutputStream raw =
+              new DataOutputStream(new DeflaterOutputStream(block, deflater))) {
+            writeBlock(raw, records, dictionary);
+          }
+          out.writeInt(records.size());
+          out.writeLong(records.get(0).getTimestampMillis());
+          out.writeLong(records.get(records.size() - 1).getTimestampMillis());
+          out.writeInt(block.size());
+          block.writeTo(out);
+        }
+      } finally {
+        deflater.end();
+      }
+      out.flush();
+      channel.force(true);
+      return channel.size();
+    }
+  }
+
+  /**
+   * Reads every record, oldest first.
+   *
+   * @throws IOException if the file cannot be read or is not an archive
+   */
+  static List<Transaction> read(Path file) throws IOException {
+    return read(file, Long.MIN_VALUE, Long.MAX_VALUE);
+  }
+
+  /**
+   * Reads records with timestamps in {@code [fromMillis, toMillis)}, oldest first, inflating only
+   * the blocks that overlap the range.
+   *
+   * @throws IOException if the file cannot be read or is not an archive
+   */
+  static List<Transaction> read(Path file, long fromMillis, long toMillis) throws IOException {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readShort() != FORMAT_VERSION) {
+        throw new IOException("Not a transaction archive: " + file.getFileName());
+      }
+      String[] dictionary = new String[in.readInt()];
+      for (int i = 0; i < dictionary.length; i++) {
+        dictionary[i] = in.readUTF();
+      }
+
+      List<Transaction> transactions = new ArrayList<>();
+      int blocks = in.readInt();
+      Inflater inflater = new Inflater();
+      try {
+        for (int b = 0; b < blocks; b++) {
+          int count = in.readInt();
+          long firstMillis = in.readLong();
+          long lastMillis = in.readLong();
+          int length = in.readInt();
+          if (firstMillis >= toMillis) {
+            break;
+          }
+          if (lastMillis < fromMillis) {
+            in.skipNBytes(length);
+            continue;
+          }
+          byte[] compressed = in.readNBytes(length);
+          inflater.reset();
+          InputStream block =
+              new InflaterInputStream(new ByteArrayInputStream(compressed), inflater);
+          readBlock(
+              new DataInputStream(block), count, dictionary, fromMillis, toMillis, transactions);
+        }
+      } finally {
+        inflater.end();
+      }
+      return transactions;
+    }
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  private static void writeBlock(
+      DataOutput out, List<Transaction> records, Map<String, Integer> dictionary)
+      throws IOException {
+    long previousMillis = 0;
+    for (Transaction transaction : records) {
+      out.writeUTF(transaction.getTransactionId());
+      writeVarLong(out, dictionary.get(transaction.getAccountNumber()));
+      out.writeByte(transaction.getType().ordinal());
+      writeVarLong(out, transaction.getAmountCents());
+      writeVarLong(out, transaction.getBalanceAfterCents());
+      writeVarLong(out, transaction.getTimestampMillis() - previousMillis);
+      previousMillis = transaction.getTimestampMillis();
+    }
+  }
+
+  private static void readBlock(
+      DataInput in,
+      int count,
+      String[] dictionary,
+      long fromMillis,
+      long toMillis,
+      List<Transaction> transactions)
+      throws IOException {
+    long timestampMillis = 0;
+    for (int i = 0; i < count; i++) {
+      String transactionId = in.readUTF();
+      String accountNumber = dictionary[(int) readVarLong(in)];
+      TransactionType type = TYPES[in.readUnsignedByte()];
+      long amountCents = readVarLong(in);
+      long balanceCents = readVarLong(in);
+      timestampMillis += readVarLong(in);
+      if (timestampMillis >= fromMillis && timestampMillis < toMillis) {
+        transactions.add(
+            new Transaction(
+                transactionId,
+                accountNumber,
+                type,
+                MoneyUtils.toAmount(amountCents),
+                MoneyUtils.toAmount(balanceCents),
+                timestampMillis));
+      }
+    }
+  }
+
+  /** Writes a zig-zag encoded varint, seven bits per byte. */
+  private static void writeVarLong(DataOutput out, long value) throws IOException {
+    long zigZag = (value << 1) ^ (value >> 63);
+    while ((zigZag & ~0x7FL) != 0) {
+      out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+      zigZag >>>= 7;
+    }
+    out.writeByte((int) zigZag);
+  }
+
+  private static long readVarLong(DataInput in) throws IOException {
+    long zigZag = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = in.readUnsignedByte();
+      zigZag |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+      }
+    }
+    throw new IOException("Malformed varint in transaction archive");
+  }
+}
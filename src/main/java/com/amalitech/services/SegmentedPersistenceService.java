@@ -0,0 +1,657 @@
+package com.amalitech.services;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.Account;
+import com.amalitech.models.Customer;
+import com.amalitech.models.Transaction;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * Persistence service that keeps transactions in one CSV file per calendar month, described by a
+ * small manifest, and loads only the most recent months at startup. Older months stay on disk
+ * behind a {@link ColdSegments} view that reads them on demand into a bounded cache. Accounts and
+ * customers are stored exactly as by {@link FilePersistenceService}.
+ *
+ * <p>New transactions go to a journal first and are folded into their month's segment in batches.
+ * A fold appends to the segment files and then replaces the manifest, which records each segment's
+ * committed length, record count, time span, largest ID, per-type totals and the accounts it has
+ * records for, so per-account queries read only those months. Bytes past the
+ * committed length, left by a crash mid-fold, are ignored on read and cut off by the next fold. On
+ * first start the existing {@code transactions.txt} is split into segments.
+ *
+ * <p>With archiving enabled, months older than the hot window are closed: each is rewritten once
+ * as a compressed {@link SegmentArchive}, the manifest records the archive's length, and the CSV
+ * file is removed. A late record for a closed month reopens it as CSV until the next load.
+ */
+public class SegmentedPersistenceService implements PersistenceService {
+
+  public static final int DEFAULT_HOT_MONTHS = 3;
+  public static final int DEFAULT_CACHED_SEGMENTS = 4;
+
+  private static final int JOURNAL_COMPACTION_THRESHOLD = 1_000;
+  private static final TransactionType[] TYPES = TransactionType.values();
+  private static final String MANIFEST_HEADER = manifestHeader();
+  private static final String JOURNAL_MARKER = "journal";
+
+  private final FilePersistenceService files;
+  private final Path segmentDirectory;
+  private final Path manifestFile;
+  private final ChecksummedRecordLog journal;
+  private final int hotMonths;
+  private final int cachedSegments;
+  private final boolean archiveClosedSegments;
+  private final ZoneId zone = ZoneId.systemDefault();
+
+  private final TreeMap<YearMonth, Segment> segments = new TreeMap<>(); // guarded by this
+  private boolean manifestLoaded; // guarded by this
+  // Size and checksum of the journal contents folded by the last fold, to skip them if a crash
+  // left them in the journal after the manifest was written; guarded by this
+  private int foldedRecords;
+  private long foldedChecksum;
+  private volatile ColdSegments coldSegments;
+
+  /** Default constructor using production data directory. */
+  public SegmentedPersistenceService() {
+    this("src/main/resources/data/");
+  }
+
+  /** Constructor with custom data directory (for testing). */
+  public SegmentedPersistenceService(String dataDirectory) {
+    this(dataDirectory, DEFAULT_HOT_MONTHS, DEFAULT_CACHED_SEGMENTS);
+  }
+
+  /**
+   * Creates a service storing segments under {@code segments/} in the data directory.
+   *
+   * @param dataDirectory directory holding the data files
+   * @param hotMonths number of most recent months loaded at startup
+   * @param cachedSegments number of older months kept in memory once read
+   */
+  public SegmentedPersistenceService(String dataDirectory, int hotMonths, int cachedSegments) {
+    this(dataDirectory, hotMonths, cachedSegments, false);
+  }
+
+  /**
+   * Creates a service storing segments under {@code segments/} in the data directory.
+   *
+   * @param dataDirectory directory holding the data files
+   * @param hotMonths number of most recent months loaded at startup
+   * @param cachedSegments number of older months kept in memory once read
+   * @param archiveClosedSegments whether months older than the hot ones are stored compressed
+   */
+  public SegmentedPersistenceService(
+      String dataDirectory, int hotMonths, int cachedSegments, boolean archiveClosedSegments) {
+    if (hotMonths <= 0 || cachedSegments <= 0) {
+      throw new IllegalArgumentException("Hot months and cached segments must be positive.");
+    }
+    this.files = new FilePersistenceService(dataDirectory);
+    this.segmentDirectory = Paths.get(dataDirectory, "segments");
+    this.manifestFile = segmentDirectory.resolve("manifest.txt");
+    this.journal = new ChecksummedRecordLog(segmentDirectory.resolve("transactions.journal"));
+    this.hotMonths = hotMonths;
+    this.cachedSegments = cachedSegments;
+    this.archiveClosedSegments = archiveClosedSegments;
+  }
+
+  @Override
+  public HashMap<String, Account> loadAccounts(HashMap<String, Customer> customers)
+      throws IOException {
+    return files.loadAccounts(customers);
+  }
+
+  @Override
+  public void saveAccounts(Map<String, Account> accounts) throws IOException {
+    files.saveAccounts(accounts);
+  }
+
+  @Override
+  public void saveAccountChanges(Collection<Account> changed, Map<String, Account> accounts)
+      throws IOException {
+    files.saveAccountChanges(changed, accounts);
+  }
+
+  @Override
+  public HashMap<String, Customer> loadCustomers() throws IOException {
+    return files.loadCustomers();
+  }
+
+  @Override
+  public void saveCustomers(HashMap<String, Customer> customers) throws IOException {
+    files.saveCustomers(customers);
+  }
+
+  @Override
+  public void saveCustomerChanges(Collection<Customer> changed, HashMap<String, Customer> customers)
+      throws IOException {
+    files.saveCustomerChanges(changed, customers);
+  }
+
+  @Override
+  public ColdSegments getColdSegments() {
+    return coldSegments;
+  }
+
+  /**
+   * Loads the most recent months of transactions and leaves the older months to the view returned
+   * by {@link #getColdSegments()}, archiving any that are not archived yet if archiving is on. The
+   * transaction counter is restored from the manifest, so it also covers months that were not read.
+   *
+   * @return the transactions of the hot months, month by month in file order
+   * @throws IOException if the manifest or a hot segment cannot be read
+   */
+  @Override
+  public synchronized List<Transaction> loadTransactions() throws IOException {
+    foldJournal();
+
+    YearMonth hotStart = segments.isEmpty() ? null : segments.lastKey().minusMonths(hotMonths - 1);
+    if (archiveClosedSegments && hotStart != null) {
+      archiveSegmentsBefore(hotStart);
+    }
+    List<Transaction> hot = new ArrayList<>();
+    List<Segment> cold = new ArrayList<>();
+    int maxId = 0;
+    for (Segment segment : segments.values()) {
+      if (hotStart != null && !segment.month().isBefore(hotStart)) {
+        hot.addAll(readSegment(segment));
+      } else {
+        cold.add(segment);
+      }
+      maxId = Math.max(maxId, segment.maxId());
+    }
+    Transaction.setTransactionCounter(maxId);
+
+    long coldBeforeMillis = hotStart == null ? Long.MIN_VALUE : startMillis(hotStart);
+    coldSegments = new ColdSegments(cold, coldBeforeMillis, cachedSegments, segmentReader());
+    return hot;
+  }
+
+  /**
+   * Rewrites every segment and the manifest from the given history and empties the journal. A
+   * view from an earlier load no longer matches the files, so load again afterwards.
+   *
+   * @param transactions the full history
+   * @throws IOException if file operations fail
+   */
+  @Override
+  public synchronized void saveTransactions(List<Transaction> transactions) throws IOException {
+    if (!manifestLoaded && Files.exists(manifestFile)) {
+      // Learn which segment files exist so months no longer present can be removed
+      loadManifest();
+    }
+    Files.createDirectories(segmentDirectory);
+    TreeMap<YearMonth, List<Transaction>> byMonth = groupByMonth(transactions);
+
+    List<YearMonth> removed =
+        segments.keySet().stream().filter(month -> !byMonth.containsKey(month)).toList();
+    List<YearMonth> archived =
+        segments.values().stream().filter(Segment::isArchived).map(Segment::month).toList();
+    segments.clear();
+    for (Map.Entry<YearMonth, List<Transaction>> entry : byMonth.entrySet()) {
+      Path file = segmentFile(entry.getKey());
+      long bytes = writeSegment(file, entry.getValue());
+      segments.put(entry.getKey(), Segment.empty(entry.getKey()).with(entry.getValue(), bytes));
+    }
+    manifestLoaded = true;
+    foldedRecords = 0;
+    foldedChecksum = 0;
+    writeManifest();
+    journal.reset();
+    // Old files go only once the manifest no longer refers to them
+    for (YearMonth month : removed) {
+      Files.deleteIfExists(segmentFile(month));
+    }
+    for (YearMonth month : archived) {
+      Files.deleteIfExists(archiveFile(month));
+    }
+  }
+
+  /**
+   * Appends transactions to the journal, folding it into the segments once it reaches the
+   * compaction threshold.
+   *
+   * @param transactions List of new transactions to append
+   * @throws IOException if file operations fail
+   */
+  @Override
+  public void appendTransactions(List<Transaction> transactions) throws IOException {
+    if (transactions.isEmpty()) {
+      return;
+    }
+    journal.append(transactions.stream().map(files::transactionToCsv).toList());
+
+    if (journal.size() >= JOURNAL_COMPACTION_THRESHOLD) {
+      foldJournal();
+    }
+  }
+
+  /**
+   * Moves every journal record into the segment for its month and commits the new segment lengths
+   * in the manifest.
+   *
+   * @throws IOException if file operations fail
+   */
+  public synchronized void foldJournal() throws IOException {
+    loadManifest();
+    journal.compact(this::foldRecords);
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  /** Reads the manifest, or on first start splits the existing transactions file into segments. */
+  private void loadManifest() throws IOException {
+    if (manifestLoaded) {
+      return;
+    }
+    if (!Files.exists(manifestFile)) {
+      saveTransactions(files.loadTransactions());
+      return;
+    }
+
+    segments.clear();
+    List<String> lines = Files.readAllLines(manifestFile, StandardCharsets.UTF_8);
+    for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+      String[] fields = line.split(",");
+      try {
+        if (fields[0].equals(JOURNAL_MARKER)) {
+          foldedRecords = Integer.parseInt(fields[1]);
+          foldedChecksum = Long.parseLong(fields[2]);
+        } else {
+          Segment segment = Segment.parse(fields);
+          segments.put(segment.month(), segment);
+        }
+      } catch (RuntimeException e) {
+        throw new IOException("Malformed manifest line: " + line, e);
+      }
+    }
+    manifestLoaded = true;
+  }
+
+  /** Appends journal records to their month's segment and commits them in the manifest. */
+  private void foldRecords(List<String> records) throws IOException {
+    int skip = 0;
+    if (foldedRecords > 0
+        && records.size() >= foldedRecords
+        && checksum(records.subList(0, foldedRecords)) == foldedChecksum) {
+      // Already in the segments: the last fold stopped after writing the manifest
+      skip = foldedRecords;
+    }
+    List<Transaction> pending = new ArrayList<>(records.size() - skip);
+    for (String record : records.subList(skip, records.size())) {
+      Transaction transaction = FilePersistenceService.parseTransaction(record);
+      if (transaction != null) {
+        pending.add(transaction);
+      }
+    }
+
+    Files.createDirectories(segmentDirectory);
+    List<YearMonth> reopened = new ArrayList<>();
+    for (Map.Entry<YearMonth, List<Transaction>> entry : groupByMonth(pending).entrySet()) {
+      YearMonth month = entry.getKey();
+      Segment segment = segments.getOrDefault(month, Segment.empty(month));
+      long bytes;
+      if (segment.isArchived()) {
+        // A late record for a closed month: write the month back out as CSV
+        List<Transaction> all = new ArrayList<>(SegmentArchive.read(archiveFile(month)));
+        all.addAll(entry.getValue());
+        bytes = writeSegment(segmentFile(month), all);
+        reopened.add(month);
+      } else {
+        bytes = appendToSegment(segmentFile(month), segment.bytes(), entry.getValue());
+      }
+      segments.put(month, segment.with(entry.getValue(), bytes));
+    }
+    foldedRecords = records.size();
+    foldedChecksum = checksum(records);
+    writeManifest();
+    for (YearMonth month : reopened) {
+      Files.deleteIfExists(archiveFile(month));
+    }
+  }
+
+  /**
+   * Compresses every month before {@code hotStart} that is still stored as CSV, commits the
+   * archive lengths in the manifest and then removes the CSV files.
+   */
+  private void archiveSegmentsBefore(YearMonth hotStart) throws IOException {
+    List<Segment> closed = new ArrayList<>();
+    for (Segment segment : segments.headMap(hotStart).values()) {
+      if (segment.isArchived()) {
+        // Left behind if a crash followed the manifest update
+        Files.deleteIfExists(segmentFile(segment.month()));
+      } else {
+        closed.add(segment);
+      }
+    }
+    if (closed.isEmpty()) {
+      return;
+    }
+    for (Segment segment : closed) {
+      Path archive = archiveFile(segment.month());
+      Path temp = archive.resolveSibling(archive.getFileName() + ".tmp");
+      long archiveBytes = SegmentArchive.write(temp, readSegment(segment));
+      Files.move(
+          temp, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      segments.put(segment.month(), segment.archived(archiveBytes));
+    }
+    writeManifest();
+    for (Segment segment : closed) {
+      Files.deleteIfExists(segmentFile(segment.month()));
+    }
+  }
+
+  /** Writes a complete CSV segment file and returns its length. */
+  private long writeSegment(Path file, List<Transaction> transactions) throws IOException {
+    try (CsvRecordWriter writer = new CsvRecordWriter(file)) {
+      writer.line(FilePersistenceService.TRANSACTIONS_HEADER);
+      for (Transaction transaction : transactions) {
+        writer
+            .field(transaction.getTransactionId())
+            .field(transaction.getAccountNumber())
+            .field(transaction.getType())
+            .money(transaction.getAmountCents())
+            .money(transaction.getBalanceAfterCents())
+            .timestamp(transaction.getTimestampMillis())
+            .endRecord();
+      }
+    }
+    return Files.size(file);
+  }
+
+  /**
+   * Appends records after the committed length of a segment file, dropping anything past it.
+   *
+   * @return the new length of the file
+   */
+  private long appendToSegment(Path file, long committedBytes, List<Transaction> added)
+      throws IOException {
+    StringBuilder text = new StringBuilder();
+    if (committedBytes == 0) {
+      text.append(FilePersistenceService.TRANSACTIONS_HEADER).append('\n');
+    }
+    for (Transaction transaction : added) {
+      text.append(files.transactionToCsv(transaction)).append('\n');
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+
+    try (FileChannel channel =
+        FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      if (channel.size() < committedBytes) {
+        throw new IOException("Segment " + file.getFileName() + " is shorter than the manifest");
+      }
+      channel.truncate(committedBytes);
+      channel.position(committedBytes);
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(false);
+      return channel.position();
+    }
+  }
+
+  /** Replaces the manifest with the current segment table in one atomic rename. */
+  private void writeManifest() throws IOException {
+    StringBuilder text = new StringBuilder(MANIFEST_HEADER).append('\n');
+    for (Segment segment : segments.values()) {
+      text.append(segment.toCsv()).append('\n');
+    }
+    text.append(JOURNAL_MARKER + ",")
+        .append(foldedRecords)
+        .append(',')
+        .append(foldedChecksum)
+        .append('\n');
+
+    Path temp = manifestFile.resolveSibling(manifestFile.getFileName() + ".tmp");
+    ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+    try (FileChannel channel =
+        FileChannel.open(
+            temp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    }
+    Files.move(
+        temp, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /** Reads a segment up to its committed length; a missing file reads as empty. */
+  private List<Transaction> readSegment(Segment segment) throws IOException {
+    if (segment.isArchived()) {
+      return SegmentArchive.read(archiveFile(segment.month()));
+    }
+    Path file = segmentFile(segment.month());
+    if (!Files.exists(file)) {
+      return List.of();
+    }
+    return files.loadTransactionFile(file, segment.bytes());
+  }
+
+  /** Reads cold segments, inflating only the needed blocks of archived ones for range reads. */
+  private ColdSegments.SegmentReader segmentReader() {
+    return new ColdSegments.SegmentReader() {
+      @Override
+      public List<Transaction> read(Segment segment) throws IOException {
+        return readSegment(segment);
+      }
+
+      @Override
+      public List<Transaction> readRange(Segment segment, long fromMillis, long toMillis)
+          throws IOException {
+        if (segment.isArchived()) {
+          return SegmentArchive.read(archiveFile(segment.month()), fromMillis, toMillis);
+        }
+        List<Transaction> range = new ArrayList<>();
+        for (Transaction transaction : readSegment(segment)) {
+          long timestampMillis = transaction.getTimestampMillis();
+          if (timestampMillis >= fromMillis && timestampMillis < toMillis) {
+            range.add(transaction);
+          }
+        }
+        range.sort(Comparator.comparingLong(Transaction::getTimestampMillis));
+        return range;
+      }
+    };
+  }
+
+  private TreeMap<YearMonth, List<Transaction>> groupByMonth(List<Transaction> transactions) {
+    TreeMap<YearMonth, List<Transaction>> byMonth = new TreeMap<>();
+    for (Transaction transaction : transactions) {
+      YearMonth month =
+          YearMonth.from(Instant.ofEpochMilli(transaction.getTimestampMillis()).atZone(zone));
+      byMonth.computeIfAbsent(month, k -> new ArrayList<>()).add(transaction);
+    }
+    return byMonth;
+  }
+
+  private Path segmentFile(YearMonth month) {
+    return segmentDirectory.resolve("transactions-" + month + ".txt");
+  }
+
+  private Path archiveFile(YearMonth month) {
+    return segmentDirectory.resolve("transactions-" + month + ".dz");
+  }
+
+  private long startMillis(YearMonth month) {
+    return month.atDay(1).atStartOfDay(zone).toInstant().toEpochMilli();
+  }
+
+  private static long checksum(List<String> records) {
+    CRC32 crc = new CRC32();
+    for (String record : records) {
+      crc.update(record.getBytes(StandardCharsets.UTF_8));
+      crc.update('\n');
+    }
+    return crc.getValue();
+  }
+
+  private static String manifestHeader() {
+    StringBuilder header = new StringBuilder("month,bytes,count,firstMillis,lastMillis,maxId");
+    for (TransactionType type : TYPES) {
+      header.append(',').append(type).append("_count,").append(type).append("_cents");
+    }
+    return header.append(",archiveBytes,accounts").toString();
+  }
+
+  /**
+   * Manifest entry for one month: the committed length of its CSV file, and the count, time span,
+   * largest ID number, per-type count and total and account numbers of the records within that
+   * length. A closed month has a non-zero {@code archiveBytes}, the length of its compressed file,
+   * instead.
+   */
+  record Segment(
+      YearMonth month,
+      long bytes,
+      int count,
+      long firstMillis,
+      long lastMillis,
+      int maxId,
+      long[] typeCounts,
+      long[] typeCents,
+      long archiveBytes,
+      Set<String> accounts) {
+
+    private static final String ACCOUNT_SEPARATOR = ";";
+
+    static Segment empty(YearMonth month) {
+      return new Segment(
+          month,
+          0,
+          0,
+          Long.MAX_VALUE,
+          Long.MIN_VALUE,
+          0,
+          new long[TYPES.length],
+          new long[TYPES.length],
+          0,
+          Set.of());
+    }
+
+    boolean isArchived() {
+      return archiveBytes > 0;
+    }
+
+    /** Returns this segment stored as a compressed file of the given length. */
+    Segment archived(long archiveBytes) {
+      return new Segment(
+          month,
+          0,
+          count,
+          firstMillis,
+          lastMillis,
+          maxId,
+          typeCounts,
+          typeCents,
+          archiveBytes,
+          accounts);
+    }
+
+    /** Returns this segment with the given records added and its CSV file {@code bytes} long. */
+    Segment with(List<Transaction> added, long bytes) {
+      long[] counts = typeCounts.clone();
+      long[] cents = typeCents.clone();
+      long first = firstMillis;
+      long last = lastMillis;
+      int max = maxId;
+      TreeSet<String> accountNumbers = new TreeSet<>(accounts);
+      for (Transaction transaction : added) {
+        accountNumbers.add(transaction.getAccountNumber());
+        int type = transaction.getType().ordinal();
+        counts[type]++;
+        cents[type] += transaction.getAmountCents();
+        first = Math.min(first, transaction.getTimestampMillis());
+        last = Math.max(last, transaction.getTimestampMillis());
+        max = Math.max(max, FilePersistenceService.idNumber(transaction.getTransactionId()));
+      }
+      return new Segment(
+          month,
+          bytes,
+          count + added.size(),
+          first,
+          last,
+          max,
+          counts,
+          cents,
+          0,
+          Collections.unmodifiableSet(accountNumbers));
+    }
+
+    String toCsv() {
+      StringBuilder line = new StringBuilder();
+      line.append(month)
+          .append(',')
+          .append(bytes)
+          .append(',')
+          .append(count)
+          .append(',')
+          .append(firstMillis)
+          .append(',')
+          .append(lastMillis)
+          .append(',')
+          .append(maxId);
+      for (int i = 0; i < TYPES.length; i++) {
+        line.append(',').append(typeCounts[i]).append(',').append(typeCents[i]);
+      }
+      return line.append(',')
+          .append(archiveBytes)
+          .append(',')
+          .append(String.join(ACCOUNT_SEPARATOR, accounts))
+          .toString();
+    }
+
+    static Segment parse(String[] fields) {
+      int typeFieldsEnd = 6 + 2 * TYPES.length;
+      if (fields.length != typeFieldsEnd + 2) {
+        throw new IllegalArgumentException("Expected " + (typeFieldsEnd + 2) + " fields");
+      }
+      String accountList = fields[typeFieldsEnd + 1];
+      Set<String> accounts =
+          accountList.isEmpty()
+              ? Set.of()
+              : Collections.unmodifiableSet(
+                  new TreeSet<>(Arrays.asList(accountList.split(ACCOUNT_SEPARATOR))));
+      long[] counts = new long[TYPES.length];
+      long[] cents = new long[TYPES.length];
+      for (int i = 0; i < TYPES.length; i++) {
+        counts[i] = Long.parseLong(fields[6 + 2 * i]);
+        cents[i] = Long.parseLong(fields[7 + 2 * i]);
+      }
+      return new Segment(
+          YearMonth.parse(fields[0]),
+          Long.parseLong(fields[1]),
+          Integer.parseInt(fields[2]),
+          Long.parseLong(fields[3]),
+          Long.parseLong(fields[4]),
+          Integer.parseInt(fields[5]),
+          counts,
+          cents,
+          Long.parseLong(fields[typeFieldsEnd]),
+          accounts);
+    }
+  }
+}
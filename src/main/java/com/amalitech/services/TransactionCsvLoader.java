@@ -0,0 +1,363 @@
+package com.amalitech.services;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.Transaction;
+import com.amalitech.utils.MoneyUtils;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Loads a {@code transactions.txt} file by splitting it into byte ranges that end on line breaks,
+ * memory-mapping each range and parsing the ranges in parallel on the common fork-join pool. Fields
+ * are read straight from the mapped bytes: amounts are parsed as cents and timestamps without a
+ * formatter, so a line costs little more than the strings and the {@link Transaction} it produces.
+ *
+ * <p>Lines the fast parser does not recognize, such as amounts with more than two decimals, are
+ * handed to the fallback parser, which also reports malformed lines.
+ */
+final class TransactionCsvLoader {
+
+  static final int DEFAULT_CHUNK_BYTES = 16 * 1024 * 1024;
+
+  private static final int FIELDS = 6;
+  private static final int MAX_LINE_BYTES = 4096;
+  private static final TransactionType[] TYPES = TransactionType.values();
+  private static final byte[][] TYPE_NAMES = new byte[TYPES.length][];
+
+  static {
+    for (int i = 0; i < TYPES.length; i++) {
+      TYPE_NAMES[i] = TYPES[i].name().getBytes(StandardCharsets.US_ASCII);
+    }
+  }
+
+  private final int chunkBytes;
+  private final Function<String, Transaction> fallback;
+
+  /**
+   * Creates a loader.
+   *
+   * @param chunkBytes target size of the byte range each task parses
+   * @param fallback parses lines the fast path rejects, returning null for malformed ones
+   */
+  TransactionCsvLoader(int chunkBytes, Function<String, Transaction> fallback) {
+    this.chunkBytes = chunkBytes;
+    this.fallback = fallback;
+  }
+
+  /**
+   * Parses every line after the header.
+   *
+   * @return the transactions in file order
+   * @throws IOException if the file cannot be read
+   */
+  List<Transaction> load(Path file) throws IOException {
+    return load(file, Long.MAX_VALUE);
+  }
+
+  /**
+   * Parses the lines after the header within the first {@code limitBytes} bytes of the file, for
+   * files whose tail may hold records that are not committed yet.
+   *
+   * @return the transactions in file order
+   * @throws IOException if the file cannot be read
+   */
+  List<Transaction> load(Path file, long limitBytes) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long[] bounds = chunkBounds(channel, Math.min(channel.size(), limitBytes));
+      List<List<Transaction>> chunks;
+      try {
+        chunks =
+            IntStream.range(0, bounds.length - 1)
+                .parallel()
+                .mapToObj(i -> parseChunk(channel, bounds[i], bounds[i + 1]))
+                .toList();
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+
+      int total = chunks.stream().mapToInt(List::size).sum();
+      ArrayList<Transaction> transactions = new ArrayList<>(total);
+      chunks.forEach(transactions::addAll);
+      return transactions;
+    }
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  /** Returns chunk start offsets plus the file size; the first chunk begins after the header. */
+  private long[] chunkBounds(FileChannel channel, long size) throws IOException {
+    List<Long> bounds = new ArrayList<>();
+    bounds.add(nextLineStart(channel, 0, size));
+    long position = bounds.get(0);
+    while (position + chunkBytes < size) {
+      position = nextLineStart(channel, position + chunkBytes, size);
+      bounds.add(position);
+    }
+    if (position < size) {
+      bounds.add(size);
+    }
+    return bounds.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  /** Returns the offset just past the first line break at or after {@code from}. */
+  private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(MAX_LINE_BYTES);
+    long position = from;
+    while (position < size) {
+      buffer.clear();
+      int read = channel.read(buffer, position);
+      if (read <= 0) {
+        break;
+      }
+      for (int i = 0; i < read; i++) {
+        if (buffer.get(i) == '\n') {
+          return position + i + 1;
+        }
+      }
+      position += read;
+    }
+    return size;
+  }
+
+  private List<Transaction> parseChunk(FileChannel channel, long start, long end) {
+    MappedByteBuffer bytes;
+    try {
+      bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    List<Transaction> transactions = new ArrayList<>((int) ((end - start) / 64));
+    ChunkParser parser = new ChunkParser(bytes);
+    int limit = bytes.limit();
+    int lineStart = 0;
+    while (lineStart < limit) {
+      int lineEnd = lineStart;
+      while (lineEnd < limit && bytes.get(lineEnd) != '\n') {
+        lineEnd++;
+      }
+      if (!parser.isBlank(lineStart, lineEnd)) {
+        Transaction transaction = parser.parse(lineStart, lineEnd);
+        if (transaction == null) {
+          transaction = fallback.apply(parser.text(lineStart, lineEnd));
+        }
+        if (transaction != null) {
+          transactions.add(transaction);
+        }
+      }
+      lineStart = lineEnd + 1;
+    }
+    return transactions;
+  }
+
+  /** Parses lines of one mapped chunk. Not shared between threads. */
+  private static final class ChunkParser {
+    private final ByteBuffer bytes;
+    private final int[] fieldStarts = new int[FIELDS];
+    private final int[] fieldEnds = new int[FIELDS];
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ZoneRules zoneRules = zone.getRules();
+    // Timestamps in a history repeat their date and hour, so the last conversion is reused
+    private long cachedHourKey = -1;
+    private long cachedHourEpochSecond;
+
+    ChunkParser(ByteBuffer bytes) {
+      this.bytes = bytes;
+    }
+
+    boolean isBlank(int start, int end) {
+      for (int i = start; i < end; i++) {
+        if (!isSpace(bytes.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    String text(int start, int end) {
+      byte[] line = new byte[end - start];
+      bytes.get(start, line);
+      return new String(line, StandardCharsets.UTF_8);
+    }
+
+    /** Returns the transaction on the line, or null if the fast path cannot parse it. */
+    Transaction parse(int start, int end) {
+      if (!split(start, end)) {
+        return null;
+      }
+      TransactionType type = type();
+      long amountCents = cents(3);
+      long balanceCents = cents(4);
+      long timestamp = timestamp();
+      if (type == null
+          || amountCents == Long.MIN_VALUE
+          || balanceCents == Long.MIN_VALUE
+          || timestamp == Long.MIN_VALUE) {
+        return null;
+      }
+      return new Transaction(
+          text(fieldStarts[0], fieldEnds[0]),
+          text(fieldStarts[1], fieldEnds[1]),
+          type,
+          MoneyUtils.toAmount(amountCents),
+          MoneyUtils.toAmount(balanceCents),
+          timestamp);
+    }
+
+    /** Records trimmed field bounds; false unless the line has exactly six fields. */
+    private boolean split(int start, int end) {
+      int field = 0;
+      int fieldStart = start;
+      for (int i = start; i <= end; i++) {
+        if (i == end || bytes.get(i) == ',') {
+          if (field == FIELDS) {
+            return false;
+          }
+          int s = fieldStart;
+          int e = i;
+          while (s < e && isSpace(bytes.get(s))) {
+            s++;
+          }
+          while (e > s && isSpace(bytes.get(e - 1))) {
+            e--;
+          }
+          fieldStarts[field] = s;
+          fieldEnds[field] = e;
+          field++;
+          fieldStart = i + 1;
+        }
+      }
+      return field == FIELDS;
+    }
+
+    private TransactionType type() {
+      int start = fieldStarts[2];
+      int length = fieldEnds[2] - start;
+      for (int t = 0; t < TYPE_NAMES.length; t++) {
+        byte[] name = TYPE_NAMES[t];
+        if (name.length == length && matches(name, start)) {
+          return TYPES[t];
+        }
+      }
+      return null;
+    }
+
+    private boolean matches(byte[] name, int start) {
+      for (int i = 0; i < name.length; i++) {
+        if (bytes.get(start + i) != name[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /** Parses a decimal with up to two fraction digits as cents, or Long.MIN_VALUE. */
+    private long cents(int field) {
+      int i = fieldStarts[field];
+      int end = fieldEnds[field];
+      boolean negative = i < end && bytes.get(i) == '-';
+      if (negative) {
+        i++;
+      }
+      long units = 0;
+      int digits = 0;
+      while (i < end && isDigit(bytes.get(i))) {
+        units = units * 10 + (bytes.get(i++) - '0');
+        if (++digits > 15) {
+          return Long.MIN_VALUE;
+        }
+      }
+      long fraction = 0;
+      int fractionDigits = 0;
+      if (i < end && bytes.get(i) == '.') {
+        i++;
+        while (i < end && isDigit(bytes.get(i))) {
+          fraction = fraction * 10 + (bytes.get(i++) - '0');
+          fractionDigits++;
+        }
+      }
+      if (i != end || digits == 0 || fractionDigits > 2) {
+        return Long.MIN_VALUE;
+      }
+      long cents = units * MoneyUtils.CENTS_PER_UNIT;
+      cents += fractionDigits == 1 ? fraction * 10 : fraction;
+      return negative ? -cents : cents;
+    }
+
+    /** Parses dd-MM-yyyy HH:mm:ss in the system time zone, or returns Long.MIN_VALUE. */
+    private long timestamp() {
+      int s = fieldStarts[5];
+      if (fieldEnds[5] - s != 19
+          || bytes.get(s + 2) != '-'
+          || bytes.get(s + 5) != '-'
+          || bytes.get(s + 10) != ' '
+          || bytes.get(s + 13) != ':'
+          || bytes.get(s + 16) != ':') {
+        return Long.MIN_VALUE;
+      }
+      int day = number(s, 2);
+      int month = number(s + 3, 2);
+      int year = number(s + 6, 4);
+      int hour = number(s + 11, 2);
+      int minute = number(s + 14, 2);
+      int second = number(s + 17, 2);
+      if ((day | month | year | hour | minute | second) < 0 || minute > 59 || second > 59) {
+        return Long.MIN_VALUE;
+      }
+
+      long hourKey = ((year * 100L + month) * 100 + day) * 100 + hour;
+      if (hourKey != cachedHourKey) {
+        try {
+          LocalDateTime start = LocalDateTime.of(year, month, day, hour, 0);
+          ZoneOffset offset = zoneRules.getOffset(start);
+          if (!offset.equals(zoneRules.getOffset(start.plusSeconds(3_599)))) {
+            // The offset changes within this hour, so convert this timestamp on its own
+            return start.plusMinutes(minute).plusSeconds(second).atZone(zone).toEpochSecond()
+                * 1000;
+          }
+          long local = LocalDate.of(year, month, day).toEpochDay() * 86_400 + hour * 3_600L;
+          cachedHourEpochSecond = local - offset.getTotalSeconds();
+          cachedHourKey = hourKey;
+        } catch (RuntimeException e) {
+          return Long.MIN_VALUE;
+        }
+      }
+      return (cachedHourEpochSecond + minute * 60L + second) * 1000;
+    }
+
+    /** Parses a fixed-width unsigned number, or returns -1. */
+    private int number(int start, int length) {
+      int value = 0;
+      for (int i = start; i < start + length; i++) {
+        byte b = bytes.get(i);
+        if (!isDigit(b)) {
+          return -1;
+        }
+        value = value * 10 + (b - '0');
+      }
+      return value;
+    }
+
+    private static boolean isDigit(byte b) {
+      return b >= '0' && b <= '9';
+    }
+
+    private static boolean isSpace(byte b) {
+      return b == ' ' || b == '\t' || b == '\r';
+    }
+  }
+}
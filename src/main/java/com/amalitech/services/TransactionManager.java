@@ -1,114 +1,325 @@
 package com.amalitech.services;
 
+import com.amalitech.constants.TransactionStorage;
 import com.amalitech.constants.TransactionType;
 import com.amalitech.models.*;
 import com.amalitech.utils.ConsoleTablePrinter;
 import com.amalitech.utils.InputReader;
 import com.amalitech.utils.TablePrinter;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-/** Manages a collection of transactions using ArrayList with file persistence. */
+/**
+ * Manages a collection of transactions with file persistence. The history is an ArrayList of
+ * transactions or, for large histories, a {@link ColumnarTransactionStore}. A secondary index by
+ * account number keeps per-account queries proportional to that account's history, and running
+ * {@link TransactionStatistics} make totals and counts O(1). A timeline kept sorted by timestamp
+ * answers date range queries by binary search, touching only the transactions inside the range.
+ * The index and timeline hold positions into the history rather than transaction references.
+ *
+ * <p>The history list, index and timeline are guarded by the history lock; statistics are updated
+ * outside it with striped adders so concurrent recorders only contend on the list append.
+ *
+ * <p>Storage that loads only recent history supplies the rest as {@link ColdSegments}. Range and
+ * account queries then merge in the cold records they reach, and totals add the cold totals.
+ */
 public class TransactionManager {
 
+  private static final Comparator<Transaction> BY_TIMESTAMP =
+      Comparator.comparingLong(Transaction::getTimestampMillis);
+
   private final List<Transaction> transactions;
+  private final HashMap<String, PositionList> positionsByAccount;
+  private final PositionList timeline;
+  private final TransactionStatistics statistics;
+  private final ConcurrentHashMap<String, TransactionStatistics> statisticsByAccount;
+  // Added with addTransaction and not yet written; guarded by the transactions lock
+  private final List<Transaction> unsaved = new ArrayList<>();
   private final TablePrinter printer;
   private final PersistenceService persistenceService;
+  private volatile ColdSegments coldSegments;
 
   public TransactionManager(PersistenceService persistenceService) {
+    this(persistenceService, TransactionStorage.OBJECTS);
+  }
+
+  /**
+   * Creates a transaction manager with the given in-memory layout.
+   *
+   * @param persistenceService the service used to load and save transactions
+   * @param storage whether to keep transaction objects or primitive columns
+   */
+  public TransactionManager(PersistenceService persistenceService, TransactionStorage storage) {
     this.persistenceService = persistenceService;
     this.printer = new ConsoleTablePrinter();
-    this.transactions = new ArrayList<>();
+    this.transactions =
+        storage == TransactionStorage.COLUMNAR ? new ColumnarTransactionStore() : new ArrayList<>();
+    this.positionsByAccount = new HashMap<>();
+    this.timeline = new PositionList();
+    this.statistics = new TransactionStatistics();
+    this.statisticsByAccount = new ConcurrentHashMap<>();
   }
 
   /** Loads transactions from file. */
   public void loadTransactions() {
     try {
-      this.transactions.clear();
-      this.transactions.addAll(persistenceService.loadTransactions());
+      List<Transaction> loaded = persistenceService.loadTransactions();
+      synchronized (transactions) {
+        this.transactions.clear();
+        this.positionsByAccount.clear();
+        this.timeline.clear();
+        this.statistics.reset();
+        this.statisticsByAccount.clear();
+        this.unsaved.clear();
+        for (Transaction transaction : loaded) {
+          if (transaction != null) {
+            timeline.add(indexTransaction(transaction));
+            recordStatistics(transaction);
+          }
+        }
+        // Sort once rather than inserting out-of-order records one at a time
+        this.timeline.sort(this::timestampAt);
+      }
+      this.coldSegments = persistenceService.getColdSegments();
     } catch (IOException e) {
       System.err.println("Warning: Could not load transactions from file: " + e.getMessage());
     }
   }
 
-  /** Adds a transaction to the history. */
+  /**
+   * Adds a transaction to the history, the per-account index, the timeline and the running
+   * statistics.
+   */
   public void addTransaction(Transaction transaction) {
     if (transaction == null) {
       System.out.println("Attempted to add null transaction");
       return;
     }
-    transactions.add(transaction);
+    synchronized (transactions) {
+      insert(transaction);
+      unsaved.add(transaction);
+    }
+    recordStatistics(transaction);
+  }
+
+  /** Adds a transaction that is already in the persistent journal, so saves need not write it. */
+  void addJournaledTransaction(Transaction transaction) {
+    if (transaction == null) {
+      System.out.println("Attempted to add null transaction");
+      return;
+    }
+    synchronized (transactions) {
+      insert(transaction);
+    }
+    recordStatistics(transaction);
+  }
+
+  /** Indexes a transaction and places it on the timeline. Caller holds the transactions lock. */
+  private void insert(Transaction transaction) {
+    long timestampMillis = transaction.getTimestampMillis();
+    int position = indexTransaction(transaction);
+    if (timeline.size() == 0 || timestampAt(timeline.getLast()) <= timestampMillis) {
+      timeline.add(position);
+    } else {
+      // Late arrival: insert after every record with the same or an earlier timestamp
+      timeline.insert(lowerBound(timestampMillis + 1), position);
+    }
+  }
+
+  /** Adds a transaction to the history and appends it to the persistent journal. */
+  public void recordTransaction(Transaction transaction) {
+    if (transaction == null) {
+      System.out.println("Attempted to record null transaction");
+      return;
+    }
+    recordTransactions(List.of(transaction));
+  }
+
+  /**
+   * Adds transactions to the history and appends them to the persistent journal in a single write.
+   *
+   * @param newTransactions the transactions to record, in order
+   */
+  public void recordTransactions(List<Transaction> newTransactions) {
+    newTransactions.forEach(this::addJournaledTransaction);
+    journalTransactions(newTransactions);
+  }
+
+  /**
+   * Appends transactions to the persistent journal without adding them to the history, for callers
+   * that index them separately. If the write fails the transactions are kept for the next
+   * {@link #saveTransactions()}, so they are not lost while still visible in memory.
+   *
+   * @param newTransactions the transactions to journal, in order
+   */
+  public void journalTransactions(List<Transaction> newTransactions) {
+    try {
+      persistenceService.appendTransactions(newTransactions);
+    } catch (IOException e) {
+      synchronized (transactions) {
+        unsaved.addAll(newTransactions);
+      }
+      System.err.println("Error journaling transactions: " + e.getMessage());
+    }
   }
 
   /**
    * Searches for transactions matching the given criteria.
    *
    * @param predicate The filtering criteria.
-   * @return A list of matching transactions.
+   * @return A list of matching transactions, newest first.
    */
   public List<Transaction> searchTransactions(Predicate<Transaction> predicate) {
-    return transactions.stream()
-        .filter(predicate)
-        .sorted(Comparator.comparing(Transaction::getTimestamp).reversed())
-        .collect(Collectors.toList());
+    return searchTransactions(Long.MIN_VALUE, Long.MAX_VALUE, predicate);
+  }
+
+  /**
+   * Searches transactions within a time range. Only the slice of the timeline inside the range is
+   * examined.
+   *
+   * @param fromMillis start of the range in epoch milliseconds, inclusive
+   * @param toMillis end of the range in epoch milliseconds, exclusive
+   * @param predicate The filtering criteria applied within the range.
+   * @return A list of matching transactions, newest first.
+   */
+  public List<Transaction> searchTransactions(
+      long fromMillis, long toMillis, Predicate<Transaction> predicate) {
+    List<Transaction> range = between(fromMillis, toMillis);
+    return range.reversed().stream().filter(predicate).collect(Collectors.toList());
+  }
+
+  /**
+   * Returns transactions with timestamps in {@code [fromMillis, toMillis)}, oldest first.
+   *
+   * @param fromMillis start of the range in epoch milliseconds, inclusive
+   * @param toMillis end of the range in epoch milliseconds, exclusive
+   */
+  public List<Transaction> between(long fromMillis, long toMillis) {
+    List<Transaction> hot;
+    synchronized (transactions) {
+      int from = lowerBound(fromMillis);
+      int to = lowerBound(toMillis);
+      hot = new ArrayList<>(Math.max(0, to - from));
+      for (int i = from; i < to; i++) {
+        hot.add(transactions.get(timeline.get(i)));
+      }
+    }
+    ColdSegments cold = coldSegments;
+    if (cold == null || fromMillis >= cold.getColdBeforeMillis()) {
+      return Collections.unmodifiableList(hot);
+    }
+    List<Transaction> range = cold.between(fromMillis, toMillis);
+    boolean interleaved =
+        !hot.isEmpty() && hot.get(0).getTimestampMillis() < cold.getColdBeforeMillis();
+    range.addAll(hot);
+    if (interleaved) {
+      // Records dated in a cold month were added since the load
+      range.sort(BY_TIMESTAMP);
+    }
+    return Collections.unmodifiableList(range);
+  }
+
+  /**
+   * Returns transactions from the start of the day {@code days} days ago onwards, oldest first.
+   *
+   * @param days number of days to look back; 0 means since the start of today
+   */
+  public List<Transaction> lastNDays(int days) {
+    return between(startOfDayDaysAgo(days), Long.MAX_VALUE);
   }
 
-  /** Calculates the total amount of all deposits using Stream API. */
+  /**
+   * Searches transactions from the last {@code days} days matching the given criteria.
+   *
+   * @param days number of days to look back
+   * @param predicate The filtering criteria applied within the range.
+   * @return A list of matching transactions, newest first.
+   */
+  public List<Transaction> searchLastNDays(int days, Predicate<Transaction> predicate) {
+    return searchTransactions(startOfDayDaysAgo(days), Long.MAX_VALUE, predicate);
+  }
+
+  /** Returns the running total of all deposits. */
   public double calculateTotalDeposits() {
-    return transactions.stream()
-        .filter(t -> t.getType() == TransactionType.DEPOSIT)
-        .mapToDouble(Transaction::getAmount)
-        .sum();
+    return total(TransactionType.DEPOSIT);
   }
 
-  /** Calculates the total amount of all withdrawals using Stream API. */
+  /** Returns the running total of all withdrawals. */
   public double calculateTotalWithdrawals() {
-    return transactions.stream()
-        .filter(t -> t.getType() == TransactionType.WITHDRAWAL)
-        .mapToDouble(Transaction::getAmount)
-        .sum();
+    return total(TransactionType.WITHDRAWAL);
   }
 
-  /** Calculates the total amount of all transfers in using Stream API. */
+  /** Returns the running total of all transfers in. */
   public double calculateTotalTransfersIn() {
-    return transactions.stream()
-        .filter(t -> t.getType() == TransactionType.TRANSFER_IN)
-        .mapToDouble(Transaction::getAmount)
-        .sum();
+    return total(TransactionType.TRANSFER_IN);
   }
 
-  /** Calculates the total amount of all transfers out using Stream API. */
+  /** Returns the running total of all transfers out. */
   public double calculateTotalTransfersOut() {
-    return transactions.stream()
-        .filter(t -> t.getType() == TransactionType.TRANSFER_OUT)
-        .mapToDouble(Transaction::getAmount)
-        .sum();
+    return total(TransactionType.TRANSFER_OUT);
   }
 
   public int getTransactionCount() {
-    return transactions.size();
+    ColdSegments cold = coldSegments;
+    synchronized (transactions) {
+      return transactions.size() + (cold == null ? 0 : (int) cold.getTransactionCount());
+    }
+  }
+
+  /** Returns the ID of the most recently added transaction, or null if there are none. */
+  public String getLastTransactionId() {
+    synchronized (transactions) {
+      int size = transactions.size();
+      return size == 0 ? null : transactions.get(size - 1).getTransactionId();
+    }
+  }
+
+  /**
+   * Returns the transactions added after the given one, in the order they were added. The history
+   * is searched from the end, so the cost follows the length of the tail rather than the history.
+   *
+   * @param transactionId the last transaction to leave out, or null for the whole history
+   * @return the later transactions, or null if the transaction is not in the history
+   */
+  public List<Transaction> getTransactionsAfter(String transactionId) {
+    synchronized (transactions) {
+      int start = 0;
+      if (transactionId != null) {
+        start = transactions.size();
+        while (start > 0 && !transactions.get(start - 1).getTransactionId().equals(transactionId)) {
+          start--;
+        }
+        if (start == 0) {
+          return null;
+        }
+      }
+      return new ArrayList<>(transactions.subList(start, transactions.size()));
+    }
   }
 
   public long getDepositCount() {
-    return transactions.stream().filter(t -> t.getType() == TransactionType.DEPOSIT).count();
+    return count(TransactionType.DEPOSIT);
   }
 
   public long getWithdrawalCount() {
-    return transactions.stream().filter(t -> t.getType() == TransactionType.WITHDRAWAL).count();
+    return count(TransactionType.WITHDRAWAL);
   }
 
   public long getTransferInCount() {
-    return transactions.stream().filter(t -> t.getType() == TransactionType.TRANSFER_IN).count();
+    return count(TransactionType.TRANSFER_IN);
   }
 
   public long getTransferOutCount() {
-    return transactions.stream().filter(t -> t.getType() == TransactionType.TRANSFER_OUT).count();
+    return count(TransactionType.TRANSFER_OUT);
   }
 
   /**
@@ -117,14 +328,15 @@ public class TransactionManager {
    * @param inputReader used to pause execution after display
    */
   public void viewAllTransactions(InputReader inputReader) {
-    if (transactions.isEmpty()) {
+    List<Transaction> allTransactions = history();
+    if (allTransactions.isEmpty()) {
       System.out.println("No transactions available.");
       inputReader.waitForEnter();
       return;
     }
 
     String[] headers = createTransactionHeaders();
-    String[][] data = buildTransactionData(sortTransactionsNewestFirst(transactions));
+    String[][] data = buildTransactionData(sortTransactionsNewestFirst(allTransactions));
 
     printer.printTable(headers, data);
     displayTransactionSummary(
@@ -163,16 +375,12 @@ public class TransactionManager {
 
     printer.printTable(headers, data);
 
-    double totalDeposits = getTotalDeposits(accountNumber);
-    double totalWithdrawals = getTotalWithdrawals(accountNumber);
-    double totalTransfersIn = getTotalTransfersIn(accountNumber);
-    double totalTransfersOut = getTotalTransfersOut(accountNumber);
     displayTransactionSummary(
         accountTransactions.size(),
-        totalDeposits,
-        totalWithdrawals,
-        totalTransfersIn,
-        totalTransfersOut);
+        getTotalDeposits(accountNumber),
+        getTotalWithdrawals(accountNumber),
+        getTotalTransfersIn(accountNumber),
+        getTotalTransfersOut(accountNumber));
 
     inputReader.waitForEnter();
   }
@@ -184,58 +392,143 @@ public class TransactionManager {
     return getTransactionsListForAccount(accountNumber).toArray(new Transaction[0]);
   }
 
-  /** Returns all transactions for the specified account as a List using Stream API. */
+  /**
+   * Returns all transactions for the specified account from the per-account index, after any cold
+   * history for it.
+   */
   private List<Transaction> getTransactionsListForAccount(String accountNumber) {
-    return transactions.stream().filter(t -> t.getAccountNumber().equals(accountNumber)).toList();
+    ColdSegments cold = coldSegments;
+    List<Transaction> accountTransactions =
+        cold == null ? new ArrayList<>() : cold.forAccount(accountNumber);
+    synchronized (transactions) {
+      PositionList positions = positionsByAccount.get(accountNumber);
+      if (positions == null) {
+        return accountTransactions;
+      }
+      for (int i = 0; i < positions.size(); i++) {
+        accountTransactions.add(transactions.get(positions.get(i)));
+      }
+      return accountTransactions;
+    }
   }
 
-  /** Returns total deposits for the specified account using Stream API. */
+  /** Returns the running deposit total for the specified account. */
   public double getTotalDeposits(String accountNumber) {
-    return transactions.stream()
-        .filter(t -> t.getAccountNumber().equals(accountNumber))
-        .filter(t -> t.getType() == TransactionType.DEPOSIT)
-        .mapToDouble(Transaction::getAmount)
-        .sum();
+    return totalForAccount(accountNumber, TransactionType.DEPOSIT);
   }
 
-  /** Returns total withdrawals for the specified account using Stream API. */
+  /** Returns the running withdrawal total for the specified account. */
   public double getTotalWithdrawals(String accountNumber) {
-    return transactions.stream()
-        .filter(t -> t.getAccountNumber().equals(accountNumber))
-        .filter(t -> t.getType() == TransactionType.WITHDRAWAL)
-        .mapToDouble(Transaction::getAmount)
-        .sum();
+    return totalForAccount(accountNumber, TransactionType.WITHDRAWAL);
   }
 
-  /** Returns total transfers in for the specified account using Stream API. */
+  /** Returns the running transfers-in total for the specified account. */
   public double getTotalTransfersIn(String accountNumber) {
-    return transactions.stream()
-        .filter(t -> t.getAccountNumber().equals(accountNumber))
-        .filter(t -> t.getType() == TransactionType.TRANSFER_IN)
-        .mapToDouble(Transaction::getAmount)
-        .sum();
+    return totalForAccount(accountNumber, TransactionType.TRANSFER_IN);
   }
 
-  /** Returns total transfers out for the specified account using Stream API. */
+  /** Returns the running transfers-out total for the specified account. */
   public double getTotalTransfersOut(String accountNumber) {
-    return transactions.stream()
-        .filter(t -> t.getAccountNumber().equals(accountNumber))
-        .filter(t -> t.getType() == TransactionType.TRANSFER_OUT)
-        .mapToDouble(Transaction::getAmount)
-        .sum();
+    return totalForAccount(accountNumber, TransactionType.TRANSFER_OUT);
   }
 
   // ==================== HELPER METHODS ====================
 
+  /** Returns one account's running total for a type, or zero if it has no history. */
+  private double totalForAccount(String accountNumber, TransactionType type) {
+    TransactionStatistics accountStatistics = statisticsByAccount.get(accountNumber);
+    double total = accountStatistics == null ? 0.0 : accountStatistics.getTotal(type);
+    ColdSegments cold = coldSegments;
+    return cold == null ? total : total + cold.getAccountStatistics(accountNumber).getTotal(type);
+  }
+
+  /** Returns the total for a type across loaded and cold history. */
+  private double total(TransactionType type) {
+    ColdSegments cold = coldSegments;
+    double total = statistics.getTotal(type);
+    return cold == null ? total : total + cold.getStatistics().getTotal(type);
+  }
+
+  /** Returns the count for a type across loaded and cold history. */
+  private long count(TransactionType type) {
+    ColdSegments cold = coldSegments;
+    long count = statistics.getCount(type);
+    return cold == null ? count : count + cold.getStatistics().getCount(type);
+  }
+
+  /**
+   * Adds a transaction to the history and account index; caller holds the lock.
+   *
+   * @return the transaction's position in the history
+   */
+  private int indexTransaction(Transaction transaction) {
+    int position = transactions.size();
+    transactions.add(transaction);
+    positionsByAccount
+        .computeIfAbsent(transaction.getAccountNumber(), k -> new PositionList())
+        .add(position);
+    return position;
+  }
+
+  /** Adds a transaction to the overall and per-account statistics; needs no lock. */
+  private void recordStatistics(Transaction transaction) {
+    statistics.record(transaction);
+    statisticsByAccount
+        .computeIfAbsent(transaction.getAccountNumber(), k -> new TransactionStatistics())
+        .record(transaction);
+  }
+
+  /** Returns the timestamp of the transaction at a history position; caller holds the lock. */
+  private long timestampAt(int position) {
+    return transactions instanceof ColumnarTransactionStore store
+        ? store.getTimestampMillis(position)
+        : transactions.get(position).getTimestampMillis();
+  }
+
+  /** Returns the first timeline position whose timestamp is at or after the given instant. */
+  private int lowerBound(long timestampMillis) {
+    int low = 0;
+    int high = timeline.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (timestampAt(timeline.get(mid)) < timestampMillis) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private static long startOfDayDaysAgo(int days) {
+    return LocalDate.now()
+        .minusDays(days)
+        .atStartOfDay(ZoneId.systemDefault())
+        .toInstant()
+        .toEpochMilli();
+  }
+
+  /** Returns a copy of the history that is safe to iterate while transactions are added. */
+  private List<Transaction> snapshot() {
+    synchronized (transactions) {
+      return new ArrayList<>(transactions);
+    }
+  }
+
+  /** Returns the cold history, if any, followed by a snapshot of the loaded history. */
+  private List<Transaction> history() {
+    ColdSegments cold = coldSegments;
+    if (cold == null) {
+      return snapshot();
+    }
+    List<Transaction> history = cold.between(Long.MIN_VALUE, Long.MAX_VALUE);
+    history.addAll(snapshot());
+    return history;
+  }
+
   /** Sorts transactions by timestamp descending (newest first). */
   private List<Transaction> sortTransactionsNewestFirst(List<Transaction> transactions) {
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
-    return transactions.stream()
-        .sorted(
-            Comparator.comparing(
-                    (Transaction t) -> LocalDateTime.parse(t.getTimestamp(), formatter))
-                .reversed())
-        .toList();
+    return transactions.stream().sorted(BY_TIMESTAMP.reversed()).toList();
   }
 
   private String[] createTransactionHeaders() {
@@ -276,17 +569,32 @@ public class TransactionManager {
     System.out.println(String.format("Total Transfers Out: $%.2f", totalTransfersOut));
   }
 
-  /** Saves all transactions to file. */
+  /**
+   * Saves the transactions added since the last load or save. Recorded transactions are journaled
+   * as they happen, so only those added with {@link #addTransaction} or whose journal write failed
+   * are still to be written.
+   */
   public void saveTransactions() {
+    List<Transaction> pending;
+    synchronized (transactions) {
+      if (unsaved.isEmpty()) {
+        return;
+      }
+      pending = new ArrayList<>(unsaved);
+      unsaved.clear();
+    }
     try {
-      persistenceService.saveTransactions(transactions);
+      persistenceService.appendTransactions(pending);
     } catch (IOException e) {
+      synchronized (transactions) {
+        unsaved.addAll(0, pending);
+      }
       System.err.println("Error saving transactions: " + e.getMessage());
     }
   }
 
-  /** Returns the transactions list for persistence operations. */
+  /** Returns a read-only copy of the full history, cold segments included, for persistence. */
   public List<Transaction> getTransactions() {
-    return transactions;
+    return Collections.unmodifiableList(history());
   }
 }
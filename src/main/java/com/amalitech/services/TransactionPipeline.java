@@ -0,0 +1,353 @@
+package com.amalitech.services;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.constants.WaitStrategy;
+import com.amalitech.models.Account;
+import com.amalitech.models.Transaction;
+import com.amalitech.utils.MoneyUtils;
+import com.amalitech.utils.ValidationUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ring-buffer pipeline for deposits and withdrawals. Requests are written into pre-allocated slots
+ * and pass through three stages, each on its own thread: validate and apply to the account,
+ * journal, and index into the history. Every stage handles all slots that are ready in one batch,
+ * so the journal gets one write per batch, and slots are reused, so the pipeline allocates nothing
+ * per request beyond the resulting {@link Transaction}.
+ *
+ * <p>Any number of threads may publish. Requests for one account are applied in the order they
+ * were published. Call {@link #close()} once producers have stopped publishing.
+ *
+ * <p>A failure is recorded on the request's slot and handed to the {@link FailureHandler} once the
+ * request leaves the pipeline; it never stops a stage. A transaction whose journal write failed is
+ * still indexed, but as unsaved, so the next save writes it.
+ */
+public class TransactionPipeline implements AutoCloseable {
+
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  /** Receives requests that were rejected or failed, on the pipeline's last stage thread. */
+  @FunctionalInterface
+  public interface FailureHandler {
+    void onFailure(long sequence, String accountNumber, Exception cause);
+  }
+
+  /** Prints each failure to standard error. */
+  public static final FailureHandler LOG_FAILURES =
+      (sequence, accountNumber, cause) ->
+          System.err.println(
+              "Warning: Request "
+                  + sequence
+                  + " for "
+                  + accountNumber
+                  + " failed: "
+                  + cause.getMessage());
+
+  private static final long PARK_NANOS = 50_000L;
+
+  private final AccountManager accountManager;
+  private final TransactionManager transactionManager;
+  private final WaitStrategy waitStrategy;
+  private final FailureHandler failureHandler;
+  private final Slot[] slots;
+  private final int mask;
+
+  // Highest sequence claimed by a producer; -1 before the first publish
+  private final AtomicLong claimed = new AtomicLong(-1);
+  // Sequence last published into each slot, so stages know when a claimed slot is filled
+  private final AtomicLongArray published;
+  private final Stage applyStage;
+  private final Stage journalStage;
+  private final Stage indexStage;
+  private final List<Transaction> journalBatch = new ArrayList<>();
+
+  private volatile boolean running = true;
+  private volatile long appliedCount;
+  private volatile long rejectedCount;
+
+  /**
+   * Creates a pipeline with {@link #DEFAULT_CAPACITY} slots and starts its stage threads.
+   *
+   * @param accountManager the accounts requests are applied to
+   * @param transactionManager where applied transactions are journaled and indexed
+   * @param waitStrategy how stage and producer threads wait
+   */
+  public TransactionPipeline(
+      AccountManager accountManager,
+      TransactionManager transactionManager,
+      WaitStrategy waitStrategy) {
+    this(accountManager, transactionManager, waitStrategy, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a pipeline that logs failures and starts its stage threads.
+   *
+   * @param accountManager the accounts requests are applied to
+   * @param transactionManager where applied transactions are journaled and indexed
+   * @param waitStrategy how stage and producer threads wait
+   * @param capacity number of slots in the ring, a power of two
+   */
+  public TransactionPipeline(
+      AccountManager accountManager,
+      TransactionManager transactionManager,
+      WaitStrategy waitStrategy,
+      int capacity) {
+    this(accountManager, transactionManager, waitStrategy, capacity, LOG_FAILURES);
+  }
+
+  /**
+   * Creates a pipeline and starts its stage threads.
+   *
+   * @param accountManager the accounts requests are applied to
+   * @param transactionManager where applied transactions are journaled and indexed
+   * @param waitStrategy how stage and producer threads wait
+   * @param capacity number of slots in the ring, a power of two
+   * @param failureHandler receives requests that were rejected or failed
+   */
+  public TransactionPipeline(
+      AccountManager accountManager,
+      TransactionManager transactionManager,
+      WaitStrategy waitStrategy,
+      int capacity,
+      FailureHandler failureHandler) {
+    if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+    }
+    this.accountManager = accountManager;
+    this.transactionManager = transactionManager;
+    this.waitStrategy = waitStrategy;
+    this.failureHandler = failureHandler;
+    this.slots = new Slot[capacity];
+    this.mask = capacity - 1;
+    this.published = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      slots[i] = new Slot();
+      published.set(i, -1);
+    }
+
+    this.applyStage = new Stage("pipeline-apply", null, this::apply);
+    this.journalStage = new Stage("pipeline-journal", applyStage, this::journal);
+    this.indexStage = new Stage("pipeline-index", journalStage, this::index);
+    applyStage.thread.start();
+    journalStage.thread.start();
+    indexStage.thread.start();
+  }
+
+  /**
+   * Publishes a deposit or withdrawal, waiting for a free slot if the ring is full. Requests that
+   * fail validation are counted by {@link #getRejectedCount()} and passed to the failure handler
+   * rather than reported here.
+   *
+   * @return the request's sequence number, for {@link #awaitProcessed}
+   * @throws IllegalArgumentException if the type is not DEPOSIT or WITHDRAWAL
+   * @throws RejectedExecutionException if the pipeline is closed
+   */
+  public long publish(String accountNumber, TransactionType type, double amount) {
+    if (type != TransactionType.DEPOSIT && type != TransactionType.WITHDRAWAL) {
+      throw new IllegalArgumentException("Pipeline only handles deposits and withdrawals.");
+    }
+    if (!running) {
+      throw new RejectedExecutionException("Pipeline is closed.");
+    }
+    long sequence = claimed.incrementAndGet();
+    while (sequence - slots.length > indexStage.cursor) {
+      idle();
+    }
+    Slot slot = slots[(int) sequence & mask];
+    slot.accountNumber = accountNumber;
+    slot.type = type;
+    slot.amount = amount;
+    slot.transaction = null;
+    slot.failure = null;
+    slot.journaled = false;
+    published.set((int) sequence & mask, sequence);
+    return sequence;
+  }
+
+  /** Waits until the request with the given sequence, and all before it, has been indexed. */
+  public void awaitProcessed(long sequence) {
+    while (indexStage.cursor < sequence) {
+      idle();
+    }
+  }
+
+  /** Returns the number of requests applied to their account so far. */
+  public long getAppliedCount() {
+    return appliedCount;
+  }
+
+  /** Returns the number of requests that failed validation or were refused by the account. */
+  public long getRejectedCount() {
+    return rejectedCount;
+  }
+
+  /** Processes everything already published, then stops the stage threads. */
+  @Override
+  public void close() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    awaitProcessed(claimed.get());
+    for (Stage stage : List.of(applyStage, journalStage, indexStage)) {
+      stage.stopped = true;
+      LockSupport.unpark(stage.thread);
+      try {
+        stage.thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  private void apply(long from, long to) {
+    for (long sequence = from; sequence <= to; sequence++) {
+      Slot slot = slots[(int) sequence & mask];
+      try {
+        ValidationUtils.validateDepositCents(MoneyUtils.toCents(slot.amount));
+        Account account = accountManager.findAccount(slot.accountNumber);
+        double balance = account.processTransaction(slot.amount, slot.type);
+        slot.transaction = new Transaction(slot.accountNumber, slot.type, slot.amount, balance);
+        appliedCount++;
+      } catch (Exception e) {
+        slot.transaction = null;
+        slot.failure = e;
+        rejectedCount++;
+      }
+    }
+  }
+
+  private void journal(long from, long to) {
+    for (long sequence = from; sequence <= to; sequence++) {
+      Transaction transaction = slots[(int) sequence & mask].transaction;
+      if (transaction != null) {
+        journalBatch.add(transaction);
+      }
+    }
+    if (journalBatch.isEmpty()) {
+      return;
+    }
+    try {
+      transactionManager.journalTransactions(journalBatch);
+      for (long sequence = from; sequence <= to; sequence++) {
+        Slot slot = slots[(int) sequence & mask];
+        slot.journaled = slot.transaction != null;
+      }
+    } catch (RuntimeException e) {
+      for (long sequence = from; sequence <= to; sequence++) {
+        Slot slot = slots[(int) sequence & mask];
+        if (slot.transaction != null) {
+          slot.failure = e;
+        }
+      }
+    } finally {
+      journalBatch.clear();
+    }
+  }
+
+  private void index(long from, long to) {
+    for (long sequence = from; sequence <= to; sequence++) {
+      Slot slot = slots[(int) sequence & mask];
+      try {
+        if (slot.transaction != null && slot.journaled) {
+          transactionManager.addJournaledTransaction(slot.transaction);
+        } else if (slot.transaction != null) {
+          // Not in the journal: index it as unsaved so the next save writes it
+          transactionManager.addTransaction(slot.transaction);
+        }
+      } catch (RuntimeException e) {
+        slot.failure = e;
+      }
+      if (slot.failure != null) {
+        reportFailure(sequence, slot.accountNumber, slot.failure);
+      }
+      slot.accountNumber = null;
+      slot.transaction = null;
+      slot.failure = null;
+    }
+  }
+
+  private void reportFailure(long sequence, String accountNumber, Exception cause) {
+    try {
+      failureHandler.onFailure(sequence, accountNumber, cause);
+    } catch (RuntimeException e) {
+      System.err.println("Error in pipeline failure handler: " + e.getMessage());
+    }
+  }
+
+  /** Returns the highest sequence the apply stage may take: the end of the published run. */
+  private long highestPublished(long next) {
+    long limit = claimed.get();
+    long sequence = next;
+    while (sequence <= limit && published.get((int) sequence & mask) == sequence) {
+      sequence++;
+    }
+    return sequence - 1;
+  }
+
+  private void idle() {
+    if (waitStrategy == WaitStrategy.BUSY_SPIN) {
+      Thread.onSpinWait();
+    } else {
+      LockSupport.parkNanos(PARK_NANOS);
+    }
+  }
+
+  /** A reusable request slot. Fields are handed between stages through the stage cursors. */
+  private static final class Slot {
+    String accountNumber;
+    TransactionType type;
+    double amount;
+    Transaction transaction;
+    Exception failure;
+    boolean journaled;
+  }
+
+  @FunctionalInterface
+  private interface BatchHandler {
+    void handle(long from, long to);
+  }
+
+  /** One consumer thread, handling every slot its upstream stage has finished in one batch. */
+  private final class Stage implements Runnable {
+    private final Stage upstream;
+    private final BatchHandler handler;
+    private final Thread thread;
+    private volatile long cursor = -1;
+    private volatile boolean stopped;
+
+    Stage(String name, Stage upstream, BatchHandler handler) {
+      this.upstream = upstream;
+      this.handler = handler;
+      this.thread = new Thread(this, name);
+      this.thread.setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      while (!stopped) {
+        long next = cursor + 1;
+        long available = upstream == null ? highestPublished(next) : upstream.cursor;
+        if (available < next) {
+          idle();
+          continue;
+        }
+        try {
+          handler.handle(next, available);
+        } catch (RuntimeException e) {
+          // Handlers record failures per request; this only keeps the stage and its cursor moving
+          System.err.println("Error in " + thread.getName() + ": " + e.getMessage());
+        }
+        cursor = available;
+      }
+    }
+  }
+}
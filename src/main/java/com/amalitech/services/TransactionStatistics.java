@@ -0,0 +1,63 @@
+package com.amalitech.services;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.Transaction;
+import com.amalitech.utils.MoneyUtils;
+import java.util.EnumMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running counts and amount totals per {@link TransactionType}. Counters are striped adders, so
+ * threads recording transactions concurrently do not contend on a single field, and every read is
+ * O(1) regardless of how many transactions have been recorded. Totals are summed in cents, so they
+ * are exact whatever order transactions are recorded in.
+ */
+public class TransactionStatistics {
+
+  private final EnumMap<TransactionType, LongAdder> counts;
+  private final EnumMap<TransactionType, LongAdder> totalCents;
+
+  public TransactionStatistics() {
+    this.counts = new EnumMap<>(TransactionType.class);
+    this.totalCents = new EnumMap<>(TransactionType.class);
+    for (TransactionType type : TransactionType.values()) {
+      counts.put(type, new LongAdder());
+      totalCents.put(type, new LongAdder());
+    }
+  }
+
+  /** Adds a transaction to the running count and total for its type. */
+  public void record(Transaction transaction) {
+    counts.get(transaction.getType()).increment();
+    totalCents.get(transaction.getType()).add(transaction.getAmountCents());
+  }
+
+  /** Adds a precomputed count and total for one type, such as a stored segment summary. */
+  public void add(TransactionType type, long count, long totalCents) {
+    counts.get(type).add(count);
+    this.totalCents.get(type).add(totalCents);
+  }
+
+  public long getCount(TransactionType type) {
+    return counts.get(type).sum();
+  }
+
+  public double getTotal(TransactionType type) {
+    return MoneyUtils.toAmount(getTotalCents(type));
+  }
+
+  public long getTotalCents(TransactionType type) {
+    return totalCents.get(type).sum();
+  }
+
+  /** Returns the number of transactions recorded across all types. */
+  public long getTotalCount() {
+    return counts.values().stream().mapToLong(LongAdder::sum).sum();
+  }
+
+  /** Clears all counts and totals. */
+  public void reset() {
+    counts.values().forEach(LongAdder::reset);
+    totalCents.values().forEach(LongAdder::reset);
+  }
+}
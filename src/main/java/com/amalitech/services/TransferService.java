@@ -0,0 +1,58 @@
+package com.amalitech.services;
+
+import com.amalitech.models.Transaction;
+import com.amalitech.models.TransferRequest;
+import com.amalitech.models.TransferResult;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves money between accounts and records the resulting ledger entries. The debit and credit
+ * records are created together with the balance movement, then added to the history and journaled
+ * in a single write, so a transfer's two entries are never persisted separately.
+ */
+public class TransferService {
+
+  private final AccountManager accountManager;
+  private final TransactionManager transactionManager;
+
+  public TransferService(AccountManager accountManager, TransactionManager transactionManager) {
+    this.accountManager = accountManager;
+    this.transactionManager = transactionManager;
+  }
+
+  /**
+   * Transfers funds and records the TRANSFER_OUT and TRANSFER_IN transactions.
+   *
+   * @param fromAccountNumber the source account number
+   * @param toAccountNumber the destination account number
+   * @param amount the amount to transfer
+   * @return the debit and credit records, in that order
+   * @throws Exception if the transfer fails; nothing is recorded in that case
+   */
+  public List<Transaction> transfer(String fromAccountNumber, String toAccountNumber, double amount)
+      throws Exception {
+    List<Transaction> entries = accountManager.transfer(fromAccountNumber, toAccountNumber, amount);
+    transactionManager.recordTransactions(entries);
+    return entries;
+  }
+
+  /**
+   * Applies a batch of transfers and records the entries of every successful one in a single
+   * journal write.
+   *
+   * @param requests the transfers to apply
+   * @return one result per request, in request order
+   */
+  public List<TransferResult> transferBatch(List<TransferRequest> requests) {
+    List<TransferResult> results = accountManager.transferBatch(requests);
+    List<Transaction> entries = new ArrayList<>();
+    for (TransferResult result : results) {
+      entries.addAll(result.getEntries());
+    }
+    if (!entries.isEmpty()) {
+      transactionManager.recordTransactions(entries);
+    }
+    return results;
+  }
+}
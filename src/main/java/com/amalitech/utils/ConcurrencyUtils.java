@@ -1,11 +1,15 @@
 package com.amalitech.utils;
 
 import com.amalitech.models.Account;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ConcurrencyUtils {
+
+  private static final int BENCHMARK_ROUNDS = 4;
   
   private ConcurrencyUtils() {
     // Private constructor to prevent instantiation
@@ -63,4 +67,139 @@ public class ConcurrencyUtils {
     System.err.println("Simulation encountered an error: " + e.getMessage());
   }
   }
+
+  /**
+   * Timings from {@link #runContentionBenchmark}: the fastest run of each variant, in nanoseconds
+   * for the same workload, and how many operations failed across all timed runs.
+   */
+  public record BenchmarkResult(
+      long operations, long lockFreeNanos, long synchronizedNanos, long failures) {
+
+    /** Returns how many times faster the lock-free path was than the monitor-based one. */
+    public double speedup() {
+      return lockFreeNanos == 0 ? 0 : (double) synchronizedNanos / lockFreeNanos;
+    }
+  }
+
+  /**
+   * Measures balance updates under contention through the account's lock-free compare-and-set
+   * path and through a balance whose deposit and withdraw are synchronized methods, as they were
+   * before the account became lock-free. Each thread alternates a deposit and a withdrawal of 10.0,
+   * so the balance is unchanged after each run.
+   *
+   * <p>Both variants run once untimed to warm up, then {@value #BENCHMARK_ROUNDS} timed rounds
+   * alternate which variant goes first, and the fastest run of each is reported.
+   *
+   * @param account the account to update; the monitor-based balance starts from its balance
+   * @param threads number of concurrent threads
+   * @param operationsPerThread deposits plus withdrawals performed by each thread
+   * @return the fastest elapsed time of each variant and the number of failed operations
+   */
+  public static BenchmarkResult runContentionBenchmark(
+      Account account, int threads, int operationsPerThread) throws InterruptedException {
+    BalanceUpdater lockFree = new LockFreeUpdater(account);
+    BalanceUpdater monitor = new MonitorBalance(account.getBalanceCents());
+    AtomicLong failures = new AtomicLong();
+
+    timeContendedUpdates(lockFree, threads, operationsPerThread, new AtomicLong());
+    timeContendedUpdates(monitor, threads, operationsPerThread, new AtomicLong());
+
+    long lockFreeNanos = Long.MAX_VALUE;
+    long synchronizedNanos = Long.MAX_VALUE;
+    for (int run = 0; run < 2 * BENCHMARK_ROUNDS; run++) {
+      // Runs go lock-free, monitor, monitor, lock-free, ... so neither always follows the other
+      boolean runLockFree = (run % 2 == 0) == (run / 2 % 2 == 0);
+      long nanos =
+          timeContendedUpdates(
+              runLockFree ? lockFree : monitor, threads, operationsPerThread, failures);
+      if (runLockFree) {
+        lockFreeNanos = Math.min(lockFreeNanos, nanos);
+      } else {
+        synchronizedNanos = Math.min(synchronizedNanos, nanos);
+      }
+    }
+    return new BenchmarkResult(
+        (long) threads * operationsPerThread, lockFreeNanos, synchronizedNanos, failures.get());
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  /** One deposit or withdrawal of a fixed amount, in cents. */
+  private interface BalanceUpdater {
+    void deposit(long amountCents) throws Exception;
+
+    void withdraw(long amountCents) throws Exception;
+  }
+
+  private record LockFreeUpdater(Account account) implements BalanceUpdater {
+    @Override
+    public void deposit(long amountCents) throws Exception {
+      account.depositCents(amountCents);
+    }
+
+    @Override
+    public void withdraw(long amountCents) throws Exception {
+      account.withdraw(MoneyUtils.toAmount(amountCents));
+    }
+  }
+
+  /** A balance guarded by its monitor, updated the way accounts were before compare-and-set. */
+  private static final class MonitorBalance implements BalanceUpdater {
+    private long balanceCents;
+
+    MonitorBalance(long balanceCents) {
+      this.balanceCents = balanceCents;
+    }
+
+    @Override
+    public synchronized void deposit(long amountCents) throws Exception {
+      ValidationUtils.validateDepositCents(amountCents);
+      balanceCents += amountCents;
+    }
+
+    @Override
+    public synchronized void withdraw(long amountCents) throws Exception {
+      ValidationUtils.validateCheckingWithdrawalCents(amountCents, balanceCents, 0);
+      balanceCents -= amountCents;
+    }
+  }
+
+  private static long timeContendedUpdates(
+      BalanceUpdater updater, int threads, int operationsPerThread, AtomicLong failures)
+      throws InterruptedException {
+    long amountCents = MoneyUtils.toCents(10.0);
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(threads);
+    try (ExecutorService service = Executors.newFixedThreadPool(threads)) {
+      for (int t = 0; t < threads; t++) {
+        service.submit(
+            () -> {
+              long failed = 0; // Counted locally so the timed loop does no shared writes or I/O
+              try {
+                start.await();
+                for (int i = 0; i < operationsPerThread; i++) {
+                  try {
+                    if (i % 2 == 0) {
+                      updater.deposit(amountCents);
+                    } else {
+                      updater.withdraw(amountCents);
+                    }
+                  } catch (Exception e) {
+                    failed++;
+                  }
+                }
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              } finally {
+                failures.addAndGet(failed);
+                done.countDown();
+              }
+            });
+      }
+      long began = System.nanoTime();
+      start.countDown();
+      done.await();
+      return System.nanoTime() - began;
+    }
+  }
 }
@@ -20,6 +20,7 @@ public class CustomTestRunner {
     LauncherDiscoveryRequest request =
         LauncherDiscoveryRequestBuilder.request()
             .selectors(
+                selectPackage("com.amalitech.main"),
                 selectPackage("com.amalitech.models"),
                 selectPackage("com.amalitech.services"),
                 selectPackage("com.amalitech.utils"))
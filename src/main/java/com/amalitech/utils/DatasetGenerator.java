@@ -0,0 +1,382 @@
+package com.amalitech.utils;
+
+import com.amalitech.constants.PersistenceFormat;
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.Account;
+import com.amalitech.models.CheckingAccount;
+import com.amalitech.models.Customer;
+import com.amalitech.models.PremiumCustomer;
+import com.amalitech.models.RegularCustomer;
+import com.amalitech.models.SavingsAccount;
+import com.amalitech.models.Transaction;
+import com.amalitech.services.BinarySnapshotPersistenceService;
+import com.amalitech.services.FilePersistenceService;
+import com.amalitech.services.PersistenceService;
+import com.amalitech.services.SegmentedPersistenceService;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic customers, accounts and transaction histories for benchmarks and load tests.
+ * Output depends only on the seed and the requested sizes, so the same arguments always produce
+ * the same dataset.
+ *
+ * <p>Histories are consistent: every record's balance-after follows from the account's previous
+ * balance, savings accounts never drop below their minimum and checking accounts stay within the
+ * overdraft limit, and the accounts end with the balance of their last record. Records are in time
+ * order over the {@code days} before a fixed end date, with fewer on weekends and most during
+ * business hours. A few accounts are much busier than the rest, and amounts are log-normal.
+ *
+ * <p>Run {@code java -cp target/classes com.amalitech.utils.DatasetGenerator <directory>
+ * [customers accounts transactions [seed [CSV|BINARY|SEGMENTED|ARCHIVED]]]} to write a dataset in
+ * any {@link PersistenceFormat}. Segmented datasets are loaded once after writing, so the journal
+ * is folded into monthly segments and, for ARCHIVED, closed months are compressed.
+ */
+public final class DatasetGenerator {
+
+  public static final long DEFAULT_SEED = 42L;
+  public static final int DEFAULT_DAYS = 365;
+
+  private static final int CHUNK_SIZE = 100_000;
+  private static final long END_MILLIS = 1_735_689_600_000L; // 2025-01-01T00:00:00Z
+  private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+  private static final long HOUR_MILLIS = 60L * 60 * 1000;
+  // 2025-01-01 was a Wednesday; index 0 = Monday
+  private static final int END_DAY_OF_WEEK = 2;
+  private static final double WEEKEND_WEIGHT = 0.6;
+  private static final double[] HOURLY_WEIGHTS = {
+    1, 1, 1, 1, 1, 2, 4, 8, 12, 14, 15, 15, 16, 15, 14, 14, 15, 16, 13, 10, 7, 5, 3, 2
+  };
+
+  private static final double SAVINGS_SHARE = 0.4;
+  private static final double SAVINGS_OPENING_FLOOR = 500.0;
+  private static final double PREMIUM_SHARE = 0.1;
+  private static final double DEPOSIT_SHARE = 0.45;
+  private static final double WITHDRAWAL_SHARE = 0.35;
+  private static final double MEDIAN_AMOUNT_CENTS = 8_000;
+  private static final double AMOUNT_SIGMA = 1.1;
+  private static final long MAX_AMOUNT_CENTS = 5_000_000;
+
+  private static final String[] FIRST_NAMES = {
+    "Alice", "Bob", "Carol", "David", "Efua", "Femi", "Grace", "Hassan", "Ivy", "Kwame", "Lina",
+    "Musa", "Nana", "Ola", "Priya", "Rui", "Sara", "Tariq", "Uche", "Yaw"
+  };
+  private static final String[] LAST_NAMES = {
+    "Mensah", "Owusu", "Smith", "Boateng", "Garcia", "Adeyemi", "Chen", "Osei", "Patel", "Nkosi",
+    "Kim", "Asante", "Brown", "Diallo", "Silva", "Okafor"
+  };
+  private static final String[] STREETS = {
+    "Pine St", "Oak Ave", "Maple Rd", "Cedar Ln", "Elm St", "Ring Rd", "Liberation Rd"
+  };
+
+  private final long seed;
+  private final int days;
+
+  /** Receives generated transactions in time-ordered chunks. */
+  @FunctionalInterface
+  public interface TransactionSink {
+    void accept(List<Transaction> chunk) throws IOException;
+  }
+
+  /** Sizes of a written dataset. */
+  public record Summary(int customers, int accounts, long transactions) {}
+
+  /** Creates a generator for histories spanning {@link #DEFAULT_DAYS}. */
+  public DatasetGenerator(long seed) {
+    this(seed, DEFAULT_DAYS);
+  }
+
+  /**
+   * Creates a generator.
+   *
+   * @param seed the seed every generated value derives from
+   * @param days number of days the transaction history spans
+   */
+  public DatasetGenerator(long seed, int days) {
+    if (days < 1) {
+      throw new IllegalArgumentException("Days must be positive: " + days);
+    }
+    this.seed = seed;
+    this.days = days;
+  }
+
+  /** Generates customers with IDs {@code CUS001} upwards, about one in ten premium. */
+  public HashMap<String, Customer> generateCustomers(int count) {
+    SplittableRandom random = new SplittableRandom(seed);
+    HashMap<String, Customer> customers = new LinkedHashMap<>();
+    for (int i = 1; i <= count; i++) {
+      String id = "CUS" + padded(i);
+      String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+      String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+      int age = random.nextInt(18, 90);
+      String contact = String.valueOf(random.nextLong(2_000_000_000L, 10_000_000_000L));
+      String address = random.nextInt(1, 999) + " " + STREETS[random.nextInt(STREETS.length)];
+      String email = (first + "." + last + i + "@example.com").toLowerCase();
+      String name = first + " " + last;
+      customers.put(
+          id,
+          random.nextDouble() < PREMIUM_SHARE
+              ? new PremiumCustomer(id, name, age, contact, address, email)
+              : new RegularCustomer(id, name, age, contact, address, email));
+    }
+    return customers;
+  }
+
+  /**
+   * Generates accounts with numbers {@code ACC001} upwards, spread over the customers, about 40%
+   * savings and the rest checking, with opening balances.
+   */
+  public LinkedHashMap<String, Account> generateAccounts(
+      Map<String, Customer> customers, int count) {
+    if (customers.isEmpty() && count > 0) {
+      throw new IllegalArgumentException("Accounts need at least one customer.");
+    }
+    SplittableRandom random = new SplittableRandom(seed + 1);
+    List<Customer> owners = new ArrayList<>(customers.values());
+    LinkedHashMap<String, Account> accounts = new LinkedHashMap<>();
+    for (int i = 1; i <= count; i++) {
+      String number = "ACC" + padded(i);
+      Customer owner = owners.get(random.nextInt(owners.size()));
+      double opening = MoneyUtils.toAmount(amountCents(random) * 10);
+      accounts.put(
+          number,
+          random.nextDouble() < SAVINGS_SHARE
+              ? new SavingsAccount(number, owner, SAVINGS_OPENING_FLOOR + opening)
+              : new CheckingAccount(number, owner, opening));
+    }
+    return accounts;
+  }
+
+  /**
+   * Generates a history in memory. See {@link #generateTransactions(Map, long, TransactionSink)}.
+   */
+  public List<Transaction> generateTransactions(Map<String, Account> accounts, int count) {
+    List<Transaction> transactions = new ArrayList<>(count);
+    try {
+      generateTransactions(accounts, count, transactions::addAll);
+    } catch (IOException e) {
+      throw new IllegalStateException("In-memory sink cannot fail", e);
+    }
+    return transactions;
+  }
+
+  /**
+   * Generates {@code count} transaction records over the accounts, oldest first, handing them to
+   * the sink in chunks so histories far larger than the heap can be written. Each transfer yields
+   * a TRANSFER_OUT and TRANSFER_IN record. Account balances are updated to match the history.
+   *
+   * @param accounts the accounts to generate activity for
+   * @param count number of records to generate
+   * @param sink receives the records in time order
+   * @throws IOException if the sink fails
+   */
+  public void generateTransactions(Map<String, Account> accounts, long count, TransactionSink sink)
+      throws IOException {
+    if (accounts.isEmpty() || count <= 0) {
+      return;
+    }
+    SplittableRandom random = new SplittableRandom(seed + 2);
+    Account[] byIndex = accounts.values().toArray(new Account[0]);
+    long[] balances = new long[byIndex.length];
+    long[] floors = new long[byIndex.length];
+    for (int i = 0; i < byIndex.length; i++) {
+      balances[i] = byIndex[i].getBalanceCents();
+      floors[i] =
+          byIndex[i] instanceof SavingsAccount savings
+              ? MoneyUtils.toCents(savings.getMinimumBalance())
+              : -MoneyUtils.toCents(((CheckingAccount) byIndex[i]).getOverdraftLimit());
+    }
+
+    long[] perDay = recordsPerDay(count);
+    long startMillis = END_MILLIS - days * DAY_MILLIS;
+    List<Transaction> chunk = new ArrayList<>(CHUNK_SIZE + 1);
+    long nextId = 1;
+    for (int day = 0; day < days; day++) {
+      long[] times = timesOfDay(random, startMillis + day * DAY_MILLIS, perDay[day]);
+      int t = 0;
+      while (t < times.length) {
+        int account = pickAccount(random, byIndex.length);
+        long amount = amountCents(random);
+        double kind = random.nextDouble();
+        boolean canDebit = balances[account] - amount >= floors[account];
+
+        if (kind >= DEPOSIT_SHARE + WITHDRAWAL_SHARE
+            && canDebit
+            && byIndex.length > 1
+            && t + 1 < times.length) {
+          int target = (account + 1 + random.nextInt(byIndex.length - 1)) % byIndex.length;
+          balances[account] -= amount;
+          balances[target] += amount;
+          Account from = byIndex[account];
+          Account to = byIndex[target];
+          TransactionType out = TransactionType.TRANSFER_OUT;
+          TransactionType in = TransactionType.TRANSFER_IN;
+          chunk.add(record(nextId++, from, out, amount, balances[account], times[t]));
+          chunk.add(record(nextId++, to, in, amount, balances[target], times[t]));
+          t += 2;
+        } else {
+          // Withdrawals the account cannot cover become deposits
+          boolean withdrawal = kind >= DEPOSIT_SHARE && canDebit;
+          TransactionType type = withdrawal ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT;
+          balances[account] += withdrawal ? -amount : amount;
+          chunk.add(record(nextId++, byIndex[account], type, amount, balances[account], times[t]));
+          t++;
+        }
+
+        if (chunk.size() >= CHUNK_SIZE) {
+          sink.accept(chunk);
+          chunk = new ArrayList<>(CHUNK_SIZE + 1);
+        }
+      }
+    }
+    if (!chunk.isEmpty()) {
+      sink.accept(chunk);
+    }
+
+    for (int i = 0; i < byIndex.length; i++) {
+      byIndex[i].setBalanceCents(balances[i]);
+    }
+  }
+
+  /**
+   * Generates a full dataset and writes it through the given service, replacing any data it holds.
+   * Transactions are appended chunk by chunk.
+   *
+   * @throws IOException if writing fails
+   */
+  public Summary writeDataset(
+      PersistenceService target, int customerCount, int accountCount, long transactionCount)
+      throws IOException {
+    HashMap<String, Customer> customers = generateCustomers(customerCount);
+    LinkedHashMap<String, Account> accounts = generateAccounts(customers, accountCount);
+    target.saveCustomers(customers);
+    target.saveTransactions(new ArrayList<>());
+    generateTransactions(accounts, transactionCount, target::appendTransactions);
+    target.saveAccounts(accounts);
+    return new Summary(customers.size(), accounts.size(), transactionCount);
+  }
+
+  /**
+   * Writes a dataset from the command line.
+   *
+   * @param args directory, then optionally customers, accounts, transactions, seed and format
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.out.println(
+          "Usage: DatasetGenerator <directory> [customers accounts transactions [seed [format]]]");
+      return;
+    }
+    String directory = args[0].endsWith("/") ? args[0] : args[0] + "/";
+    int customers = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+    int accounts = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+    long transactions = args.length > 3 ? Long.parseLong(args[3]) : 1_000_000L;
+    long seed = args.length > 4 ? Long.parseLong(args[4]) : DEFAULT_SEED;
+    PersistenceFormat format =
+        args.length > 5 ? PersistenceFormat.valueOf(args[5].toUpperCase()) : PersistenceFormat.CSV;
+
+    PersistenceService target =
+        switch (format) {
+          case CSV -> new FilePersistenceService(directory, CHUNK_SIZE);
+          case BINARY -> new BinarySnapshotPersistenceService(directory);
+          case SEGMENTED -> new SegmentedPersistenceService(directory);
+          case ARCHIVED ->
+              new SegmentedPersistenceService(
+                  directory,
+                  SegmentedPersistenceService.DEFAULT_HOT_MONTHS,
+                  SegmentedPersistenceService.DEFAULT_CACHED_SEGMENTS,
+                  true);
+        };
+    long began = System.nanoTime();
+    Summary summary =
+        new DatasetGenerator(seed).writeDataset(target, customers, accounts, transactions);
+    if (target instanceof SegmentedPersistenceService segmented) {
+      // Fold the journal into segments now rather than on the application's first load
+      segmented.loadTransactions();
+    }
+    System.out.printf(
+        "Wrote %d customers, %d accounts and %d transactions as %s to %s in %.1f s\n",
+        summary.customers(),
+        summary.accounts(),
+        summary.transactions(),
+        format,
+        directory,
+        (System.nanoTime() - began) / 1_000_000_000.0);
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  /** Splits the record count over the days, weekends getting a smaller share. */
+  private long[] recordsPerDay(long count) {
+    double[] weights = new double[days];
+    double total = 0;
+    for (int day = 0; day < days; day++) {
+      int dayOfWeek = Math.floorMod(END_DAY_OF_WEEK - days + day, 7);
+      weights[day] = dayOfWeek >= 5 ? WEEKEND_WEIGHT : 1.0;
+      total += weights[day];
+    }
+    long[] perDay = new long[days];
+    long assigned = 0;
+    for (int day = 0; day < days; day++) {
+      perDay[day] = (long) (count * weights[day] / total);
+      assigned += perDay[day];
+    }
+    for (int day = 0; assigned < count; day = (day + 1) % days) {
+      perDay[day]++;
+      assigned++;
+    }
+    return perDay;
+  }
+
+  /** Returns sorted record times within one day, weighted towards business hours. */
+  private static long[] timesOfDay(SplittableRandom random, long dayStart, long count) {
+    double total = Arrays.stream(HOURLY_WEIGHTS).sum();
+    long[] times = new long[Math.toIntExact(count)];
+    for (int i = 0; i < times.length; i++) {
+      double pick = random.nextDouble() * total;
+      int hour = 0;
+      while (hour < HOURLY_WEIGHTS.length - 1 && pick >= HOURLY_WEIGHTS[hour]) {
+        pick -= HOURLY_WEIGHTS[hour];
+        hour++;
+      }
+      times[i] = dayStart + hour * HOUR_MILLIS + random.nextLong(HOUR_MILLIS);
+    }
+    Arrays.sort(times);
+    return times;
+  }
+
+  /** Picks an account, favoring low indices so a few accounts are much busier than the rest. */
+  private static int pickAccount(SplittableRandom random, int accounts) {
+    double r = random.nextDouble();
+    return (int) (accounts * r * r);
+  }
+
+  /** Returns a log-normal amount in whole cents, between 1.00 and 50,000.00. */
+  private static long amountCents(SplittableRandom random) {
+    double cents = MEDIAN_AMOUNT_CENTS * Math.exp(AMOUNT_SIGMA * random.nextGaussian());
+    return Math.max(100, Math.min(MAX_AMOUNT_CENTS, Math.round(cents)));
+  }
+
+  private static Transaction record(
+      long id, Account account, TransactionType type, long amount, long balance, long time) {
+    return new Transaction(
+        "TXN" + padded(id),
+        account.getAccountNumber(),
+        type,
+        MoneyUtils.toAmount(amount),
+        MoneyUtils.toAmount(balance),
+        time);
+  }
+
+  /** Formats a number with at least three digits, matching generated IDs. */
+  private static String padded(long number) {
+    String digits = Long.toString(number);
+    return digits.length() >= 3 ? digits : "000".substring(digits.length()) + digits;
+  }
+}
@@ -0,0 +1,52 @@
+package com.amalitech.utils;
+
+/**
+ * Utility class for fixed-point money arithmetic. Amounts are held as a {@code long} number of
+ * cents, so sums and comparisons are exact and cheaper than {@code BigDecimal}; {@code double}
+ * values only appear at the edges, when reading user input or displaying results.
+ */
+public final class MoneyUtils {
+
+  public static final long CENTS_PER_UNIT = 100;
+
+  private MoneyUtils() {
+    // Private constructor to prevent instantiation
+  }
+
+  /**
+   * Converts a decimal amount to cents, rounding to the nearest cent.
+   *
+   * @param amount The amount in currency units.
+   * @return The amount in cents.
+   * @throws IllegalArgumentException if the amount is not finite or too large to represent.
+   */
+  public static long toCents(double amount) {
+    if (!Double.isFinite(amount) || Math.abs(amount) >= Long.MAX_VALUE / CENTS_PER_UNIT) {
+      throw new IllegalArgumentException("Amount out of range: " + amount);
+    }
+    return Math.round(amount * CENTS_PER_UNIT);
+  }
+
+  /** Converts cents to a decimal amount for display or legacy {@code double} APIs. */
+  public static double toAmount(long cents) {
+    return cents / (double) CENTS_PER_UNIT;
+  }
+
+  /**
+   * Formats cents as a plain decimal with two fraction digits, e.g. {@code -1234.05}. Unlike
+   * {@code String.format} this involves no floating point and no locale lookup.
+   */
+  public static String format(long cents) {
+    StringBuilder sb = new StringBuilder(24);
+    if (cents < 0) {
+      sb.append('-');
+    }
+    long units = Math.abs(cents / CENTS_PER_UNIT);
+    int fraction = (int) Math.abs(cents % CENTS_PER_UNIT);
+    sb.append(units).append('.');
+    if (fraction < 10) {
+      sb.append('0');
+    }
+    return sb.append(fraction).toString();
+  }
+}
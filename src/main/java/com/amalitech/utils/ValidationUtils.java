@@ -109,7 +109,17 @@ public class ValidationUtils {
    * @throws InvalidAmountException if invalid.
    */
   public static void validateDeposit(double amount) throws InvalidAmountException {
-    if (amount <= 0) {
+    validateDepositCents(MoneyUtils.toCents(amount));
+  }
+
+  /**
+   * Validates if the amount in cents is positive.
+   *
+   * @param amountCents The amount to validate, in cents.
+   * @throws InvalidAmountException if invalid.
+   */
+  public static void validateDepositCents(long amountCents) throws InvalidAmountException {
+    if (amountCents <= 0) {
       throw new InvalidAmountException("Invalid deposit amount. Must be positive.");
     }
   }
@@ -124,10 +134,28 @@ public class ValidationUtils {
    */
   public static void validateSavingsWithdrawal(double amount, double balance, double minimumBalance)
       throws InvalidAmountException, InsufficientFundsException {
-    if (amount <= 0) {
+    validateSavingsWithdrawalCents(
+        MoneyUtils.toCents(amount),
+        MoneyUtils.toCents(balance),
+        MoneyUtils.toCents(minimumBalance));
+  }
+
+  /**
+   * Validates if the amount in cents is positive and keeps the minimum balance.
+   *
+   * @param amountCents The amount to validate, in cents.
+   * @param balanceCents The current balance, in cents.
+   * @param minimumBalanceCents The minimum balance, in cents.
+   * @throws InvalidAmountException if invalid.
+   * @throws InsufficientFundsException if insufficient funds.
+   */
+  public static void validateSavingsWithdrawalCents(
+      long amountCents, long balanceCents, long minimumBalanceCents)
+      throws InvalidAmountException, InsufficientFundsException {
+    if (amountCents <= 0) {
       throw new InvalidAmountException("Invalid withdrawal amount. Must be positive.");
     }
-    if (amount > balance - minimumBalance) {
+    if (amountCents > balanceCents - minimumBalanceCents) {
       throw new InsufficientFundsException("Insufficient funds for this withdrawal. Minimum balance must be maintained.");
     }
   }
@@ -144,10 +172,28 @@ public class ValidationUtils {
   public static void validateCheckingWithdrawal(
       double amount, double balance, double overdraftLimit)
       throws InvalidAmountException, OverdraftLimitExceededException {
-    if (amount <= 0) {
+    validateCheckingWithdrawalCents(
+        MoneyUtils.toCents(amount),
+        MoneyUtils.toCents(balance),
+        MoneyUtils.toCents(overdraftLimit));
+  }
+
+  /**
+   * Validates if the amount in cents is positive and does not exceed the overdraft limit.
+   *
+   * @param amountCents The amount to validate, in cents.
+   * @param balanceCents The current balance, in cents.
+   * @param overdraftLimitCents The overdraft limit, in cents.
+   * @throws InvalidAmountException if invalid.
+   * @throws OverdraftLimitExceededException if overdraft limit exceeded.
+   */
+  public static void validateCheckingWithdrawalCents(
+      long amountCents, long balanceCents, long overdraftLimitCents)
+      throws InvalidAmountException, OverdraftLimitExceededException {
+    if (amountCents <= 0) {
       throw new InvalidAmountException("Invalid withdrawal amount. Must be positive.");
     }
-    if (amount - balance > overdraftLimit) {
+    if (amountCents - balanceCents > overdraftLimitCents) {
       throw new OverdraftLimitExceededException("Withdrawal exceeds overdraft limit.");
     }
   }
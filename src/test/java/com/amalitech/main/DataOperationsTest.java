@@ -0,0 +1,114 @@
+package com.amalitech.main;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.*;
+import com.amalitech.services.AccountManager;
+import com.amalitech.services.CustomerManager;
+import com.amalitech.services.FilePersistenceService;
+import com.amalitech.services.TransactionManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for DataOperations. */
+class DataOperationsTest {
+
+  private static final String TEST_DATA_DIR = "target/test-load-data/";
+
+  private final PrintStream originalOut = System.out;
+  private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(Paths.get(TEST_DATA_DIR));
+    FilePersistenceService persistenceService = new FilePersistenceService(TEST_DATA_DIR);
+    Customer customer =
+        new RegularCustomer("Alice", 28, "555-0101", "321 Pine St", "alice@example.com");
+    HashMap<String, Customer> customers = new HashMap<>();
+    customers.put(customer.getCustomerId(), customer);
+    persistenceService.saveCustomers(customers);
+    persistenceService.saveAccounts(
+        Map.of("ACC701", new SavingsAccount("ACC701", customer, 1000.0)));
+    persistenceService.saveTransactions(
+        List.of(
+            new Transaction("ACC701", TransactionType.DEPOSIT, 1000.0, 1000.0),
+            new Transaction("ACC701", TransactionType.WITHDRAWAL, 100.0, 900.0)));
+    System.setOut(new PrintStream(output));
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    System.setOut(originalOut);
+    try (var files = Files.list(Paths.get(TEST_DATA_DIR))) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Test
+  void testLoadAllDataLoadsTransactionsOnSeparateThread() {
+    FilePersistenceService persistenceService = new FilePersistenceService(TEST_DATA_DIR);
+    AtomicReference<String> loaderThread = new AtomicReference<>();
+    TransactionManager transactionManager =
+        new TransactionManager(persistenceService) {
+          @Override
+          public void loadTransactions() {
+            loaderThread.set(Thread.currentThread().getName());
+            super.loadTransactions();
+          }
+        };
+    CustomerManager customerManager = new CustomerManager(persistenceService);
+    AccountManager accountManager = new AccountManager(customerManager, persistenceService);
+
+    DataOperations.loadAllData(accountManager, customerManager, transactionManager);
+
+    assertEquals("transaction-load", loaderThread.get());
+    assertEquals(1, customerManager.getCustomerCount());
+    assertEquals(2, transactionManager.getTransactionCount());
+    // Accounts load after customers, so each is linked to its loaded customer
+    Account account = accountManager.getAccountsSnapshot().get(0);
+    assertEquals("Alice", account.getCustomer().getName());
+    assertTrue(
+        output
+            .toString()
+            .matches(
+                "(?s).*Load times: customers \\d+ ms, accounts \\d+ ms, transactions \\d+ ms,"
+                    + " total \\d+ ms.*"));
+  }
+
+  @Test
+  void testTransactionLoadFailureIsPropagated() {
+    FilePersistenceService persistenceService = new FilePersistenceService(TEST_DATA_DIR);
+    TransactionManager transactionManager =
+        new TransactionManager(persistenceService) {
+          @Override
+          public void loadTransactions() {
+            throw new IllegalStateException("history unavailable");
+          }
+        };
+    CustomerManager customerManager = new CustomerManager(persistenceService);
+    AccountManager accountManager = new AccountManager(customerManager, persistenceService);
+
+    IllegalStateException failure =
+        assertThrows(
+            IllegalStateException.class,
+            () -> DataOperations.loadAllData(accountManager, customerManager, transactionManager));
+    assertEquals("history unavailable", failure.getMessage());
+    // The customer and account chain still finished before the failure was reported
+    assertEquals(1, accountManager.getAccountCount());
+    assertFalse(output.toString().contains("Data loaded successfully!"));
+  }
+}
@@ -85,4 +85,13 @@ class SavingsAccountTest {
     // Just ensure no exceptions are thrown during display
     assertDoesNotThrow(() -> savingsAccount.displayAccountDetails());
   }
+
+  @Test
+  void testRepeatedSmallDepositsStayExact() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      savingsAccount.deposit(0.1);
+    }
+    assertEquals(100100L, savingsAccount.getBalanceCents());
+    assertEquals(1001.0, savingsAccount.getBalance());
+  }
 }
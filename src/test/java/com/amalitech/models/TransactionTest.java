@@ -3,6 +3,13 @@ package com.amalitech.models;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.amalitech.constants.TransactionType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.Test;
 
 /** Unit tests for Transaction including ID generation and timestamp creation. */
@@ -21,4 +28,43 @@ class TransactionTest {
     assertEquals(200.0, transaction.getBalanceAfter());
     assertNotNull(transaction.getTimestamp());
   }
+
+  @Test
+  void testTimestampIsStoredAsEpochMillis() {
+    Transaction transaction =
+        new Transaction(
+            "TXN900", "ACC001", TransactionType.DEPOSIT, 10.0, 10.0, "31-01-2025 23:59:59");
+
+    assertEquals(
+        Transaction.parseTimestamp("31-01-2025 23:59:59"), transaction.getTimestampMillis());
+    assertEquals("31-01-2025 23:59:59", transaction.getTimestamp());
+    assertTrue(
+        transaction.getTimestampMillis() < Transaction.parseTimestamp("01-02-2025 00:00:00"),
+        "Timestamps must compare chronologically, not lexically");
+  }
+
+  @Test
+  void testConcurrentlyCreatedTransactionsGetUniqueIds() throws Exception {
+    int threads = 8;
+    int perThread = 2_000;
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+    try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int i = 0; i < perThread; i++) {
+                    Transaction transaction =
+                        new Transaction("ACC001", TransactionType.DEPOSIT, 1.0, 1.0);
+                    ids.add(transaction.getTransactionId());
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+    assertEquals(threads * perThread, ids.size());
+  }
 }
@@ -0,0 +1,177 @@
+package com.amalitech.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.amalitech.exceptions.AccountNotFoundException;
+import com.amalitech.exceptions.InsufficientFundsException;
+import com.amalitech.models.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for AccountMailboxExecutor. */
+class AccountMailboxExecutorTest {
+
+  private static final String TEST_DATA_DIR = "target/test-mailbox-data/";
+
+  private AccountManager accountManager;
+  private TransactionManager transactionManager;
+  private Account checking;
+  private Account savings;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(Paths.get(TEST_DATA_DIR));
+    FilePersistenceService persistenceService = new FilePersistenceService(TEST_DATA_DIR);
+    accountManager =
+        new AccountManager(new CustomerManager(persistenceService), persistenceService);
+    transactionManager = new TransactionManager(persistenceService);
+
+    Customer customer =
+        new RegularCustomer("Alice", 28, "555-0101", "321 Pine St", "alice@example.com");
+    checking = new CheckingAccount("ACC801", customer, 1000.0);
+    savings = new SavingsAccount("ACC802", customer, 1000.0);
+    accountManager.addAccount(checking);
+    accountManager.addAccount(savings);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (var files = Files.list(Paths.get(TEST_DATA_DIR))) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Test
+  void testConcurrentDepositsGetDistinctRunningBalances() throws Exception {
+    List<CompletableFuture<Transaction>> futures = new ArrayList<>();
+    try (AccountMailboxExecutor executor =
+            new AccountMailboxExecutor(accountManager, transactionManager, 2);
+        ExecutorService callers = Executors.newFixedThreadPool(8)) {
+      List<CompletableFuture<CompletableFuture<Transaction>>> submissions = new ArrayList<>();
+      for (int i = 0; i < 500; i++) {
+        submissions.add(
+            CompletableFuture.supplyAsync(() -> executor.deposit("ACC801", 1.0), callers));
+      }
+      for (CompletableFuture<CompletableFuture<Transaction>> submission : submissions) {
+        futures.add(submission.get());
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+
+      assertEquals(1500.0, executor.getBalance("ACC801"));
+    }
+
+    Set<Double> balances = new TreeSet<>();
+    for (CompletableFuture<Transaction> future : futures) {
+      balances.add(future.get().getBalanceAfter());
+    }
+    assertEquals(500, balances.size());
+    assertEquals(1001.0, ((TreeSet<Double>) balances).first());
+    assertEquals(1500.0, ((TreeSet<Double>) balances).last());
+    assertEquals(1500.0, checking.getBalance());
+    assertEquals(500, transactionManager.getDepositCount());
+  }
+
+  @Test
+  void testWithdrawalsAreAppliedInSubmissionOrder() throws Exception {
+    try (AccountMailboxExecutor executor =
+        new AccountMailboxExecutor(accountManager, transactionManager, 1)) {
+      CompletableFuture<Transaction> first = executor.withdraw("ACC802", 400.0);
+      CompletableFuture<Transaction> second = executor.withdraw("ACC802", 400.0);
+
+      assertEquals(600.0, first.get().getBalanceAfter());
+      ExecutionException failure = assertThrows(ExecutionException.class, second::get);
+      assertInstanceOf(InsufficientFundsException.class, failure.getCause());
+      assertEquals(600.0, executor.getBalance("ACC802"));
+      assertEquals(1, transactionManager.getTransactionCount());
+    }
+  }
+
+  @Test
+  void testBalanceReflectsChangesMadeOutsideTheMailbox() throws Exception {
+    try (AccountMailboxExecutor executor =
+        new AccountMailboxExecutor(accountManager, transactionManager, 1)) {
+      executor.deposit("ACC801", 100.0).get();
+      assertEquals(1100.0, executor.getBalance("ACC801"));
+
+      checking.deposit(50.0);
+      assertEquals(1150.0, executor.getBalance("ACC801"));
+    }
+  }
+
+  @Test
+  void testUnknownAccountAndInvalidAmountFail() {
+    try (AccountMailboxExecutor executor =
+        new AccountMailboxExecutor(accountManager, transactionManager, 1)) {
+      ExecutionException missing =
+          assertThrows(ExecutionException.class, () -> executor.deposit("ACC999", 10.0).get());
+      assertInstanceOf(AccountNotFoundException.class, missing.getCause());
+      assertThrows(ExecutionException.class, () -> executor.deposit("ACC801", -5.0).get());
+      assertThrows(AccountNotFoundException.class, () -> executor.getBalance("ACC999"));
+    }
+    assertEquals(1000.0, checking.getBalance());
+  }
+
+  @Test
+  void testRecordFailureStillCompletesAppliedRequests() throws Exception {
+    FilePersistenceService persistenceService = new FilePersistenceService(TEST_DATA_DIR);
+    AtomicBoolean failNext = new AtomicBoolean(true);
+    TransactionManager failingManager =
+        new TransactionManager(persistenceService) {
+          @Override
+          public void recordTransactions(List<Transaction> newTransactions) {
+            if (failNext.getAndSet(false)) {
+              throw new IllegalStateException("journal unavailable");
+            }
+            super.recordTransactions(newTransactions);
+          }
+        };
+    PrintStream originalErr = System.err;
+    ByteArrayOutputStream errors = new ByteArrayOutputStream();
+    System.setErr(new PrintStream(errors));
+
+    try (AccountMailboxExecutor executor =
+        new AccountMailboxExecutor(accountManager, failingManager, 1)) {
+      // The deposit was applied, so its future reports it rather than inviting a retry
+      Transaction first = executor.deposit("ACC801", 10.0).get();
+      assertEquals(1010.0, first.getBalanceAfter());
+
+      Transaction next = executor.deposit("ACC801", 5.0).get();
+      assertEquals(1015.0, next.getBalanceAfter());
+      assertEquals(List.of(next), failingManager.getTransactions());
+    } finally {
+      System.setErr(originalErr);
+    }
+    assertEquals(1015.0, checking.getBalance());
+    assertTrue(errors.toString().contains("journal unavailable"));
+  }
+
+  @Test
+  void testRequestsAfterCloseAreRejected() {
+    AccountMailboxExecutor executor =
+        new AccountMailboxExecutor(accountManager, transactionManager, 1);
+    executor.close();
+
+    ExecutionException failure =
+        assertThrows(ExecutionException.class, () -> executor.deposit("ACC801", 10.0).get());
+    assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+  }
+}
@@ -9,6 +9,13 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -59,6 +66,8 @@ class AccountManagerTest {
           transactionsFile,
           "transactionId,accountNumber,type,amount,balanceAfter,timestamp\n".getBytes());
     }
+    Files.deleteIfExists(Paths.get("src/test/resources/data/accounts.delta"));
+    Files.deleteIfExists(Paths.get("src/test/resources/data/customers.delta"));
   }
 
   @Test
@@ -272,4 +281,203 @@ class AccountManagerTest {
         () ->
             accountManager.transfer(account.getAccountNumber(), account.getAccountNumber(), 100.0));
   }
+
+  @Test
+  void testConcurrentAddAccountsLosesNoInserts() throws Exception {
+    int writers = 16;
+    int accountsPerWriter = 500;
+    ExecutorService service = Executors.newFixedThreadPool(writers + 2);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+
+    for (int w = 0; w < writers; w++) {
+      int writer = w;
+      futures.add(
+          service.submit(
+              () -> {
+                start.await();
+                for (int i = 0; i < accountsPerWriter; i++) {
+                  String number = "ACC" + (100_000 + writer * accountsPerWriter + i);
+                  accountManager.addAccount(new CheckingAccount(number, customer, 1.0));
+                }
+                return null;
+              }));
+    }
+    // Readers aggregate while writers insert; iteration must never fail
+    for (int r = 0; r < 2; r++) {
+      futures.add(
+          service.submit(
+              () -> {
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                  accountManager.getTotalBalance();
+                  accountManager.getCheckingAccountCount();
+                }
+                return null;
+              }));
+    }
+
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(1, TimeUnit.MINUTES);
+    }
+    service.shutdown();
+
+    assertEquals(writers * accountsPerWriter, accountManager.getAccountCount());
+    assertEquals(writers * accountsPerWriter, accountManager.getCheckingAccountCount());
+    assertEquals(writers * accountsPerWriter * 1.0, accountManager.getTotalBalance());
+  }
+
+  @Test
+  void testAccountsSnapshotIsIndependentOfLaterInserts() {
+    accountManager.addAccount(new SavingsAccount(customer, 1000.0));
+    List<Account> snapshot = accountManager.getAccountsSnapshot();
+
+    accountManager.addAccount(new CheckingAccount(customer, 200.0));
+
+    assertEquals(1, snapshot.size());
+    assertEquals(2, accountManager.getAccountCount());
+  }
+
+  @Test
+  void testTransferBatchReportsPerItemResults() {
+    Account a = new CheckingAccount(customer, 1000.0);
+    Account b = new SavingsAccount(customer, 600.0);
+    Account c = new CheckingAccount(customer, 10.0);
+    accountManager.addAccount(a);
+    accountManager.addAccount(b);
+    accountManager.addAccount(c);
+
+    List<TransferResult> results =
+        accountManager.transferBatch(
+            List.of(
+                new TransferRequest(a.getAccountNumber(), b.getAccountNumber(), 100.0),
+                new TransferRequest(b.getAccountNumber(), c.getAccountNumber(), 500.0),
+                new TransferRequest(a.getAccountNumber(), "ACC999", 1.0),
+                new TransferRequest(b.getAccountNumber(), c.getAccountNumber(), 150.0)));
+
+    assertTrue(results.get(0).isSuccess());
+    assertFalse(results.get(1).isSuccess()); // would breach the savings minimum balance
+    assertFalse(results.get(2).isSuccess());
+    assertTrue(results.get(3).isSuccess());
+    assertEquals(900.0, a.getBalance());
+    assertEquals(550.0, b.getBalance());
+    assertEquals(160.0, c.getBalance());
+    assertEquals(550.0, results.get(3).getEntries().get(0).getBalanceAfter());
+  }
+
+  @Test
+  void testTransferBatchAcrossManyLinkedAccounts() {
+    // A chain of transfers links every account into one group larger than a single lock run
+    List<Account> chain = new ArrayList<>();
+    for (int i = 0; i < 150; i++) {
+      Account account = new CheckingAccount(customer, 100.0);
+      accountManager.addAccount(account);
+      chain.add(account);
+    }
+    List<TransferRequest> requests = new ArrayList<>();
+    for (int i = 0; i + 1 < chain.size(); i++) {
+      requests.add(
+          new TransferRequest(
+              chain.get(i).getAccountNumber(), chain.get(i + 1).getAccountNumber(), 10.0));
+    }
+
+    List<TransferResult> results = accountManager.transferBatch(requests);
+
+    assertTrue(results.stream().allMatch(TransferResult::isSuccess));
+    assertEquals(90.0, chain.get(0).getBalance());
+    assertEquals(100.0, chain.get(75).getBalance());
+    assertEquals(110.0, chain.get(149).getBalance());
+  }
+
+  @Test
+  void testTransferBatchThroughHubAccountKeepsSubmissionOrder() {
+    // Every transfer touches the hub, so all 200 form one group split across several lock runs
+    Account hub = new SavingsAccount(customer, 600.0);
+    accountManager.addAccount(hub);
+    List<Account> spokes = new ArrayList<>();
+    List<TransferRequest> requests = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      Account spoke = new CheckingAccount(customer, 100.0);
+      accountManager.addAccount(spoke);
+      spokes.add(spoke);
+      requests.add(new TransferRequest(spoke.getAccountNumber(), hub.getAccountNumber(), 10.0));
+    }
+    // Only covered once every earlier deposit into the hub has been applied
+    requests.add(
+        new TransferRequest(hub.getAccountNumber(), spokes.get(0).getAccountNumber(), 2000.0));
+
+    List<TransferResult> results = accountManager.transferBatch(requests);
+
+    assertTrue(results.stream().allMatch(TransferResult::isSuccess));
+    assertEquals(600.0, hub.getBalance());
+    assertEquals(2090.0, spokes.get(0).getBalance());
+    assertEquals(90.0, spokes.get(199).getBalance());
+  }
+
+  @Test
+  void testSaveAccountsWritesOnlyChangedAccounts() throws Exception {
+    Account a = new CheckingAccount(customer, 100.0);
+    Account b = new CheckingAccount(customer, 200.0);
+    accountManager.addAccount(a);
+    accountManager.addAccount(b);
+    customerManager.saveCustomers();
+    accountManager.saveAccounts();
+    assertEquals(0, accountManager.getUnsavedAccountCount());
+    Path deltaFile = Paths.get("src/test/resources/data/accounts.delta");
+    int savedLines = Files.readAllLines(deltaFile).size();
+
+    a.deposit(50.0);
+    assertEquals(1, accountManager.getUnsavedAccountCount());
+    accountManager.saveAccounts();
+
+    List<String> delta = Files.readAllLines(deltaFile);
+    assertEquals(savedLines + 1, delta.size());
+    assertTrue(delta.get(savedLines).contains(a.getAccountNumber()));
+
+    // Nothing changed since, so a second save writes nothing
+    accountManager.saveAccounts();
+    assertEquals(savedLines + 1, Files.readAllLines(deltaFile).size());
+
+    AccountManager reloaded = new AccountManager(customerManager, persistenceService);
+    reloaded.loadAccounts();
+    assertEquals(150.0, reloaded.findAccount(a.getAccountNumber()).getBalance());
+    assertEquals(200.0, reloaded.findAccount(b.getAccountNumber()).getBalance());
+    assertEquals(0, reloaded.getUnsavedAccountCount());
+  }
+
+  @Test
+  void testTransferBatchRunsAlongsideSingleTransfers() throws Exception {
+    Account a = new CheckingAccount(customer, 1000.0);
+    Account b = new CheckingAccount(customer, 1000.0);
+    accountManager.addAccount(a);
+    accountManager.addAccount(b);
+    List<TransferRequest> batch = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      batch.add(new TransferRequest(b.getAccountNumber(), a.getAccountNumber(), 1.0));
+    }
+
+    ExecutorService service = Executors.newFixedThreadPool(2);
+    Future<?> batches =
+        service.submit(
+            () -> {
+              for (int i = 0; i < 20; i++) {
+                accountManager.transferBatch(batch);
+              }
+            });
+    Future<?> singles =
+        service.submit(
+            () -> {
+              for (int i = 0; i < 2000; i++) {
+                accountManager.transfer(a.getAccountNumber(), b.getAccountNumber(), 1.0);
+              }
+              return null;
+            });
+    batches.get(1, TimeUnit.MINUTES);
+    singles.get(1, TimeUnit.MINUTES);
+    service.shutdown();
+
+    assertEquals(1000.0, a.getBalance());
+    assertEquals(1000.0, b.getBalance());
+  }
 }
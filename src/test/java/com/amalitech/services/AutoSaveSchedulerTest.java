@@ -0,0 +1,112 @@
+package com.amalitech.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.amalitech.models.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for AutoSaveScheduler coalescing and shutdown flushing. */
+class AutoSaveSchedulerTest {
+
+  private static final String TEST_DATA_DIR = "target/test-autosave-data/";
+  private static final long LONG_INTERVAL_MILLIS = 3_600_000L;
+
+  private FilePersistenceService persistenceService;
+  private CustomerManager customerManager;
+  private AccountManager accountManager;
+  private TransactionManager transactionManager;
+  private Customer customer;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(Paths.get(TEST_DATA_DIR));
+    persistenceService = new FilePersistenceService(TEST_DATA_DIR);
+    customerManager = new CustomerManager(persistenceService);
+    accountManager = new AccountManager(customerManager, persistenceService);
+    transactionManager = new TransactionManager(persistenceService);
+    customer = new RegularCustomer("Alice", 28, "555-0101", "321 Pine St", "alice@example.com");
+    customerManager.addCustomer(customer);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (var files = Files.list(Paths.get(TEST_DATA_DIR))) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Test
+  void testThresholdTriggersOneCoalescedSave() throws Exception {
+    try (AutoSaveScheduler scheduler = scheduler(LONG_INTERVAL_MILLIS, 5)) {
+      for (int i = 0; i < 4; i++) {
+        accountManager.addAccount(new CheckingAccount(customer, 100.0 + i));
+        scheduler.requestSave();
+      }
+      Thread.sleep(100);
+      assertEquals(0, scheduler.getFlushCount(), "Below the threshold nothing is saved yet");
+
+      accountManager.addAccount(new CheckingAccount(customer, 200.0));
+      scheduler.requestSave();
+      awaitFlushes(scheduler, 1);
+      assertEquals(0, scheduler.getPendingChanges());
+    }
+    assertEquals(5, persistenceService.loadAccounts(customerManager.getCustomers()).size());
+  }
+
+  @Test
+  void testIntervalSavesPendingChanges() throws Exception {
+    try (AutoSaveScheduler scheduler = scheduler(50, 1_000)) {
+      accountManager.addAccount(new SavingsAccount(customer, 750.0));
+      scheduler.requestSave();
+      awaitFlushes(scheduler, 1);
+    }
+    assertEquals(1, persistenceService.loadAccounts(customerManager.getCustomers()).size());
+  }
+
+  @Test
+  void testCloseFlushesPendingChanges() throws IOException {
+    AutoSaveScheduler scheduler = scheduler(LONG_INTERVAL_MILLIS, 1_000);
+    accountManager.addAccount(new CheckingAccount(customer, 300.0));
+    scheduler.requestSave();
+    scheduler.close();
+    scheduler.close();
+
+    assertEquals(1, scheduler.getFlushCount());
+    CustomerManager reloaded = new CustomerManager(new FilePersistenceService(TEST_DATA_DIR));
+    reloaded.loadCustomers();
+    assertEquals(1, reloaded.getCustomerCount());
+    assertEquals(1, persistenceService.loadAccounts(reloaded.getCustomers()).size());
+  }
+
+  @Test
+  void testNothingIsSavedWithoutRequests() throws Exception {
+    try (AutoSaveScheduler scheduler = scheduler(20, 1)) {
+      Thread.sleep(100);
+      assertEquals(0, scheduler.getFlushCount());
+    }
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  private AutoSaveScheduler scheduler(long intervalMillis, int threshold) {
+    return AutoSaveScheduler.start(
+        customerManager, accountManager, transactionManager, intervalMillis, threshold, 5_000);
+  }
+
+  private static void awaitFlushes(AutoSaveScheduler scheduler, long flushes)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (scheduler.getFlushCount() < flushes && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(flushes, scheduler.getFlushCount());
+  }
+}
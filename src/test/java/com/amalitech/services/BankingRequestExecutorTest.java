@@ -0,0 +1,108 @@
+package com.amalitech.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.amalitech.constants.ExecutorMode;
+import com.amalitech.constants.TransactionType;
+import com.amalitech.exceptions.InsufficientFundsException;
+import com.amalitech.models.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/** Unit tests for BankingRequestExecutor in each executor mode. */
+class BankingRequestExecutorTest {
+
+  private static final String TEST_DATA_DIR = "target/test-executor-data/";
+
+  private AccountManager accountManager;
+  private TransactionManager transactionManager;
+  private Account checking;
+  private Account savings;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(Paths.get(TEST_DATA_DIR));
+    FilePersistenceService persistenceService = new FilePersistenceService(TEST_DATA_DIR);
+    accountManager =
+        new AccountManager(new CustomerManager(persistenceService), persistenceService);
+    transactionManager = new TransactionManager(persistenceService);
+
+    Customer customer =
+        new RegularCustomer("Alice", 28, "555-0101", "321 Pine St", "alice@example.com");
+    checking = new CheckingAccount("ACC701", customer, 1000.0);
+    savings = new SavingsAccount("ACC702", customer, 1000.0);
+    accountManager.addAccount(checking);
+    accountManager.addAccount(savings);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (var files = Files.list(Paths.get(TEST_DATA_DIR))) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(ExecutorMode.class)
+  void testConcurrentDepositsAreAllApplied(ExecutorMode mode) {
+    List<CompletableFuture<Transaction>> futures = new ArrayList<>();
+    try (BankingRequestExecutor executor =
+        new BankingRequestExecutor(accountManager, transactionManager, mode)) {
+      for (int i = 0; i < 500; i++) {
+        futures.add(executor.deposit("ACC701", 1.0));
+      }
+    }
+
+    assertTrue(futures.stream().allMatch(CompletableFuture::isDone));
+    assertEquals(1500.0, checking.getBalance());
+    assertEquals(500, transactionManager.getDepositCount());
+  }
+
+  @Test
+  void testTransferCompletesWithBothEntries() throws Exception {
+    try (BankingRequestExecutor executor =
+        new BankingRequestExecutor(accountManager, transactionManager, ExecutorMode.VIRTUAL)) {
+      List<Transaction> entries = executor.transfer("ACC701", "ACC702", 250.0).get();
+
+      assertEquals(TransactionType.TRANSFER_OUT, entries.get(0).getType());
+      assertEquals(750.0, entries.get(0).getBalanceAfter());
+      assertEquals(1250.0, entries.get(1).getBalanceAfter());
+      assertEquals(2, transactionManager.getTransactionCount());
+    }
+  }
+
+  @Test
+  void testRejectedRequestCompletesExceptionally() {
+    try (BankingRequestExecutor executor =
+        new BankingRequestExecutor(accountManager, transactionManager, ExecutorMode.PLATFORM)) {
+      ExecutionException failure =
+          assertThrows(ExecutionException.class, () -> executor.withdraw("ACC702", 600.0).get());
+
+      assertInstanceOf(InsufficientFundsException.class, failure.getCause());
+      assertEquals(0, transactionManager.getTransactionCount());
+    }
+  }
+
+  @Test
+  void testMeasureLeavesBalanceUnchanged() {
+    long elapsed =
+        BankingRequestExecutor.measure(accountManager, ExecutorMode.VIRTUAL, "ACC701", 1000);
+
+    assertTrue(elapsed > 0);
+    assertEquals(1000.0, checking.getBalance());
+    assertEquals(0, transactionManager.getTransactionCount());
+  }
+}
@@ -0,0 +1,186 @@
+package com.amalitech.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.amalitech.constants.AccountType;
+import com.amalitech.constants.CustomerType;
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for BinarySnapshotPersistenceService verifying memory-mapped snapshot round trips. */
+class BinarySnapshotPersistenceServiceTest {
+
+  private static final String TEST_DATA_DIR = "target/test-binary-data/";
+  private BinarySnapshotPersistenceService persistenceService;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(Paths.get(TEST_DATA_DIR));
+    persistenceService = new BinarySnapshotPersistenceService(TEST_DATA_DIR);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (var files = Files.list(Paths.get(TEST_DATA_DIR))) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Test
+  void testSaveAndLoadCustomers() throws IOException {
+    HashMap<String, Customer> customers = new HashMap<>();
+    customers.put(
+        "CUS301",
+        new RegularCustomer("CUS301", "John Doe", 30, "555-1234", "123 Main St", "j@example.com"));
+    customers.put(
+        "CUS302",
+        new PremiumCustomer("CUS302", "Jane Smith", 40, "555-5678", "456 Oak Ave", null));
+
+    persistenceService.saveCustomers(customers);
+    HashMap<String, Customer> loaded = persistenceService.loadCustomers();
+
+    assertEquals(2, loaded.size());
+    assertEquals("John Doe", loaded.get("CUS301").getName());
+    assertEquals(30, loaded.get("CUS301").getAge());
+    assertEquals(CustomerType.PREMIUM, loaded.get("CUS302").getCustomerType());
+    assertNull(loaded.get("CUS302").getEmail());
+    assertTrue(Customer.getCustomerCounter() >= 302);
+  }
+
+  @Test
+  void testSaveAndLoadAccounts() throws IOException {
+    Customer customer =
+        new RegularCustomer("CUS310", "Test User", 25, "555-0000", "789 Pine St", "t@example.com");
+    HashMap<String, Customer> customers = new HashMap<>();
+    customers.put(customer.getCustomerId(), customer);
+
+    HashMap<String, Account> accounts = new HashMap<>();
+    accounts.put("ACC310", new SavingsAccount("ACC310", customer, 1234.56));
+    accounts.put("ACC311", new CheckingAccount("ACC311", customer, -75.25));
+
+    persistenceService.saveAccounts(accounts);
+    HashMap<String, Account> loaded = persistenceService.loadAccounts(customers);
+
+    assertEquals(2, loaded.size());
+    assertEquals(AccountType.SAVINGS, loaded.get("ACC310").getAccountType());
+    assertEquals(1234.56, loaded.get("ACC310").getBalance());
+    assertEquals(-75.25, loaded.get("ACC311").getBalance());
+    assertSame(customer, loaded.get("ACC311").getCustomer());
+  }
+
+  @Test
+  void testSaveAndLoadTransactions() throws IOException {
+    List<Transaction> transactions = new ArrayList<>();
+    transactions.add(
+        new Transaction(
+            "TXN301", "ACC001", TransactionType.DEPOSIT, 100.0, 100.0, "05-12-2025 14:30:45"));
+    transactions.add(
+        new Transaction(
+            "TXN302", "ACC001", TransactionType.WITHDRAWAL, 40.5, 59.5, "06-12-2025 09:00:00"));
+
+    persistenceService.saveTransactions(transactions);
+    List<Transaction> loaded = persistenceService.loadTransactions();
+
+    assertEquals(2, loaded.size());
+    Transaction second = loaded.get(1);
+    assertEquals("TXN302", second.getTransactionId());
+    assertEquals(TransactionType.WITHDRAWAL, second.getType());
+    assertEquals(40.5, second.getAmount());
+    assertEquals(59.5, second.getBalanceAfter());
+    assertEquals("06-12-2025 09:00:00", second.getTimestamp());
+  }
+
+  @Test
+  void testAppendTransactionsExtendsSnapshot() throws IOException {
+    persistenceService.saveTransactions(
+        List.of(new Transaction("ACC001", TransactionType.DEPOSIT, 10.0, 10.0)));
+
+    persistenceService.appendTransactions(
+        List.of(
+            new Transaction("ACC001", TransactionType.DEPOSIT, 20.0, 30.0),
+            new Transaction("ACC001", TransactionType.WITHDRAWAL, 5.0, 25.0)));
+
+    List<Transaction> loaded = persistenceService.loadTransactions();
+    assertEquals(3, loaded.size());
+    assertEquals(25.0, loaded.get(2).getBalanceAfter());
+  }
+
+  @Test
+  void testMissingSnapshotFallsBackToOtherService() throws IOException {
+    FilePersistenceService csvService = new FilePersistenceService(TEST_DATA_DIR);
+    csvService.saveTransactions(
+        List.of(new Transaction("ACC001", TransactionType.DEPOSIT, 10.0, 10.0)));
+
+    BinarySnapshotPersistenceService seeded =
+        new BinarySnapshotPersistenceService(TEST_DATA_DIR, csvService);
+    assertEquals(1, seeded.loadTransactions().size());
+
+    // The first append writes the seeded history into the binary snapshot
+    seeded.appendTransactions(
+        List.of(new Transaction("ACC001", TransactionType.DEPOSIT, 5.0, 15.0)));
+    assertTrue(Files.exists(Paths.get(TEST_DATA_DIR + "transactions.bin")));
+    assertEquals(2, persistenceService.loadTransactions().size());
+  }
+
+  @Test
+  void testLoadRejectsNonSnapshotFile() throws IOException {
+    Files.writeString(Paths.get(TEST_DATA_DIR + "transactions.bin"), "not a snapshot");
+    assertThrows(IOException.class, () -> persistenceService.loadTransactions());
+  }
+
+  @Test
+  void testLoadRejectsOtherFormatVersion() throws IOException {
+    persistenceService.saveTransactions(
+        List.of(new Transaction("ACC001", TransactionType.DEPOSIT, 10.0, 10.0)));
+    Path file = Paths.get(TEST_DATA_DIR + "transactions.bin");
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[5] = 2; // low byte of the format version
+    Files.write(file, bytes);
+
+    IOException failure =
+        assertThrows(IOException.class, () -> persistenceService.loadTransactions());
+    assertTrue(failure.getMessage().startsWith("Unsupported snapshot version 2"));
+  }
+
+  @Test
+  void testLoadRejectsTruncatedSnapshot() throws IOException {
+    persistenceService.saveTransactions(
+        List.of(
+            new Transaction("ACC001", TransactionType.DEPOSIT, 10.0, 10.0),
+            new Transaction("ACC001", TransactionType.DEPOSIT, 20.0, 30.0)));
+    Path file = Paths.get(TEST_DATA_DIR + "transactions.bin");
+    byte[] bytes = Files.readAllBytes(file);
+
+    // File cut short of the data end recorded in the header
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+    assertThrows(IOException.class, () -> persistenceService.loadTransactions());
+
+    // Header claims more records than the data holds
+    bytes[11] = 3; // low byte of the record count
+    Files.write(file, bytes);
+    IOException failure =
+        assertThrows(IOException.class, () -> persistenceService.loadTransactions());
+    assertTrue(failure.getMessage().startsWith("Truncated snapshot"));
+  }
+
+  @Test
+  void testLoadWithNoFilesReturnsEmpty() throws IOException {
+    HashMap<String, Customer> customers = persistenceService.loadCustomers();
+    assertTrue(customers.isEmpty());
+    assertTrue(persistenceService.loadAccounts(customers).isEmpty());
+    assertTrue(persistenceService.loadTransactions().isEmpty());
+  }
+}
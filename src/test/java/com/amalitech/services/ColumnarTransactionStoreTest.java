@@ -0,0 +1,70 @@
+package com.amalitech.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for ColumnarTransactionStore verifying rows round-trip through the columns. */
+class ColumnarTransactionStoreTest {
+
+  private ColumnarTransactionStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new ColumnarTransactionStore();
+  }
+
+  @Test
+  void testAddAndGetRoundTripsAllFields() {
+    store.add(
+        new Transaction(
+            "TXN007", "ACC001", TransactionType.WITHDRAWAL, 40.5, 59.5, "06-12-2025 09:00:00"));
+
+    Transaction view = store.get(0);
+    assertEquals("TXN007", view.getTransactionId());
+    assertEquals("ACC001", view.getAccountNumber());
+    assertEquals(TransactionType.WITHDRAWAL, view.getType());
+    assertEquals(40.5, view.getAmount());
+    assertEquals(59.5, view.getBalanceAfter());
+    assertEquals("06-12-2025 09:00:00", view.getTimestamp());
+  }
+
+  @Test
+  void testIdsThatDoNotFitTheGeneratedFormAreKept() {
+    store.add(new Transaction("TXN12345", "ACC001", TransactionType.DEPOSIT, 1.0, 1.0, 0L));
+    store.add(new Transaction("TXN0001", "ACC001", TransactionType.DEPOSIT, 1.0, 2.0, 0L));
+    store.add(new Transaction("IMPORT-9", "ACC001", TransactionType.DEPOSIT, 1.0, 3.0, 0L));
+
+    assertEquals("TXN12345", store.getTransactionId(0));
+    assertEquals("TXN0001", store.getTransactionId(1));
+    assertEquals("IMPORT-9", store.getTransactionId(2));
+  }
+
+  @Test
+  void testGrowsAndSharesAccountNumbers() {
+    for (int i = 0; i < 1000; i++) {
+      store.add(
+          new Transaction(
+              "TXN" + (i + 1000), "ACC00" + (i % 3), TransactionType.DEPOSIT, i, i, (long) i));
+    }
+
+    assertEquals(1000, store.size());
+    assertEquals("ACC001", store.getAccountNumber(997));
+    assertEquals(999L, store.getTimestampMillis(999));
+    assertEquals(500.0, store.getAmount(500));
+    assertThrows(IndexOutOfBoundsException.class, () -> store.get(1000));
+  }
+
+  @Test
+  void testClearEmptiesTheStore() {
+    store.add(new Transaction("ACC001", TransactionType.DEPOSIT, 1.0, 1.0));
+    store.clear();
+
+    assertTrue(store.isEmpty());
+    store.add(new Transaction("ACC002", TransactionType.DEPOSIT, 2.0, 2.0));
+    assertEquals("ACC002", store.get(0).getAccountNumber());
+  }
+}
@@ -73,4 +73,26 @@ class ConfigurationServiceTest {
     configService.setSaveOnExit(false);
     assertFalse(configService.isSaveOnExit());
   }
+
+  @Test
+  void testAutoSaveSettings() {
+    assertEquals(30, configService.getAutoSaveIntervalSeconds());
+    assertEquals(50, configService.getAutoSaveChangeThreshold());
+    assertEquals(5000, configService.getAutoSaveShutdownTimeoutMillis());
+
+    configService.setAutoSaveIntervalSeconds(5);
+    configService.setAutoSaveChangeThreshold(10);
+    configService.setAutoSaveShutdownTimeoutMillis(250);
+    ConfigurationService newService = new ConfigurationService(TEST_CONFIG_FILE);
+
+    assertEquals(5, newService.getAutoSaveIntervalSeconds());
+    assertEquals(10, newService.getAutoSaveChangeThreshold());
+    assertEquals(250, newService.getAutoSaveShutdownTimeoutMillis());
+  }
+
+  @Test
+  void testInvalidIntervalFallsBackToDefault() {
+    configService.setCheckpointIntervalSeconds(0);
+    assertEquals(60, configService.getCheckpointIntervalSeconds());
+  }
 }
@@ -0,0 +1,88 @@
+package com.amalitech.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.Transaction;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TimeZone;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for CsvRecordWriter's field formatting and buffering. */
+class CsvRecordWriterTest {
+
+  private static final String TEST_DATA_DIR = "target/test-csv-writer-data/";
+
+  private Path file;
+  private TimeZone originalZone;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(Paths.get(TEST_DATA_DIR));
+    file = Paths.get(TEST_DATA_DIR + "records.txt");
+    originalZone = TimeZone.getDefault();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    TimeZone.setDefault(originalZone);
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  void testFieldsMatchTheStringFormatters() throws IOException {
+    // A tiny buffer forces flushes in the middle of records
+    try (CsvRecordWriter writer = new CsvRecordWriter(file, 8)) {
+      writer.line("header,line");
+      writer.field("TXN001").field(TransactionType.DEPOSIT).money(123_405).money(-5).endRecord();
+      writer.field("Zoë Ámà").field(0).field(-42).field(Long.MIN_VALUE).endRecord();
+    }
+
+    assertEquals(
+        List.of(
+            "header,line",
+            "TXN001,DEPOSIT,1234.05,-0.05",
+            "Zoë Ámà,0,-42," + Long.MIN_VALUE),
+        Files.readAllLines(file, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void testTimestampsMatchTransactionFormattingAcrossDstChanges() throws IOException {
+    TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+    SplittableRandom random = new SplittableRandom(1L);
+    List<Long> times = new ArrayList<>();
+    long time = Transaction.parseTimestamp("01-01-2024 00:00:00");
+    for (int i = 0; i < 20_000; i++) {
+      time += random.nextLong(0, 3_600_000L);
+      times.add(time);
+    }
+    // Both DST changes of 2024, including the repeated hour in November
+    for (long millis = 1_710_054_000_000L; millis < 1_710_064_800_000L; millis += 59_000L) {
+      times.add(millis);
+    }
+    for (long millis = 1_730_610_000_000L; millis < 1_730_624_400_000L; millis += 59_000L) {
+      times.add(millis);
+    }
+
+    try (CsvRecordWriter writer = new CsvRecordWriter(file)) {
+      for (long millis : times) {
+        writer.timestamp(millis).endRecord();
+      }
+    }
+
+    List<String> lines = Files.readAllLines(file);
+    assertEquals(times.size(), lines.size());
+    for (int i = 0; i < times.size(); i++) {
+      assertEquals(Transaction.formatTimestamp(times.get(i)), lines.get(i));
+    }
+  }
+}
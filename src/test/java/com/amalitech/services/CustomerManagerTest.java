@@ -45,6 +45,7 @@ class CustomerManagerTest {
       Files.write(
           customersFile, "customerType,customerId,name,age,contact,address,email\n".getBytes());
     }
+    Files.deleteIfExists(Paths.get("src/test/resources/data/customers.delta"));
   }
 
   @Test
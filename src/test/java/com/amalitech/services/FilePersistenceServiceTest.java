@@ -10,9 +10,13 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,6 +43,9 @@ class FilePersistenceServiceTest {
     deleteFileIfExists(TEST_DATA_DIR + "accounts.txt");
     deleteFileIfExists(TEST_DATA_DIR + "customers.txt");
     deleteFileIfExists(TEST_DATA_DIR + "transactions.txt");
+    deleteFileIfExists(TEST_DATA_DIR + "transactions.journal");
+    deleteFileIfExists(TEST_DATA_DIR + "accounts.delta");
+    deleteFileIfExists(TEST_DATA_DIR + "customers.delta");
 
     // Recreate with headers
     Files.writeString(
@@ -280,4 +287,222 @@ class FilePersistenceServiceTest {
         Integer.parseInt(newAccount.getAccountNumber().replace("ACC", "")) > 200,
         "New account number should be higher than loaded max (200)");
   }
+
+  @Test
+  void testAccountChangesAreAppendedToDeltaAndOverrideOnLoad() throws IOException {
+    HashMap<String, Customer> customers = new HashMap<>();
+    Customer customer =
+        new RegularCustomer("Delta User", 33, "555-2222", "1 Elm St", "delta@example.com");
+    customers.put(customer.getCustomerId(), customer);
+    HashMap<String, Account> accounts = new HashMap<>();
+    Account first = new CheckingAccount(customer, 100.0);
+    Account second = new CheckingAccount(customer, 200.0);
+    accounts.put(first.getAccountNumber(), first);
+    accounts.put(second.getAccountNumber(), second);
+    persistenceService.saveAccounts(accounts);
+
+    first.setBalance(150.0);
+    persistenceService.saveAccountChanges(List.of(first), accounts);
+    first.setBalance(175.0);
+    persistenceService.saveAccountChanges(List.of(first), accounts);
+
+    // The main file is untouched; both changes live in the delta
+    assertEquals(3, Files.readAllLines(Paths.get(TEST_DATA_DIR + "accounts.txt")).size());
+    assertEquals(2, Files.readAllLines(Paths.get(TEST_DATA_DIR + "accounts.delta")).size());
+
+    HashMap<String, Account> loaded = persistenceService.loadAccounts(customers);
+    assertEquals(2, loaded.size());
+    assertEquals(175.0, loaded.get(first.getAccountNumber()).getBalance());
+    assertEquals(200.0, loaded.get(second.getAccountNumber()).getBalance());
+  }
+
+  @Test
+  void testAccountDeltaIsFoldedIntoFileAtThreshold() throws IOException {
+    FilePersistenceService compacting = new FilePersistenceService(TEST_DATA_DIR, 3);
+    HashMap<String, Customer> customers = new HashMap<>();
+    Customer customer =
+        new RegularCustomer("Fold User", 41, "555-3333", "2 Elm St", "fold@example.com");
+    customers.put(customer.getCustomerId(), customer);
+    HashMap<String, Account> accounts = new HashMap<>();
+    Account account = new SavingsAccount(customer, 1000.0);
+    accounts.put(account.getAccountNumber(), account);
+    compacting.saveAccounts(accounts);
+
+    for (int i = 1; i <= 3; i++) {
+      account.setBalance(1000.0 + i);
+      compacting.saveAccountChanges(List.of(account), accounts);
+    }
+
+    assertEquals(0, Files.readAllLines(Paths.get(TEST_DATA_DIR + "accounts.delta")).size());
+    assertEquals(
+        1003.0, compacting.loadAccounts(customers).get(account.getAccountNumber()).getBalance());
+  }
+
+  @Test
+  void testCustomerChangesAreLoadedFromDelta() throws IOException {
+    HashMap<String, Customer> customers = new HashMap<>();
+    Customer saved = new RegularCustomer("Saved", 30, "555-4444", "3 Elm St", "s@example.com");
+    customers.put(saved.getCustomerId(), saved);
+    persistenceService.saveCustomers(customers);
+
+    Customer added = new PremiumCustomer("Added", 50, "555-5555", "4 Elm St", "a@example.com");
+    customers.put(added.getCustomerId(), added);
+    persistenceService.saveCustomerChanges(List.of(added), customers);
+
+    HashMap<String, Customer> loaded = persistenceService.loadCustomers();
+    assertEquals(2, loaded.size());
+    assertEquals(CustomerType.PREMIUM, loaded.get(added.getCustomerId()).getCustomerType());
+  }
+
+  @Test
+  void testAppendTransactionsAreLoadedFromJournal() throws IOException {
+    ArrayList<Transaction> snapshot = new ArrayList<>();
+    snapshot.add(new Transaction("ACC001", TransactionType.DEPOSIT, 100.0, 100.0));
+    persistenceService.saveTransactions(snapshot);
+
+    persistenceService.appendTransactions(
+        List.of(new Transaction("ACC001", TransactionType.WITHDRAWAL, 40.0, 60.0)));
+
+    // Snapshot is untouched; the new record lives only in the journal
+    assertEquals(2, Files.readAllLines(Paths.get(TEST_DATA_DIR + "transactions.txt")).size());
+    assertEquals(1, Files.readAllLines(Paths.get(TEST_DATA_DIR + "transactions.journal")).size());
+
+    List<Transaction> loaded = persistenceService.loadTransactions();
+    assertEquals(2, loaded.size());
+    assertEquals(TransactionType.WITHDRAWAL, loaded.get(1).getType());
+  }
+
+  @Test
+  void testTornJournalTailIsDiscarded() throws IOException {
+    persistenceService.appendTransactions(
+        List.of(
+            new Transaction("ACC001", TransactionType.DEPOSIT, 10.0, 10.0),
+            new Transaction("ACC001", TransactionType.DEPOSIT, 20.0, 30.0)));
+    // A crash mid-write leaves part of a record without its line break
+    Path journalFile = Paths.get(TEST_DATA_DIR + "transactions.journal");
+    Files.writeString(journalFile, "TXN999,ACC001,DEPO", StandardOpenOption.APPEND);
+
+    assertEquals(2, persistenceService.loadTransactions().size());
+
+    // A fresh service cuts the torn bytes off before appending
+    FilePersistenceService restarted = new FilePersistenceService(TEST_DATA_DIR);
+    restarted.appendTransactions(
+        List.of(new Transaction("ACC001", TransactionType.WITHDRAWAL, 5.0, 25.0)));
+    List<Transaction> loaded = restarted.loadTransactions();
+    assertEquals(3, loaded.size());
+    assertEquals(TransactionType.WITHDRAWAL, loaded.get(2).getType());
+  }
+
+  @Test
+  void testJournalRecordWithBadChecksumEndsReplay() throws IOException {
+    persistenceService.appendTransactions(
+        List.of(new Transaction("ACC001", TransactionType.DEPOSIT, 10.0, 10.0)));
+    Path journalFile = Paths.get(TEST_DATA_DIR + "transactions.journal");
+    String record = Files.readAllLines(journalFile).get(0);
+    // Same checksum, different amount
+    Files.writeString(
+        journalFile, record.replace(",10.00,", ",99.00,") + "\n", StandardOpenOption.APPEND);
+
+    assertEquals(1, persistenceService.loadTransactions().size());
+  }
+
+  @Test
+  void testJournalLineWithoutChecksumEndsReplay() throws IOException {
+    persistenceService.appendTransactions(
+        List.of(new Transaction("ACC001", TransactionType.DEPOSIT, 10.0, 10.0)));
+    Path journalFile = Paths.get(TEST_DATA_DIR + "transactions.journal");
+    String record = Files.readAllLines(journalFile).get(0);
+    String intact = record + "\n";
+    String unframed = "TXN998,ACC001,DEPOSIT,5.00,15.00,01-01-2024 10:00:00\n";
+    String badDigit = record.replace(",10.00,", ",15.00,").replaceAll(".$", "x") + "\n";
+
+    // A CSV line with no checksum at all, and one whose checksum has a non-hex digit
+    for (String damaged : List.of(unframed, badDigit)) {
+      Files.writeString(journalFile, intact + damaged);
+      assertEquals(1, new FilePersistenceService(TEST_DATA_DIR).loadTransactions().size());
+    }
+  }
+
+  @Test
+  void testJournalIsCompactedAtThreshold() throws IOException {
+    FilePersistenceService compacting = new FilePersistenceService(TEST_DATA_DIR, 3);
+
+    for (int i = 0; i < 3; i++) {
+      compacting.appendTransactions(
+          List.of(new Transaction("ACC001", TransactionType.DEPOSIT, 10.0, 10.0 * (i + 1))));
+    }
+
+    assertEquals(
+        0, Files.readAllLines(Paths.get(TEST_DATA_DIR + "transactions.journal")).size());
+    assertEquals(4, Files.readAllLines(Paths.get(TEST_DATA_DIR + "transactions.txt")).size());
+    assertEquals(3, compacting.loadTransactions().size());
+  }
+
+  @Test
+  void testJournalRecordsLeftInFileByInterruptedCompactionLoadOnce() throws IOException {
+    ArrayList<Transaction> history = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      history.add(new Transaction("ACC001", TransactionType.DEPOSIT, 1.0, i + 1.0));
+    }
+    persistenceService.saveTransactions(history);
+    // As if compaction had copied the last two records before the journal was truncated
+    Transaction fresh = new Transaction("ACC001", TransactionType.DEPOSIT, 1.0, 51.0);
+    persistenceService.appendTransactions(List.of(history.get(48), history.get(49), fresh));
+
+    List<Transaction> loaded = persistenceService.loadTransactions();
+    assertEquals(51, loaded.size());
+    assertEquals(fresh.getTransactionId(), loaded.get(50).getTransactionId());
+  }
+
+  @Test
+  void testSaveTransactionsResetsJournal() throws IOException {
+    Transaction journaled = new Transaction("ACC001", TransactionType.DEPOSIT, 25.0, 25.0);
+    persistenceService.appendTransactions(List.of(journaled));
+
+    ArrayList<Transaction> all = new ArrayList<>();
+    all.add(journaled);
+    persistenceService.saveTransactions(all);
+
+    // The journaled record must not be loaded twice
+    assertEquals(1, persistenceService.loadTransactions().size());
+  }
+
+  @Test
+  void testSaveTransactionsKeepsJournaledRecordsMissingFromHistory() throws IOException {
+    Transaction saved = new Transaction("ACC001", TransactionType.DEPOSIT, 25.0, 25.0);
+    // Journaled after the caller took its copy of the history
+    Transaction late = new Transaction("ACC001", TransactionType.DEPOSIT, 5.0, 30.0);
+    persistenceService.appendTransactions(List.of(saved, late));
+
+    persistenceService.saveTransactions(new ArrayList<>(List.of(saved)));
+
+    assertEquals(
+        0, Files.readAllLines(Paths.get(TEST_DATA_DIR + "transactions.journal")).size());
+    assertFalse(Files.exists(Paths.get(TEST_DATA_DIR + "transactions.txt.tmp")));
+    List<Transaction> loaded = persistenceService.loadTransactions();
+    assertEquals(
+        List.of(saved.getTransactionId(), late.getTransactionId()),
+        loaded.stream().map(Transaction::getTransactionId).toList());
+  }
+
+  @Test
+  void testConcurrentAppendsLoseNoRecords() throws Exception {
+    int writers = 16;
+    int perWriter = 25;
+    ExecutorService service = Executors.newFixedThreadPool(writers);
+    for (int w = 0; w < writers; w++) {
+      service.submit(
+          () -> {
+            for (int i = 0; i < perWriter; i++) {
+              persistenceService.appendTransactions(
+                  List.of(new Transaction("ACC001", TransactionType.DEPOSIT, 1.0, 1.0)));
+            }
+            return null;
+          });
+    }
+    service.shutdown();
+    assertTrue(service.awaitTermination(1, TimeUnit.MINUTES));
+
+    assertEquals(writers * perWriter, persistenceService.loadTransactions().size());
+  }
 }
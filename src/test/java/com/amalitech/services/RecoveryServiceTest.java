@@ -0,0 +1,200 @@
+package com.amalitech.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for RecoveryService checkpoints and replay. */
+class RecoveryServiceTest {
+
+  private static final String TEST_DATA_DIR = "target/test-recovery-data/";
+  private static final Path CHECKPOINT = Paths.get(TEST_DATA_DIR + "checkpoint.txt");
+
+  private AccountManager accountManager;
+  private TransactionManager transactionManager;
+  private Account checking;
+  private Account savings;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(Paths.get(TEST_DATA_DIR));
+    FilePersistenceService persistenceService = new FilePersistenceService(TEST_DATA_DIR);
+    CustomerManager customerManager = new CustomerManager(persistenceService);
+    accountManager = new AccountManager(customerManager, persistenceService);
+    transactionManager = new TransactionManager(persistenceService);
+
+    Customer customer =
+        new RegularCustomer("Alice", 28, "555-0101", "321 Pine St", "alice@example.com");
+    customerManager.addCustomer(customer);
+    checking = new CheckingAccount("ACC901", customer, 1000.0);
+    savings = new SavingsAccount("ACC902", customer, 500.0);
+    accountManager.addAccount(checking);
+    accountManager.addAccount(savings);
+    customerManager.saveCustomers();
+    accountManager.saveAccounts();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (var files = Files.list(Paths.get(TEST_DATA_DIR))) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Test
+  void testRecoverReplaysTransactionsAfterCheckpoint() throws Exception {
+    deposit(checking, 100.0);
+    new RecoveryService(accountManager, transactionManager, CHECKPOINT).checkpoint();
+    deposit(checking, 50.0);
+    deposit(savings, 25.0);
+
+    // Crash: balances were never saved, but the transactions were journaled
+    Restarted restarted = restart();
+    assertEquals(1000.0, restarted.accounts.findAccount("ACC901").getBalance());
+
+    assertEquals(2, restarted.recovery.recover());
+    assertEquals(1150.0, restarted.accounts.findAccount("ACC901").getBalance());
+    assertEquals(525.0, restarted.accounts.findAccount("ACC902").getBalance());
+  }
+
+  @Test
+  void testCheckpointWithoutLaterTransactionsRestoresBalances() throws Exception {
+    deposit(checking, 100.0);
+    new RecoveryService(accountManager, transactionManager, CHECKPOINT).checkpoint();
+
+    Restarted restarted = restart();
+    assertEquals(0, restarted.recovery.recover());
+    assertEquals(1100.0, restarted.accounts.findAccount("ACC901").getBalance());
+  }
+
+  @Test
+  void testRecoverWithoutCheckpointKeepsLoadedBalances() throws Exception {
+    deposit(checking, 100.0);
+
+    Restarted restarted = restart();
+    assertEquals(-1, restarted.recovery.recover());
+    assertEquals(1000.0, restarted.accounts.findAccount("ACC901").getBalance());
+  }
+
+  @Test
+  void testTornCheckpointIsIgnored() throws Exception {
+    deposit(checking, 100.0);
+    new RecoveryService(accountManager, transactionManager, CHECKPOINT).checkpoint();
+    try (FileChannel channel = FileChannel.open(CHECKPOINT, StandardOpenOption.WRITE)) {
+      channel.truncate(channel.size() - 3);
+    }
+
+    Restarted restarted = restart();
+    assertEquals(-1, restarted.recovery.recover());
+    assertEquals(1000.0, restarted.accounts.findAccount("ACC901").getBalance());
+  }
+
+  @Test
+  void testCloseWritesFinalCheckpoint() throws Exception {
+    RecoveryService recovery = new RecoveryService(accountManager, transactionManager, CHECKPOINT);
+    recovery.startPeriodicCheckpoints(3600);
+    deposit(savings, 75.0);
+    recovery.close();
+
+    Restarted restarted = restart();
+    assertEquals(0, restarted.recovery.recover());
+    assertEquals(575.0, restarted.accounts.findAccount("ACC902").getBalance());
+  }
+
+  @Test
+  void testReplayDoesNotDependOnRecordOrder() throws Exception {
+    new RecoveryService(accountManager, transactionManager, CHECKPOINT).checkpoint();
+    // Two concurrent deposits reach the history in the opposite order to the balance updates
+    checking.deposit(100.0);
+    checking.deposit(50.0);
+    record(checking, TransactionType.DEPOSIT, 50.0, 1150.0);
+    record(checking, TransactionType.DEPOSIT, 100.0, 1100.0);
+
+    Restarted restarted = restart();
+    assertEquals(2, restarted.recovery.recover());
+    assertEquals(1150.0, restarted.accounts.findAccount("ACC901").getBalance());
+  }
+
+  @Test
+  void testCheckpointAfterRecoveryLeavesInFlightTransactionsToReplay() throws Exception {
+    new RecoveryService(accountManager, transactionManager, CHECKPOINT).checkpoint();
+    Restarted restarted = restart();
+    restarted.recovery.recover();
+
+    // Applied to the balance but not yet recorded when the checkpoint is taken
+    Account account = restarted.accounts.findAccount("ACC901");
+    account.deposit(40.0);
+    restarted.recovery.checkpoint();
+    restarted.transactions.recordTransaction(
+        new Transaction("ACC901", TransactionType.DEPOSIT, 40.0, account.getBalance()));
+
+    Restarted again = restart();
+    assertEquals(1, again.recovery.recover());
+    assertEquals(1040.0, again.accounts.findAccount("ACC901").getBalance());
+  }
+
+  @Test
+  void testAccountsOpenedAfterCheckpointAreReported() throws Exception {
+    new RecoveryService(accountManager, transactionManager, CHECKPOINT).checkpoint();
+    Account opened = new CheckingAccount("ACC903", checking.getCustomer(), 300.0);
+    accountManager.addAccount(opened);
+    accountManager.saveAccounts();
+    deposit(opened, 20.0);
+
+    PrintStream originalErr = System.err;
+    ByteArrayOutputStream errors = new ByteArrayOutputStream();
+    Restarted restarted = restart();
+    System.setErr(new PrintStream(errors));
+    try {
+      assertEquals(1, restarted.recovery.recover());
+    } finally {
+      System.setErr(originalErr);
+    }
+    assertEquals(300.0, restarted.accounts.findAccount("ACC903").getBalance());
+    assertTrue(errors.toString().contains("ACC903"));
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  private void deposit(Account account, double amount) throws Exception {
+    account.deposit(amount);
+    transactionManager.recordTransaction(
+        new Transaction(
+            account.getAccountNumber(), TransactionType.DEPOSIT, amount, account.getBalance()));
+  }
+
+  private void record(Account account, TransactionType type, double amount, double balanceAfter) {
+    transactionManager.recordTransaction(
+        new Transaction(account.getAccountNumber(), type, amount, balanceAfter));
+  }
+
+  /** Loads everything from disk again, as the application does on startup. */
+  private Restarted restart() {
+    FilePersistenceService persistenceService = new FilePersistenceService(TEST_DATA_DIR);
+    CustomerManager customers = new CustomerManager(persistenceService);
+    AccountManager accounts = new AccountManager(customers, persistenceService);
+    TransactionManager transactions = new TransactionManager(persistenceService);
+    customers.loadCustomers();
+    accounts.loadAccounts();
+    transactions.loadTransactions();
+    return new Restarted(
+        accounts, transactions, new RecoveryService(accounts, transactions, CHECKPOINT));
+  }
+
+  private record Restarted(
+      AccountManager accounts, TransactionManager transactions, RecoveryService recovery) {}
+}
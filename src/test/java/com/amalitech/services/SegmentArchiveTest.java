@@ -0,0 +1,110 @@
+package com.amalitech.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.Transaction;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the SegmentArchive compressed segment format. */
+class SegmentArchiveTest {
+
+  private static final String TEST_DATA_DIR = "target/test-archive-data/";
+  private static final Path ARCHIVE = Paths.get(TEST_DATA_DIR, "segment.dz");
+  private static final long START = 1_704_067_200_000L;
+  private static final TransactionType[] TYPES = TransactionType.values();
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(Paths.get(TEST_DATA_DIR));
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (var files = Files.list(Paths.get(TEST_DATA_DIR))) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Test
+  void testRoundTripPreservesEveryField() throws IOException {
+    List<Transaction> history = history(SegmentArchive.BLOCK_RECORDS * 2 + 10);
+    SegmentArchive.write(ARCHIVE, history);
+
+    List<Transaction> read = SegmentArchive.read(ARCHIVE);
+    assertEquals(history.size(), read.size());
+    for (int i = 0; i < history.size(); i++) {
+      Transaction expected = history.get(i);
+      Transaction actual = read.get(i);
+      assertEquals(expected.getTransactionId(), actual.getTransactionId());
+      assertEquals(expected.getAccountNumber(), actual.getAccountNumber());
+      assertEquals(expected.getType(), actual.getType());
+      assertEquals(expected.getAmountCents(), actual.getAmountCents());
+      assertEquals(expected.getBalanceAfterCents(), actual.getBalanceAfterCents());
+      assertEquals(expected.getTimestampMillis(), actual.getTimestampMillis());
+    }
+  }
+
+  @Test
+  void testRangeReadReturnsOnlyRecordsInRange() throws IOException {
+    List<Transaction> history = history(SegmentArchive.BLOCK_RECORDS * 3);
+    SegmentArchive.write(ARCHIVE, history);
+
+    long from = history.get(5000).getTimestampMillis();
+    long to = history.get(5100).getTimestampMillis();
+    List<Transaction> range = SegmentArchive.read(ARCHIVE, from, to);
+
+    assertEquals(100, range.size());
+    assertEquals(history.get(5000).getTransactionId(), range.get(0).getTransactionId());
+    assertEquals(history.get(5099).getTransactionId(), range.get(99).getTransactionId());
+  }
+
+  @Test
+  void testArchiveIsSmallerThanCsv() throws IOException {
+    List<Transaction> history = history(10_000);
+    long archiveBytes = SegmentArchive.write(ARCHIVE, history);
+
+    Path csv = Paths.get(TEST_DATA_DIR, "segment.txt");
+    try (CsvRecordWriter writer = new CsvRecordWriter(csv)) {
+      for (Transaction transaction : history) {
+        writer
+            .field(transaction.getTransactionId())
+            .field(transaction.getAccountNumber())
+            .field(transaction.getType())
+            .money(transaction.getAmountCents())
+            .money(transaction.getBalanceAfterCents())
+            .timestamp(transaction.getTimestampMillis())
+            .endRecord();
+      }
+    }
+    assertTrue(archiveBytes * 3 < Files.size(csv), archiveBytes + " vs " + Files.size(csv));
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  /** Returns records for a handful of accounts, one a minute, with varied types and amounts. */
+  private static List<Transaction> history(int size) {
+    List<Transaction> history = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      history.add(
+          new Transaction(
+              String.format("TXN%06d", i + 1),
+              "ACC" + (i % 7),
+              TYPES[i % TYPES.length],
+              (i % 500) + 0.25,
+              -1000.0 + i * 3.5,
+              START + i * 60_000L));
+    }
+    return history;
+  }
+}
@@ -0,0 +1,212 @@
+package com.amalitech.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.Transaction;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for SegmentedPersistenceService and the cold segment view. */
+class SegmentedPersistenceServiceTest {
+
+  private static final String TEST_DATA_DIR = "target/test-segment-data/";
+  private static final Path SEGMENTS = Paths.get(TEST_DATA_DIR, "segments");
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(Paths.get(TEST_DATA_DIR));
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(Paths.get(TEST_DATA_DIR))) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Test
+  void testLoadReadsOnlyHotMonths() throws IOException {
+    new SegmentedPersistenceService(TEST_DATA_DIR).saveTransactions(history(6));
+
+    SegmentedPersistenceService service = new SegmentedPersistenceService(TEST_DATA_DIR, 2, 2);
+    List<Transaction> hot = service.loadTransactions();
+
+    assertEquals(4, hot.size());
+    assertTrue(hot.stream().allMatch(t -> t.getTimestampMillis() >= millis(2024, 5)));
+    ColdSegments cold = service.getColdSegments();
+    assertEquals(4, cold.getSegmentCount());
+    assertEquals(8, cold.getTransactionCount());
+    assertEquals(0, cold.getCachedSegmentCount());
+    // The counter covers the months that were not read
+    Transaction next = new Transaction("ACC1", TransactionType.DEPOSIT, 1, 1);
+    assertEquals("TXN013", next.getTransactionId());
+  }
+
+  @Test
+  void testManagerQueriesMergeColdSegments() throws IOException {
+    new SegmentedPersistenceService(TEST_DATA_DIR).saveTransactions(history(6));
+    SegmentedPersistenceService service = new SegmentedPersistenceService(TEST_DATA_DIR, 2, 2);
+    TransactionManager manager = new TransactionManager(service);
+    manager.loadTransactions();
+
+    assertEquals(12, manager.getTransactionCount());
+    assertEquals(12, manager.getDepositCount());
+    assertEquals(600.0, manager.calculateTotalDeposits(), 0.001);
+    assertEquals(6, manager.getTransactionsForAccount("ACC1").length);
+    assertEquals(300.0, manager.getTotalDeposits("ACC1"), 0.001);
+
+    List<Transaction> range = manager.between(millis(2024, 2), millis(2024, 6));
+    assertEquals(8, range.size());
+    for (int i = 1; i < range.size(); i++) {
+      assertTrue(range.get(i - 1).getTimestampMillis() <= range.get(i).getTimestampMillis());
+    }
+    // Four cold months were read but only two stay cached
+    assertEquals(2, service.getColdSegments().getCachedSegmentCount());
+  }
+
+  @Test
+  void testAccountQueriesReadOnlySegmentsListingTheAccount() throws IOException {
+    List<Transaction> history = history(6);
+    history.add(transaction(20, "ACC3", YearMonth.of(2024, 2)));
+    new SegmentedPersistenceService(TEST_DATA_DIR).saveTransactions(history);
+
+    SegmentedPersistenceService service = new SegmentedPersistenceService(TEST_DATA_DIR, 2, 4);
+    service.loadTransactions();
+    ColdSegments cold = service.getColdSegments();
+
+    assertEquals(
+        List.of("TXN020"),
+        cold.forAccount("ACC3").stream().map(Transaction::getTransactionId).toList());
+    assertEquals(1, cold.getCachedSegmentCount());
+    assertEquals(0, cold.getAccountStatistics("ACC9").getCount(TransactionType.DEPOSIT));
+    assertEquals(1, cold.getCachedSegmentCount());
+  }
+
+  @Test
+  void testAppendedTransactionsFoldIntoSegmentsOnLoad() throws IOException {
+    SegmentedPersistenceService service = new SegmentedPersistenceService(TEST_DATA_DIR, 1, 2);
+    service.saveTransactions(history(3));
+    service.appendTransactions(
+        List.of(
+            transaction(20, "ACC1", YearMonth.of(2024, 1)),
+            transaction(21, "ACC2", YearMonth.of(2024, 4))));
+
+    SegmentedPersistenceService reloaded = new SegmentedPersistenceService(TEST_DATA_DIR, 1, 2);
+    List<Transaction> hot = reloaded.loadTransactions();
+
+    assertEquals(1, hot.size());
+    assertEquals("TXN021", hot.get(0).getTransactionId());
+    assertEquals(3, reloaded.getColdSegments().between(millis(2024, 1), millis(2024, 2)).size());
+    assertEquals(0, new ChecksummedRecordLog(SEGMENTS.resolve("transactions.journal")).size());
+  }
+
+  @Test
+  void testUncommittedSegmentTailIsIgnored() throws IOException {
+    new SegmentedPersistenceService(TEST_DATA_DIR).saveTransactions(history(1));
+    // A crash mid-fold leaves records the manifest does not cover
+    Files.writeString(
+        SEGMENTS.resolve("transactions-2024-01.txt"),
+        "TXN099,ACC1,DEPOSIT,5.00,5.00,10-01-2024 12:00:00\n",
+        StandardOpenOption.APPEND);
+
+    SegmentedPersistenceService service = new SegmentedPersistenceService(TEST_DATA_DIR);
+    assertEquals(2, service.loadTransactions().size());
+
+    service.appendTransactions(List.of(transaction(3, "ACC1", YearMonth.of(2024, 1))));
+    service.foldJournal();
+    List<Transaction> reloaded = new SegmentedPersistenceService(TEST_DATA_DIR).loadTransactions();
+    assertEquals(
+        List.of("TXN001", "TXN002", "TXN003"),
+        reloaded.stream().map(Transaction::getTransactionId).toList());
+  }
+
+  @Test
+  void testFirstLoadSplitsExistingTransactionsFile() throws IOException {
+    new FilePersistenceService(TEST_DATA_DIR).saveTransactions(history(3));
+
+    SegmentedPersistenceService service = new SegmentedPersistenceService(TEST_DATA_DIR, 1, 1);
+    assertEquals(2, service.loadTransactions().size());
+    assertEquals(2, service.getColdSegments().getSegmentCount());
+    assertTrue(Files.exists(SEGMENTS.resolve("manifest.txt")));
+    assertTrue(Files.exists(SEGMENTS.resolve("transactions-2024-01.txt")));
+  }
+
+  @Test
+  void testClosedMonthsAreArchivedAndStillQueryable() throws IOException {
+    new SegmentedPersistenceService(TEST_DATA_DIR).saveTransactions(history(4));
+    TransactionManager manager =
+        new TransactionManager(new SegmentedPersistenceService(TEST_DATA_DIR, 1, 2, true));
+    manager.loadTransactions();
+
+    assertTrue(Files.exists(SEGMENTS.resolve("transactions-2024-01.dz")));
+    assertFalse(Files.exists(SEGMENTS.resolve("transactions-2024-01.txt")));
+    assertTrue(Files.exists(SEGMENTS.resolve("transactions-2024-04.txt")));
+    assertEquals(8, manager.getTransactionCount());
+    assertEquals(4, manager.getTransactionsForAccount("ACC2").length);
+    assertEquals(4, manager.between(millis(2024, 2), millis(2024, 4)).size());
+  }
+
+  @Test
+  void testLateRecordReopensArchivedMonth() throws IOException {
+    SegmentedPersistenceService service =
+        new SegmentedPersistenceService(TEST_DATA_DIR, 1, 2, true);
+    service.saveTransactions(history(3));
+    service.loadTransactions();
+    service.appendTransactions(List.of(transaction(9, "ACC1", YearMonth.of(2024, 1))));
+    service.foldJournal();
+
+    assertFalse(Files.exists(SEGMENTS.resolve("transactions-2024-01.dz")));
+    SegmentedPersistenceService reloaded =
+        new SegmentedPersistenceService(TEST_DATA_DIR, 1, 2, true);
+    reloaded.loadTransactions();
+    assertTrue(Files.exists(SEGMENTS.resolve("transactions-2024-01.dz")));
+    assertEquals(3, reloaded.getColdSegments().between(millis(2024, 1), millis(2024, 2)).size());
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  /** Returns a deposit for each of two accounts in each month from January 2024. */
+  private static List<Transaction> history(int months) {
+    List<Transaction> history = new ArrayList<>();
+    int id = 1;
+    for (int m = 0; m < months; m++) {
+      YearMonth month = YearMonth.of(2024, 1).plusMonths(m);
+      history.add(transaction(id++, "ACC1", month));
+      history.add(transaction(id++, "ACC2", month));
+    }
+    return history;
+  }
+
+  private static Transaction transaction(int id, String accountNumber, YearMonth month) {
+    return new Transaction(
+        String.format("TXN%03d", id),
+        accountNumber,
+        TransactionType.DEPOSIT,
+        50.0,
+        50.0,
+        millis(month.getYear(), month.getMonthValue()) + 9 * 86_400_000L + id * 1000L);
+  }
+
+  private static long millis(int year, int month) {
+    return YearMonth.of(year, month)
+        .atDay(1)
+        .atStartOfDay(ZoneId.systemDefault())
+        .toInstant()
+        .toEpochMilli();
+  }
+}
@@ -0,0 +1,142 @@
+package com.amalitech.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.*;
+import com.amalitech.utils.DatasetGenerator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for TransactionCsvLoader's chunking and field parsing. */
+class TransactionCsvLoaderTest {
+
+  private static final String TEST_DATA_DIR = "target/test-csv-loader-data/";
+  private static final String HEADER =
+      "transactionId,accountNumber,type,amount,balanceAfter,timestamp\n";
+
+  private Path file;
+  private List<String> fallbackLines;
+  private TransactionCsvLoader loader;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(Paths.get(TEST_DATA_DIR));
+    file = Paths.get(TEST_DATA_DIR + "transactions.txt");
+    fallbackLines = new ArrayList<>();
+    // Tiny chunks so every test crosses several chunk boundaries
+    loader = new TransactionCsvLoader(64, this::fallback);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (var files = Files.list(Paths.get(TEST_DATA_DIR))) {
+      for (Path path : files.toList()) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  @Test
+  void testParsesFieldsLikeTheLineParser() throws IOException {
+    Files.writeString(
+        file,
+        HEADER
+            + "TXN001,ACC001,DEPOSIT,100.50,1100.50,15-01-2024 09:30:00\n"
+            + " TXN002 , ACC002 ,WITHDRAWAL, 20.5 ,-0.05,31-12-2024 23:59:59\r\n"
+            + "\n"
+            + "TXN003,ACC001,TRANSFER_OUT,7,1093.50,01-03-2024 00:00:01");
+
+    List<Transaction> transactions = loader.load(file);
+
+    assertEquals(3, transactions.size());
+    Transaction first = transactions.get(0);
+    assertEquals("TXN001", first.getTransactionId());
+    assertEquals(TransactionType.DEPOSIT, first.getType());
+    assertEquals(10_050, first.getAmountCents());
+    assertEquals(110_050, first.getBalanceAfterCents());
+    assertEquals(Transaction.parseTimestamp("15-01-2024 09:30:00"), first.getTimestampMillis());
+
+    Transaction second = transactions.get(1);
+    assertEquals("TXN002", second.getTransactionId());
+    assertEquals("ACC002", second.getAccountNumber());
+    assertEquals(2_050, second.getAmountCents());
+    assertEquals(-5, second.getBalanceAfterCents());
+    assertEquals(Transaction.parseTimestamp("31-12-2024 23:59:59"), second.getTimestampMillis());
+
+    assertEquals(700, transactions.get(2).getAmountCents());
+    assertTrue(fallbackLines.isEmpty());
+  }
+
+  @Test
+  void testUnusualLinesGoToTheFallback() throws IOException {
+    Files.writeString(
+        file,
+        HEADER
+            + "TXN001,ACC001,deposit,1.00,1.00,15-01-2024 09:30:00\n"
+            + "TXN002,ACC001,DEPOSIT,1.005,2.01,15-01-2024 09:30:00\n"
+            + "not a transaction\n"
+            + "TXN003,ACC001,DEPOSIT,1.00,3.01,2024-01-15T09:30\n");
+
+    List<Transaction> transactions = loader.load(file);
+
+    assertEquals(4, fallbackLines.size());
+    assertEquals(2, transactions.size()); // Fallback parsed the first two
+  }
+
+  @Test
+  void testKeepsFileOrderAcrossManyChunks() throws IOException {
+    DatasetGenerator generator = new DatasetGenerator(5L);
+    Map<String, Account> accounts =
+        generator.generateAccounts(generator.generateCustomers(5), 20);
+    List<Transaction> expected = generator.generateTransactions(accounts, 5_000);
+    new FilePersistenceService(TEST_DATA_DIR).saveTransactions(expected);
+
+    List<Transaction> transactions = loader.load(file);
+
+    assertEquals(expected.size(), transactions.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Transaction loaded = transactions.get(i);
+      assertEquals(expected.get(i).getTransactionId(), loaded.getTransactionId());
+      assertEquals(expected.get(i).getBalanceAfterCents(), loaded.getBalanceAfterCents());
+      // The file keeps whole seconds
+      assertEquals(
+          expected.get(i).getTimestampMillis() / 1000 * 1000, loaded.getTimestampMillis());
+    }
+  }
+
+  @Test
+  void testEmptyAndHeaderOnlyFiles() throws IOException {
+    Files.writeString(file, "");
+    assertTrue(loader.load(file).isEmpty());
+
+    Files.writeString(file, HEADER);
+    assertTrue(loader.load(file).isEmpty());
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  private synchronized Transaction fallback(String line) {
+    fallbackLines.add(line);
+    String[] parts = line.split(",");
+    try {
+      return new Transaction(
+          parts[0],
+          parts[1],
+          TransactionType.valueOf(parts[2].toUpperCase()),
+          Double.parseDouble(parts[3]),
+          Double.parseDouble(parts[4]),
+          parts[5]);
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+}
@@ -2,9 +2,17 @@ package com.amalitech.services;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.amalitech.constants.TransactionStorage;
 import com.amalitech.constants.TransactionType;
 import com.amalitech.models.*;
 import com.amalitech.utils.InputReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -27,6 +35,32 @@ class TransactionManagerTest {
     assertEquals(1, transactionManager.getTransactionCount());
   }
 
+  @Test
+  void testFailedJournalWriteIsRetriedBySave() {
+    List<List<Transaction>> appended = new ArrayList<>();
+    boolean[] failNext = {true};
+    FilePersistenceService failingOnce =
+        new FilePersistenceService() {
+          @Override
+          public void appendTransactions(List<Transaction> transactions) throws IOException {
+            if (failNext[0]) {
+              failNext[0] = false;
+              throw new IOException("disk full");
+            }
+            appended.add(List.copyOf(transactions));
+          }
+        };
+    TransactionManager manager = new TransactionManager(failingOnce);
+    Transaction deposit = new Transaction("ACC001", TransactionType.DEPOSIT, 100.0, 100.0);
+
+    manager.recordTransaction(deposit);
+    assertEquals(1, manager.getTransactionCount());
+    assertTrue(appended.isEmpty());
+
+    manager.saveTransactions();
+    assertEquals(List.of(List.of(deposit)), appended);
+  }
+
   @Test
   void testAddNullTransaction() {
     transactionManager.addTransaction(null);
@@ -239,4 +273,151 @@ class TransactionManagerTest {
 
     assertEquals(50.0, transactionManager.getTotalWithdrawals("ACC001"));
   }
+
+  @Test
+  void testAccountIndexReturnsOnlyThatAccountsHistory() {
+    transactionManager.addTransaction(
+        new Transaction("ACC001", TransactionType.DEPOSIT, 100.0, 100.0));
+    transactionManager.addTransaction(
+        new Transaction("ACC002", TransactionType.DEPOSIT, 70.0, 70.0));
+    transactionManager.addTransaction(
+        new Transaction("ACC001", TransactionType.TRANSFER_OUT, 40.0, 60.0));
+    transactionManager.addTransaction(
+        new Transaction("ACC002", TransactionType.TRANSFER_IN, 40.0, 110.0));
+
+    Transaction[] acc1 = transactionManager.getTransactionsForAccount("ACC001");
+    assertEquals(2, acc1.length);
+    assertTrue(Arrays.stream(acc1).allMatch(t -> t.getAccountNumber().equals("ACC001")));
+    assertEquals(40.0, transactionManager.getTotalTransfersOut("ACC001"));
+    assertEquals(40.0, transactionManager.getTotalTransfersIn("ACC002"));
+    assertEquals(0.0, transactionManager.getTotalTransfersIn("ACC001"));
+    assertEquals(0, transactionManager.getTransactionsForAccount("ACC999").length);
+  }
+
+  @Test
+  void testRunningCountsAndTotalsByType() {
+    transactionManager.addTransaction(
+        new Transaction("ACC001", TransactionType.DEPOSIT, 100.0, 100.0));
+    transactionManager.addTransaction(
+        new Transaction("ACC001", TransactionType.WITHDRAWAL, 25.0, 75.0));
+    transactionManager.addTransaction(
+        new Transaction("ACC002", TransactionType.TRANSFER_IN, 10.0, 10.0));
+    transactionManager.addTransaction(
+        new Transaction("ACC001", TransactionType.TRANSFER_OUT, 10.0, 65.0));
+
+    assertEquals(1, transactionManager.getDepositCount());
+    assertEquals(1, transactionManager.getWithdrawalCount());
+    assertEquals(1, transactionManager.getTransferInCount());
+    assertEquals(1, transactionManager.getTransferOutCount());
+    assertEquals(10.0, transactionManager.calculateTotalTransfersIn());
+    assertEquals(25.0, transactionManager.getTotalWithdrawals("ACC001"));
+    assertEquals(0.0, transactionManager.getTotalWithdrawals("ACC002"));
+  }
+
+  @Test
+  void testConcurrentRecordersKeepTotalsConsistent() throws InterruptedException {
+    int threads = 8;
+    int perThread = 1_000;
+    ExecutorService service = Executors.newFixedThreadPool(threads);
+    for (int t = 0; t < threads; t++) {
+      String accountNumber = "ACC00" + (t % 2 + 1);
+      service.submit(
+          () -> {
+            for (int i = 0; i < perThread; i++) {
+              transactionManager.addTransaction(
+                  new Transaction(accountNumber, TransactionType.DEPOSIT, 1.0, 1.0));
+            }
+          });
+    }
+    service.shutdown();
+    assertTrue(service.awaitTermination(1, TimeUnit.MINUTES));
+
+    assertEquals(threads * perThread, transactionManager.getTransactionCount());
+    assertEquals(threads * perThread, transactionManager.getDepositCount());
+    assertEquals(threads * perThread * 1.0, transactionManager.calculateTotalDeposits());
+    assertEquals(threads * perThread / 2.0, transactionManager.getTotalDeposits("ACC001"));
+    assertEquals(
+        threads * perThread / 2, transactionManager.getTransactionsForAccount("ACC002").length);
+  }
+
+  @Test
+  void testSearchTransactionsSortsNewestFirstAcrossMonths() {
+    transactionManager.addTransaction(
+        new Transaction(
+            "TXN901", "ACC001", TransactionType.DEPOSIT, 1.0, 1.0, "31-01-2025 10:00:00"));
+    transactionManager.addTransaction(
+        new Transaction(
+            "TXN902", "ACC001", TransactionType.DEPOSIT, 1.0, 2.0, "01-02-2025 09:00:00"));
+
+    var results = transactionManager.searchTransactions(t -> true);
+
+    assertEquals("TXN902", results.get(0).getTransactionId());
+    assertEquals("TXN901", results.get(1).getTransactionId());
+  }
+
+  @Test
+  void testBetweenReturnsHalfOpenRangeInTimeOrder() {
+    // Added out of order to exercise insertion into the timeline
+    transactionManager.addTransaction(
+        new Transaction(
+            "TXN911", "ACC001", TransactionType.DEPOSIT, 1.0, 1.0, "10-03-2025 10:00:00"));
+    transactionManager.addTransaction(
+        new Transaction(
+            "TXN912", "ACC001", TransactionType.DEPOSIT, 1.0, 2.0, "01-03-2025 10:00:00"));
+    transactionManager.addTransaction(
+        new Transaction(
+            "TXN913", "ACC001", TransactionType.DEPOSIT, 1.0, 3.0, "20-03-2025 10:00:00"));
+
+    long from = Transaction.parseTimestamp("01-03-2025 10:00:00");
+    long to = Transaction.parseTimestamp("20-03-2025 10:00:00");
+    var range = transactionManager.between(from, to);
+
+    assertEquals(2, range.size());
+    assertEquals("TXN912", range.get(0).getTransactionId());
+    assertEquals("TXN911", range.get(1).getTransactionId());
+    assertTrue(transactionManager.between(to + 1, Long.MAX_VALUE).isEmpty());
+  }
+
+  @Test
+  void testLastNDaysSkipsOlderHistory() {
+    transactionManager.addTransaction(
+        new Transaction(
+            "TXN921", "ACC001", TransactionType.DEPOSIT, 1.0, 1.0, "01-01-2020 10:00:00"));
+    transactionManager.addTransaction(
+        new Transaction("ACC001", TransactionType.WITHDRAWAL, 1.0, 0.0));
+
+    assertEquals(1, transactionManager.lastNDays(7).size());
+    assertEquals(TransactionType.WITHDRAWAL, transactionManager.lastNDays(7).get(0).getType());
+    assertTrue(
+        transactionManager
+            .searchLastNDays(7, t -> t.getType() == TransactionType.DEPOSIT)
+            .isEmpty());
+  }
+
+  @Test
+  void testColumnarStorageAnswersTheSameQueries() {
+    TransactionManager columnar =
+        new TransactionManager(persistenceService, TransactionStorage.COLUMNAR);
+    columnar.addTransaction(
+        new Transaction(
+            "TXN931", "ACC001", TransactionType.DEPOSIT, 10.0, 10.0, "10-03-2025 10:00:00"));
+    columnar.addTransaction(
+        new Transaction(
+            "TXN932", "ACC002", TransactionType.DEPOSIT, 20.0, 20.0, "01-03-2025 10:00:00"));
+    columnar.addTransaction(
+        new Transaction(
+            "TXN933", "ACC001", TransactionType.WITHDRAWAL, 5.0, 5.0, "20-03-2025 10:00:00"));
+
+    var all = columnar.searchTransactions(t -> true);
+    assertEquals("TXN933", all.get(0).getTransactionId());
+    assertEquals("TXN932", all.get(2).getTransactionId());
+    assertEquals(2, columnar.getTransactionsForAccount("ACC001").length);
+    assertEquals(
+        "TXN932",
+        columnar
+            .between(Long.MIN_VALUE, Transaction.parseTimestamp("10-03-2025 10:00:00"))
+            .get(0)
+            .getTransactionId());
+    assertEquals(30.0, columnar.calculateTotalDeposits());
+  }
 }
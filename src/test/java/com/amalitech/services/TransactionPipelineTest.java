@@ -0,0 +1,162 @@
+package com.amalitech.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.constants.WaitStrategy;
+import com.amalitech.models.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/** Unit tests for TransactionPipeline. */
+class TransactionPipelineTest {
+
+  private static final String TEST_DATA_DIR = "target/test-pipeline-data/";
+
+  private FilePersistenceService persistenceService;
+  private AccountManager accountManager;
+  private TransactionManager transactionManager;
+  private Account checking;
+  private Account savings;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(Paths.get(TEST_DATA_DIR));
+    persistenceService = new FilePersistenceService(TEST_DATA_DIR);
+    accountManager =
+        new AccountManager(new CustomerManager(persistenceService), persistenceService);
+    transactionManager = new TransactionManager(persistenceService);
+
+    Customer customer =
+        new RegularCustomer("Alice", 28, "555-0101", "321 Pine St", "alice@example.com");
+    checking = new CheckingAccount("ACC901", customer, 1000.0);
+    savings = new SavingsAccount("ACC902", customer, 1000.0);
+    accountManager.addAccount(checking);
+    accountManager.addAccount(savings);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (var files = Files.list(Paths.get(TEST_DATA_DIR))) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(WaitStrategy.class)
+  void testConcurrentProducersWrapTheRing(WaitStrategy waitStrategy) throws Exception {
+    try (TransactionPipeline pipeline =
+            new TransactionPipeline(accountManager, transactionManager, waitStrategy, 16);
+        ExecutorService producers = Executors.newFixedThreadPool(4)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int p = 0; p < 4; p++) {
+        futures.add(
+            producers.submit(
+                () -> {
+                  for (int i = 0; i < 250; i++) {
+                    pipeline.publish("ACC901", TransactionType.DEPOSIT, 1.0);
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+
+    assertEquals(2000.0, checking.getBalance());
+    assertEquals(1000, transactionManager.getDepositCount());
+    assertEquals(1000, persistenceService.loadTransactions().size());
+  }
+
+  @Test
+  void testRejectedRequestsAreCountedAndSkipped() {
+    List<Long> failed = Collections.synchronizedList(new ArrayList<>());
+    try (TransactionPipeline pipeline =
+        new TransactionPipeline(
+            accountManager,
+            transactionManager,
+            WaitStrategy.PARK,
+            TransactionPipeline.DEFAULT_CAPACITY,
+            (sequence, accountNumber, cause) -> failed.add(sequence))) {
+      pipeline.publish("ACC902", TransactionType.WITHDRAWAL, 400.0);
+      pipeline.publish("ACC902", TransactionType.WITHDRAWAL, 400.0);
+      pipeline.publish("ACC999", TransactionType.DEPOSIT, 10.0);
+      long last = pipeline.publish("ACC901", TransactionType.DEPOSIT, -5.0);
+      pipeline.awaitProcessed(last);
+
+      assertEquals(1, pipeline.getAppliedCount());
+      assertEquals(3, pipeline.getRejectedCount());
+      assertEquals(600.0, savings.getBalance());
+      assertEquals(1, transactionManager.getTransactionCount());
+      assertEquals(List.of(1L, 2L, 3L), failed);
+    }
+  }
+
+  @Test
+  void testFailedJournalWriteIsReportedAndPipelineKeepsRunning() throws IOException {
+    AtomicBoolean failNext = new AtomicBoolean(true);
+    TransactionManager failingManager =
+        new TransactionManager(persistenceService) {
+          @Override
+          public void journalTransactions(List<Transaction> newTransactions) {
+            if (failNext.getAndSet(false)) {
+              throw new IllegalStateException("journal unavailable");
+            }
+            super.journalTransactions(newTransactions);
+          }
+        };
+    List<Exception> failures = Collections.synchronizedList(new ArrayList<>());
+
+    try (TransactionPipeline pipeline =
+        new TransactionPipeline(
+            accountManager,
+            failingManager,
+            WaitStrategy.PARK,
+            TransactionPipeline.DEFAULT_CAPACITY,
+            (sequence, accountNumber, cause) -> failures.add(cause))) {
+      pipeline.awaitProcessed(pipeline.publish("ACC901", TransactionType.DEPOSIT, 10.0));
+      pipeline.awaitProcessed(pipeline.publish("ACC901", TransactionType.DEPOSIT, 5.0));
+    }
+
+    assertEquals(1, failures.size());
+    assertInstanceOf(IllegalStateException.class, failures.get(0));
+    assertEquals(1015.0, checking.getBalance());
+    assertEquals(2, failingManager.getTransactionCount());
+    // The transaction missing from the journal is written by the next save
+    failingManager.saveTransactions();
+    assertEquals(2, persistenceService.loadTransactions().size());
+  }
+
+  @Test
+  void testInvalidArgumentsAreRefused() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new TransactionPipeline(accountManager, transactionManager, WaitStrategy.PARK, 10));
+
+    TransactionPipeline pipeline =
+        new TransactionPipeline(accountManager, transactionManager, WaitStrategy.PARK);
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> pipeline.publish("ACC901", TransactionType.TRANSFER_IN, 10.0));
+    pipeline.close();
+    assertThrows(
+        java.util.concurrent.RejectedExecutionException.class,
+        () -> pipeline.publish("ACC901", TransactionType.DEPOSIT, 10.0));
+  }
+}
@@ -0,0 +1,117 @@
+package com.amalitech.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for TransferService verifying balances and ledger entries move together. */
+class TransferServiceTest {
+
+  private static final String TEST_DATA_DIR = "target/test-transfer-data/";
+
+  private FilePersistenceService persistenceService;
+  private AccountManager accountManager;
+  private TransactionManager transactionManager;
+  private TransferService transferService;
+  private Account checking;
+  private Account savings;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(Paths.get(TEST_DATA_DIR));
+    persistenceService = new FilePersistenceService(TEST_DATA_DIR);
+    CustomerManager customerManager = new CustomerManager(persistenceService);
+    accountManager = new AccountManager(customerManager, persistenceService);
+    transactionManager = new TransactionManager(persistenceService);
+    transferService = new TransferService(accountManager, transactionManager);
+
+    Customer customer =
+        new RegularCustomer("Alice", 28, "555-0101", "321 Pine St", "alice@example.com");
+    checking = new CheckingAccount("ACC801", customer, 1000.0);
+    savings = new SavingsAccount("ACC802", customer, 1000.0);
+    accountManager.addAccount(checking);
+    accountManager.addAccount(savings);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (var files = Files.list(Paths.get(TEST_DATA_DIR))) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Test
+  void testTransferRecordsBothEntriesWithExactBalances() throws Exception {
+    List<Transaction> entries = transferService.transfer("ACC801", "ACC802", 200.0);
+
+    assertEquals(TransactionType.TRANSFER_OUT, entries.get(0).getType());
+    assertEquals(800.0, entries.get(0).getBalanceAfter());
+    assertEquals(TransactionType.TRANSFER_IN, entries.get(1).getType());
+    assertEquals(1200.0, entries.get(1).getBalanceAfter());
+    assertEquals(2, transactionManager.getTransactionCount());
+    assertEquals(2, persistenceService.loadTransactions().size());
+  }
+
+  @Test
+  void testFailedTransferRecordsNothing() {
+    // Savings must keep its 500.0 minimum balance
+    assertThrows(Exception.class, () -> transferService.transfer("ACC802", "ACC801", 600.0));
+
+    assertEquals(0, transactionManager.getTransactionCount());
+    assertEquals(1000.0, savings.getBalance());
+  }
+
+  @Test
+  void testConcurrentTransfersKeepLedgerConsistent() throws Exception {
+    ExecutorService service = Executors.newFixedThreadPool(8);
+    List<Future<List<Transaction>>> results = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      String from = i % 2 == 0 ? "ACC801" : "ACC802";
+      String to = i % 2 == 0 ? "ACC802" : "ACC801";
+      results.add(service.submit(() -> transferService.transfer(from, to, 5.0)));
+    }
+    for (Future<List<Transaction>> result : results) {
+      result.get(1, TimeUnit.MINUTES);
+    }
+    service.shutdown();
+
+    assertEquals(1000.0, checking.getBalance());
+    assertEquals(1000.0, savings.getBalance());
+    assertEquals(200, transactionManager.getTransactionCount());
+    // Every debit's balance-after is a balance the source account actually held
+    for (Transaction entry : transactionManager.getTransactionsForAccount("ACC801")) {
+      assertTrue(entry.getBalanceAfter() >= 950.0 && entry.getBalanceAfter() <= 1050.0);
+    }
+  }
+
+  @Test
+  void testTransferBatchRecordsOnlySuccessfulEntries() throws Exception {
+    List<TransferResult> results =
+        transferService.transferBatch(
+            List.of(
+                new TransferRequest("ACC801", "ACC802", 100.0),
+                new TransferRequest("ACC802", "ACC801", 2000.0),
+                new TransferRequest("ACC802", "ACC801", 50.0)));
+
+    assertEquals(2, results.stream().filter(TransferResult::isSuccess).count());
+    assertEquals(4, transactionManager.getTransactionCount());
+    assertEquals(4, persistenceService.loadTransactions().size());
+    assertEquals(950.0, checking.getBalance());
+  }
+}
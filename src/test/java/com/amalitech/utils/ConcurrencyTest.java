@@ -1,10 +1,16 @@
 package com.amalitech.utils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.amalitech.models.CheckingAccount;
 import com.amalitech.models.Customer;
 import com.amalitech.models.RegularCustomer;
+import com.amalitech.models.SavingsAccount;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
 class ConcurrencyTest {
@@ -26,4 +32,43 @@ class ConcurrencyTest {
         account.getBalance(),
         "Balance should remain consistent after concurrent operations");
   }
+
+  @Test
+  void testConcurrentWithdrawalsKeepMinimumBalance() throws InterruptedException {
+    // 1000.0 with a 500.0 minimum leaves room for exactly 50 withdrawals of 10.0
+    SavingsAccount account = new SavingsAccount("ACC900", null, 1000.0);
+    AtomicInteger succeeded = new AtomicInteger();
+
+    ExecutorService service = Executors.newFixedThreadPool(16);
+    for (int i = 0; i < 200; i++) {
+      service.submit(
+          () -> {
+            try {
+              account.withdraw(10.0);
+              succeeded.incrementAndGet();
+            } catch (Exception e) {
+              // Rejected: the minimum balance would be breached
+            }
+          });
+    }
+    service.shutdown();
+    assertTrue(service.awaitTermination(1, TimeUnit.MINUTES));
+
+    assertEquals(50, succeeded.get());
+    assertEquals(500.0, account.getBalance());
+  }
+
+  @Test
+  void testContentionBenchmarkLeavesBalanceUnchanged() throws InterruptedException {
+    CheckingAccount account = new CheckingAccount("ACC901", null, 100.0);
+
+    ConcurrencyUtils.BenchmarkResult result =
+        ConcurrencyUtils.runContentionBenchmark(account, 4, 1000);
+
+    assertEquals(4000, result.operations());
+    assertTrue(result.lockFreeNanos() > 0);
+    assertTrue(result.synchronizedNanos() > 0);
+    assertEquals(0, result.failures());
+    assertEquals(100.0, account.getBalance());
+  }
 }
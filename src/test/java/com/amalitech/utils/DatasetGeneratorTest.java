@@ -0,0 +1,137 @@
+package com.amalitech.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.amalitech.constants.TransactionType;
+import com.amalitech.models.Account;
+import com.amalitech.models.Customer;
+import com.amalitech.models.SavingsAccount;
+import com.amalitech.models.Transaction;
+import com.amalitech.services.BinarySnapshotPersistenceService;
+import com.amalitech.services.FilePersistenceService;
+import com.amalitech.services.PersistenceService;
+import com.amalitech.services.SegmentedPersistenceService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for DatasetGenerator. */
+class DatasetGeneratorTest {
+
+  private static final String TEST_DATA_DIR = "target/test-generator-data/";
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(Paths.get(TEST_DATA_DIR));
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(Paths.get(TEST_DATA_DIR))) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Test
+  void testSameSeedProducesSameDataset() {
+    List<Transaction> first = generate(7L, 5_000);
+    List<Transaction> second = generate(7L, 5_000);
+    List<Transaction> other = generate(8L, 5_000);
+
+    assertEquals(5_000, first.size());
+    for (int i = 0; i < first.size(); i++) {
+      assertEquals(first.get(i).getTransactionId(), second.get(i).getTransactionId());
+      assertEquals(first.get(i).getAccountNumber(), second.get(i).getAccountNumber());
+      assertEquals(first.get(i).getAmountCents(), second.get(i).getAmountCents());
+      assertEquals(first.get(i).getTimestampMillis(), second.get(i).getTimestampMillis());
+    }
+    assertNotEquals(
+        first.get(100).getAmountCents() + first.get(100).getAccountNumber(),
+        other.get(100).getAmountCents() + other.get(100).getAccountNumber());
+  }
+
+  @Test
+  void testHistoryIsOrderedAndBalancesAreConsistent() {
+    DatasetGenerator generator = new DatasetGenerator(3L, 30);
+    HashMap<String, Customer> customers = generator.generateCustomers(20);
+    Map<String, Account> accounts = generator.generateAccounts(customers, 50);
+    Map<String, Long> balances = new HashMap<>();
+    accounts.forEach((number, account) -> balances.put(number, account.getBalanceCents()));
+
+    List<Transaction> transactions = generator.generateTransactions(accounts, 20_000);
+
+    long previous = Long.MIN_VALUE;
+    for (Transaction transaction : transactions) {
+      assertTrue(transaction.getTimestampMillis() >= previous);
+      previous = transaction.getTimestampMillis();
+
+      long sign =
+          transaction.getType() == TransactionType.DEPOSIT
+                  || transaction.getType() == TransactionType.TRANSFER_IN
+              ? 1
+              : -1;
+      long expected =
+          balances.get(transaction.getAccountNumber()) + sign * transaction.getAmountCents();
+      assertEquals(expected, transaction.getBalanceAfterCents());
+      balances.put(transaction.getAccountNumber(), expected);
+
+      Account account = accounts.get(transaction.getAccountNumber());
+      if (account instanceof SavingsAccount savings) {
+        assertTrue(expected >= MoneyUtils.toCents(savings.getMinimumBalance()));
+      }
+    }
+    accounts.forEach(
+        (number, account) -> assertEquals(balances.get(number), account.getBalanceCents()));
+    assertTrue(transactions.stream().anyMatch(t -> t.getType() == TransactionType.TRANSFER_IN));
+  }
+
+  @Test
+  void testWriteDatasetRoundTripsInBothFormats() throws IOException {
+    for (PersistenceService service :
+        List.of(
+            new FilePersistenceService(TEST_DATA_DIR, 1_000),
+            new BinarySnapshotPersistenceService(TEST_DATA_DIR))) {
+      DatasetGenerator.Summary summary =
+          new DatasetGenerator(11L).writeDataset(service, 10, 25, 150_000);
+
+      HashMap<String, Customer> customers = service.loadCustomers();
+      assertEquals(10, customers.size());
+      assertEquals(25, service.loadAccounts(customers).size());
+      assertEquals(summary.transactions(), service.loadTransactions().size());
+    }
+  }
+
+  @Test
+  void testMainWritesArchivedSegments() throws IOException {
+    DatasetGenerator.main(new String[] {TEST_DATA_DIR, "10", "25", "20000", "7", "archived"});
+
+    Path segments = Paths.get(TEST_DATA_DIR, "segments");
+    assertTrue(Files.exists(segments.resolve("manifest.txt")));
+    try (Stream<Path> files = Files.list(segments)) {
+      assertTrue(files.anyMatch(file -> file.toString().endsWith(".dz")));
+    }
+    SegmentedPersistenceService service = new SegmentedPersistenceService(TEST_DATA_DIR);
+    long hot = service.loadTransactions().size();
+    assertEquals(20_000, hot + service.getColdSegments().getTransactionCount());
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  private static List<Transaction> generate(long seed, int count) {
+    DatasetGenerator generator = new DatasetGenerator(seed);
+    Map<String, Account> accounts =
+        generator.generateAccounts(generator.generateCustomers(10), 40);
+    return generator.generateTransactions(accounts, count);
+  }
+}
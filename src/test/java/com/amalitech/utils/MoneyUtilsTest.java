@@ -0,0 +1,39 @@
+package com.amalitech.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for MoneyUtils cent conversion and formatting. */
+class MoneyUtilsTest {
+
+  @Test
+  void testToCentsRoundsToNearestCent() {
+    assertEquals(1234L, MoneyUtils.toCents(12.34));
+    assertEquals(30L, MoneyUtils.toCents(0.1 + 0.2));
+    assertEquals(-7525L, MoneyUtils.toCents(-75.25));
+    assertEquals(1L, MoneyUtils.toCents(0.005));
+  }
+
+  @Test
+  void testToCentsRejectsNonFiniteAmounts() {
+    assertThrows(IllegalArgumentException.class, () -> MoneyUtils.toCents(Double.NaN));
+    assertThrows(
+        IllegalArgumentException.class, () -> MoneyUtils.toCents(Double.POSITIVE_INFINITY));
+  }
+
+  @Test
+  void testFormat() {
+    assertEquals("0.00", MoneyUtils.format(0));
+    assertEquals("0.05", MoneyUtils.format(5));
+    assertEquals("1234.50", MoneyUtils.format(123450));
+    assertEquals("-0.05", MoneyUtils.format(-5));
+    assertEquals("-75.25", MoneyUtils.format(-7525));
+  }
+
+  @Test
+  void testToAmountRoundTrips() {
+    assertEquals(59.5, MoneyUtils.toAmount(MoneyUtils.toCents(59.5)));
+    assertEquals(1234.56, MoneyUtils.toAmount(123456));
+  }
+}